@@ -0,0 +1,105 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client.benchmarks;
+
+import io.r2dbc.client.Handle;
+import io.r2dbc.client.PoolConfiguration;
+import io.r2dbc.client.R2dbc;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+
+import java.util.UUID;
+
+import static io.r2dbc.h2.H2ConnectionFactoryProvider.H2_DRIVER;
+import static io.r2dbc.h2.H2ConnectionFactoryProvider.URL;
+import static io.r2dbc.spi.ConnectionFactoryOptions.DRIVER;
+import static io.r2dbc.spi.ConnectionFactoryOptions.PASSWORD;
+import static io.r2dbc.spi.ConnectionFactoryOptions.USER;
+
+/**
+ * The database a benchmark runs against: either an in-process stub that isolates the overhead of the client, or an H2 in-memory database.  Both are seeded with a {@code benchmark} table of
+ * {@code rows} rows.  A pooled {@link R2dbc} is used so that connection setup is excluded from per-operation measurements, and one {@link Handle} is held open for the whole trial.
+ */
+@State(Scope.Benchmark)
+public class Backend {
+
+    @Param({"stub", "h2"})
+    public String backend;
+
+    @Param({"1", "100"})
+    public int rows;
+
+    private Handle handle;
+
+    private R2dbc r2dbc;
+
+    public Handle getHandle() {
+        return this.handle;
+    }
+
+    public R2dbc getR2dbc() {
+        return this.r2dbc;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.r2dbc = R2dbc.builder()
+            .connectionFactory(createConnectionFactory())
+            .pool(PoolConfiguration.builder()
+                .maxSize(2)
+                .build())
+            .build();
+
+        this.r2dbc
+            .useHandle(handle -> handle
+                .execute("CREATE TABLE benchmark ( id INTEGER PRIMARY KEY, value VARCHAR(32) )")
+                .thenMany(Flux.range(0, this.rows)
+                    .concatMap(i -> handle.execute("INSERT INTO benchmark VALUES ($1, $2)", i, "value-" + i))))
+            .block();
+
+        this.handle = this.r2dbc.open().block();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Flux.from(this.handle.close())
+            .then(this.r2dbc.close())
+            .block();
+    }
+
+    private ConnectionFactory createConnectionFactory() {
+        if ("stub".equals(this.backend)) {
+            return new StubConnectionFactory(this.rows);
+        }
+
+        return ConnectionFactories.get(ConnectionFactoryOptions.builder()
+            .option(DRIVER, H2_DRIVER)
+            .option(URL, String.format("mem:%s;DB_CLOSE_DELAY=-1", UUID.randomUUID()))
+            .option(USER, "sa")
+            .option(PASSWORD, "")
+            .build());
+    }
+
+}
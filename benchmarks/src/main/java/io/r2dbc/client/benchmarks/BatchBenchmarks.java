@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client.benchmarks;
+
+import io.r2dbc.client.ResultStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link io.r2dbc.client.Batch#mapResult(java.util.function.Function)}, combining the results of the batch unordered, the default, and with {@link ResultStrategy#ORDERED}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+public class BatchBenchmarks {
+
+    @Benchmark
+    public void mapResult(Backend backend, Blackhole blackhole) {
+        backend.getHandle()
+            .createBatch()
+            .add("UPDATE benchmark SET value = 'updated' WHERE id = 0")
+            .add("SELECT id, value FROM benchmark")
+            .mapResult(result -> result.map((row, rowMetadata) -> row.get("id", Integer.class)))
+            .doOnNext(blackhole::consume)
+            .blockLast();
+    }
+
+    @Benchmark
+    public void mapResultOrdered(Backend backend, Blackhole blackhole) {
+        backend.getHandle()
+            .createBatch()
+            .add("UPDATE benchmark SET value = 'updated' WHERE id = 0")
+            .add("SELECT id, value FROM benchmark")
+            .mapResult(result -> result.map((row, rowMetadata) -> row.get("id", Integer.class)), ResultStrategy.ORDERED)
+            .doOnNext(blackhole::consume)
+            .blockLast();
+    }
+
+}
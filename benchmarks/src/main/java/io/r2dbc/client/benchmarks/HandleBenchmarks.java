@@ -0,0 +1,58 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link io.r2dbc.client.Handle#select(String, Object...)} and {@link io.r2dbc.client.Handle#execute(String, Object...)}.  The per-row latency of {@code selectMapRow} is its
+ * average time divided by {@link Backend#rows}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+public class HandleBenchmarks {
+
+    @Benchmark
+    public void execute(Backend backend, Blackhole blackhole) {
+        backend.getHandle()
+            .execute("UPDATE benchmark SET value = $1 WHERE id = $2", "updated", 0)
+            .doOnNext(blackhole::consume)
+            .blockLast();
+    }
+
+    @Benchmark
+    public void selectMapRow(Backend backend, Blackhole blackhole) {
+        backend.getHandle()
+            .select("SELECT id, value FROM benchmark WHERE id >= $1", 0)
+            .mapRow(row -> row.get("value", String.class))
+            .doOnNext(blackhole::consume)
+            .blockLast();
+    }
+
+}
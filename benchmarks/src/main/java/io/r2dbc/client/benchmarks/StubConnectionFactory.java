@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client.benchmarks;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.test.MockColumnMetadata;
+import io.r2dbc.spi.test.MockRow;
+import io.r2dbc.spi.test.MockRowMetadata;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * An in-process {@link ConnectionFactory} whose connections answer every request immediately with a fixed result.  Unlike the mocks in {@code r2dbc-spi-test}, nothing is recorded, so the
+ * allocation measured by a benchmark is that of the client rather than of the stub.
+ */
+final class StubConnectionFactory implements ConnectionFactory {
+
+    private final Connection connection;
+
+    StubConnectionFactory(int rows) {
+        this.connection = new StubConnection(new StubResult(rows));
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.just(this.connection);
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return () -> "Stub";
+    }
+
+    private static final class StubBatch implements Batch {
+
+        private final Result result;
+
+        private StubBatch(Result result) {
+            this.result = result;
+        }
+
+        @Override
+        public Batch add(String sql) {
+            return this;
+        }
+
+        @Override
+        public Publisher<? extends Result> execute() {
+            return Mono.just(this.result);
+        }
+
+    }
+
+    private static final class StubConnection implements Connection {
+
+        private final Result result;
+
+        private StubConnection(Result result) {
+            this.result = result;
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> close() {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return Mono.empty();
+        }
+
+        @Override
+        public Batch createBatch() {
+            return new StubBatch(this.result);
+        }
+
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Statement createStatement(String sql) {
+            return new StubStatement(this.result);
+        }
+
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+            return Mono.empty();
+        }
+
+    }
+
+    private static final class StubResult implements Result {
+
+        private final RowMetadata rowMetadata;
+
+        private final List<Row> rows;
+
+        private StubResult(int rows) {
+            this.rowMetadata = MockRowMetadata.builder()
+                .columnMetadata(MockColumnMetadata.builder().name("id").nativeTypeMetadata(0).build())
+                .columnMetadata(MockColumnMetadata.builder().name("value").nativeTypeMetadata(1).build())
+                .build();
+
+            this.rows = IntStream.range(0, rows)
+                .mapToObj(i -> MockRow.builder()
+                    .identified(0, Integer.class, i)
+                    .identified("id", Integer.class, i)
+                    .identified(1, String.class, "value-" + i)
+                    .identified("value", String.class, "value-" + i)
+                    .build())
+                .collect(Collectors.toList());
+        }
+
+        @Override
+        public Publisher<Integer> getRowsUpdated() {
+            return Mono.just(1);
+        }
+
+        @Override
+        public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> f) {
+            return Flux.fromIterable(this.rows)
+                .map(row -> f.apply(row, this.rowMetadata));
+        }
+
+    }
+
+    private static final class StubStatement implements Statement {
+
+        private final Result result;
+
+        private StubStatement(Result result) {
+            this.result = result;
+        }
+
+        @Override
+        public Statement add() {
+            return this;
+        }
+
+        @Override
+        public Statement bind(Object identifier, Object value) {
+            return this;
+        }
+
+        @Override
+        public Statement bind(int index, Object value) {
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(Object identifier, Class<?> type) {
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(int index, Class<?> type) {
+            return this;
+        }
+
+        @Override
+        public Publisher<? extends Result> execute() {
+            return Mono.just(this.result);
+        }
+
+    }
+
+}
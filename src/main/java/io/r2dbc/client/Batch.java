@@ -20,7 +20,12 @@ import io.r2dbc.client.util.Assert;
 import io.r2dbc.spi.Result;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.util.annotation.Nullable;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 /**
@@ -30,8 +35,34 @@ public final class Batch implements ResultBearing {
 
     private final io.r2dbc.spi.Batch batch;
 
+    @Nullable
+    private final ExecutionListener executionListener;
+
+    @Nullable
+    private final Consumer<Set<String>> onExecuted;
+
+    @Nullable
+    private final StringJoiner sql;
+
+    @Nullable
+    private final Set<String> tables;
+
+    @Nullable
+    private final DeferredTransaction transaction;
+
+    private int statements;
+
     Batch(io.r2dbc.spi.Batch batch) {
+        this(batch, null, null, null);
+    }
+
+    Batch(io.r2dbc.spi.Batch batch, @Nullable ExecutionListener executionListener, @Nullable DeferredTransaction transaction, @Nullable Consumer<Set<String>> onExecuted) {
         this.batch = Assert.requireNonNull(batch, "batch must not be null");
+        this.executionListener = executionListener;
+        this.transaction = transaction;
+        this.onExecuted = onExecuted;
+        this.sql = executionListener == null ? null : new StringJoiner("; ");
+        this.tables = onExecuted == null ? null : new HashSet<>();
     }
 
     /**
@@ -45,14 +76,45 @@ public final class Batch implements ResultBearing {
         Assert.requireNonNull(sql, "sql must not be null");
 
         this.batch.add(sql);
+        this.statements++;
+
+        if (this.sql != null) {
+            this.sql.add(sql);
+        }
+
+        if (this.tables != null) {
+            this.tables.addAll(TableNames.written(sql));
+        }
+
         return this;
     }
 
     public <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f) {
+        return mapResult(f, ResultStrategy.UNORDERED);
+    }
+
+    @Override
+    public <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f, ResultStrategy strategy) {
         Assert.requireNonNull(f, "f must not be null");
+        Assert.requireNonNull(strategy, "strategy must not be null");
+
+        Flux<Result> results = this.transaction == null ? Flux.from(this.batch.execute()) : this.transaction.execute(this.batch::execute);
+
+        Flux<T> execution = strategy.map(results, f);
+
+        Consumer<Set<String>> onExecuted = this.onExecuted;
+        Set<String> tables = this.tables;
+
+        if (onExecuted != null && tables != null) {
+            execution = execution
+                .doOnComplete(() -> onExecuted.accept(tables));
+        }
+
+        if (this.executionListener == null || this.sql == null) {
+            return execution;
+        }
 
-        return Flux.from(this.batch.execute())
-            .flatMap(f::apply);
+        return ExecutionInstrumentation.instrument(execution, this.executionListener, this.sql.toString(), this.statements);
     }
 
     @Override
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A loader that batches lookups of individual keys into a single query with an {@code IN} list.  Keys requested within {@code maxDelay} of the first key of a batch, or until
+ * {@code maxBatchSize} distinct keys have been requested, are looked up together, and each row is routed to the callers that requested its key.  The {@code IN} list of a batch is padded to
+ * the next power of two by repeating its last key, so that batches of different sizes share a small number of statements.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @see Handle#createBatchLoader(String, BiFunction, Function, int, Duration)
+ */
+public final class BatchLoader<K, V> {
+
+    private final BindMarkers bindMarkers;
+
+    private final BiFunction<Row, RowMetadata, ? extends V> f;
+
+    private final Function<? super V, ? extends K> keyFunction;
+
+    private final Object lock = new Object();
+
+    private final int maxBatchSize;
+
+    private final Duration maxDelay;
+
+    private final String prefix;
+
+    private final Function<String, Query> queryFactory;
+
+    private final String suffix;
+
+    @Nullable
+    private Pending<K, V> pending;
+
+    BatchLoader(String sql, Function<String, Query> queryFactory, BindMarkers bindMarkers, BiFunction<Row, RowMetadata, ? extends V> f, Function<? super V, ? extends K> keyFunction,
+                int maxBatchSize, Duration maxDelay) {
+        Assert.requireNonNull(sql, "sql must not be null");
+        this.queryFactory = Assert.requireNonNull(queryFactory, "queryFactory must not be null");
+        this.bindMarkers = Assert.requireNonNull(bindMarkers, "bindMarkers must not be null");
+        this.f = Assert.requireNonNull(f, "f must not be null");
+        this.keyFunction = Assert.requireNonNull(keyFunction, "keyFunction must not be null");
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = Assert.requireNonNull(maxDelay, "maxDelay must not be null");
+
+        int position = bindMarkers.indexOf(sql, 0);
+        boolean anonymous = bindMarkers.getPlaceholder(0).equals(bindMarkers.getPlaceholder(1));
+        boolean single = anonymous ? bindMarkers.indexOf(sql.substring(position + 1), 0) == -1 : bindMarkers.indexOf(sql, 1) == -1;
+        Assert.isTrue(position != -1 && single, "sql must contain exactly one bind marker");
+
+        this.prefix = sql.substring(0, position);
+        this.suffix = sql.substring(position + bindMarkers.getPlaceholder(0).length());
+    }
+
+    /**
+     * Load the value of a key.  The key is only requested when the returned {@link Mono} is subscribed to.
+     *
+     * @param key the key to load
+     * @return a {@link Mono} of the value of the key, or an empty {@link Mono} if there is no row for the key
+     * @throws IllegalArgumentException if {@code key} is {@code null}
+     */
+    public Mono<V> load(K key) {
+        Assert.requireNonNull(key, "key must not be null");
+
+        return Mono.defer(() -> enqueue(key));
+    }
+
+    @Override
+    public String toString() {
+        return "BatchLoader{" +
+            "maxBatchSize=" + this.maxBatchSize +
+            ", maxDelay=" + this.maxDelay +
+            ", sql='" + this.prefix + this.bindMarkers.getPlaceholder(0) + this.suffix + '\'' +
+            '}';
+    }
+
+    String getSql(int keys) {
+        return this.prefix + this.bindMarkers.getPlaceholders(0, keys) + this.suffix;
+    }
+
+    private Mono<V> enqueue(K key) {
+        MonoProcessor<V> waiter;
+        Pending<K, V> full = null;
+
+        synchronized (this.lock) {
+            Pending<K, V> pending = this.pending;
+
+            if (pending == null) {
+                pending = new Pending<>();
+                this.pending = pending;
+
+                Pending<K, V> scheduled = pending;
+                pending.timer = Mono.delay(this.maxDelay)
+                    .subscribe(tick -> flush(scheduled));
+            }
+
+            waiter = pending.waiters.computeIfAbsent(key, k -> MonoProcessor.create());
+
+            if (pending.waiters.size() >= this.maxBatchSize) {
+                full = pending;
+                this.pending = null;
+            }
+        }
+
+        if (full != null) {
+            Disposable timer = full.timer;
+
+            if (timer != null) {
+                timer.dispose();
+            }
+
+            execute(full.waiters);
+        }
+
+        return waiter;
+    }
+
+    private void execute(Map<K, MonoProcessor<V>> waiters) {
+        List<K> keys = new ArrayList<>(waiters.keySet());
+
+        Flux.defer(() -> {
+            int size = InListRewrite.getBucket(keys.size());
+            Query query = this.queryFactory.apply(getSql(size));
+
+            for (int i = 0; i < size; i++) {
+                query.bind(i, keys.get(Math.min(i, keys.size() - 1)));
+            }
+
+            return query.add().mapRow(this.f);
+        })
+            .subscribe(value -> {
+                MonoProcessor<V> waiter = waiters.remove(this.keyFunction.apply(value));
+
+                if (waiter != null) {
+                    waiter.onNext(value);
+                }
+            }, t -> {
+                waiters.values().forEach(waiter -> waiter.onError(t));
+                waiters.clear();
+            }, () -> {
+                waiters.values().forEach(MonoProcessor::onComplete);
+                waiters.clear();
+            });
+    }
+
+    private void flush(Pending<K, V> scheduled) {
+        synchronized (this.lock) {
+            if (this.pending != scheduled) {
+                return;
+            }
+
+            this.pending = null;
+        }
+
+        execute(scheduled.waiters);
+    }
+
+    private static final class Pending<K, V> {
+
+        private final Map<K, MonoProcessor<V>> waiters = new LinkedHashMap<>();
+
+        @Nullable
+        private volatile Disposable timer;
+
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import java.util.StringJoiner;
+
+/**
+ * The styles of positional bind markers understood by drivers, used when the client generates the bind markers of a statement.
+ */
+public enum BindMarkers {
+
+    /**
+     * Markers numbered from one and prefixed by {@code $}, such as {@code $1}, used by PostgreSQL and H2.
+     */
+    DOLLAR {
+        @Override
+        public String getPlaceholder(int index) {
+            return "$" + (index + 1);
+        }
+    },
+
+    /**
+     * Markers numbered from zero and prefixed by {@code @P}, such as {@code @P0}, used by Microsoft SQL Server.
+     */
+    AT_P {
+        @Override
+        public String getPlaceholder(int index) {
+            return "@P" + index;
+        }
+    },
+
+    /**
+     * Anonymous markers written as {@code ?}, used by JDBC-style drivers.
+     */
+    QUESTION_MARK {
+        @Override
+        public String getPlaceholder(int index) {
+            return "?";
+        }
+    };
+
+    /**
+     * Returns the placeholder of a parameter.
+     *
+     * @param index the zero-based index of the parameter
+     * @return the placeholder of the parameter
+     */
+    public abstract String getPlaceholder(int index);
+
+    /**
+     * Returns the zero-based index of the parameter an identifier refers to.  Integer identifiers are indexes themselves, and string identifiers are resolved if they are a placeholder of this
+     * style.
+     *
+     * @param identifier the identifier of the parameter
+     * @return the zero-based index of the parameter, or {@code -1} if the identifier does not refer to a positional parameter
+     */
+    int getIndex(Object identifier) {
+        if (identifier instanceof Integer) {
+            return (Integer) identifier;
+        }
+
+        if (this == QUESTION_MARK || !(identifier instanceof String)) {
+            return -1;
+        }
+
+        String placeholder = getPlaceholder(0);
+        String prefix = placeholder.substring(0, placeholder.length() - 1);
+        String name = (String) identifier;
+
+        if (!name.startsWith(prefix) || name.length() == prefix.length()) {
+            return -1;
+        }
+
+        try {
+            int index = Integer.parseInt(name.substring(prefix.length())) - Integer.parseInt(placeholder.substring(prefix.length()));
+            return index < 0 ? -1 : index;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the comma-separated placeholders of a run of parameters.
+     *
+     * @param start the zero-based index of the first parameter
+     * @param count the number of parameters
+     * @return the placeholders of the parameters
+     */
+    String getPlaceholders(int start, int count) {
+        StringJoiner placeholders = new StringJoiner(", ");
+
+        for (int i = start; i < start + count; i++) {
+            placeholders.add(getPlaceholder(i));
+        }
+
+        return placeholders.toString();
+    }
+
+    /**
+     * Returns the position of the placeholder of a parameter in a SQL string, ignoring placeholders that only share a prefix with it, such as {@code $10} for {@code $1}.
+     *
+     * @param sql   the SQL to search
+     * @param index the zero-based index of the parameter
+     * @return the position of the placeholder, or {@code -1} if it does not occur
+     */
+    int indexOf(String sql, int index) {
+        String placeholder = getPlaceholder(index);
+
+        int position = sql.indexOf(placeholder);
+        while (position != -1) {
+            int end = position + placeholder.length();
+
+            if (end == sql.length() || !Character.isDigit(sql.charAt(end))) {
+                return position;
+            }
+
+            position = sql.indexOf(placeholder, end);
+        }
+
+        return -1;
+    }
+
+}
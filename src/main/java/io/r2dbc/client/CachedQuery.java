@@ -0,0 +1,162 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.Result;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A query whose results are served from the result cache of an {@link R2dbc} when possible.  The rows of each execution are read into memory before they are mapped, so that they can be
+ * cached and replayed, and a query answered from the cache does not acquire a connection.
+ * <p>
+ * Cached results are tagged with the tables named in the {@code FROM} and {@code JOIN} clauses of the query, or with the tables declared by {@link #tables(String...)}, and are invalidated
+ * when an {@link Update} or {@link Batch} of the same {@link R2dbc} writes one of those tables.  Concurrent identical queries may also share a single execution, which always runs on a
+ * {@link Handle} of its own, so queries issued with a {@link Handle} bound to the current context never share one.
+ *
+ * @see R2dbc#select(String, Object...)
+ */
+public final class CachedQuery implements ResultBearing {
+
+    private final Mono<Optional<Handle>> ambient;
+
+    private final Flux<CachedResult> execution;
+
+    private final ResultCache.Key key;
+
+    private final Function<Handle, Flux<CachedResult>> query;
+
+    @Nullable
+    private final QueryCoalescer queryCoalescer;
+
+    @Nullable
+    private final ResultCache resultCache;
+
+    private Set<String> tables;
+
+    CachedQuery(ResultCache.Key key, @Nullable ResultCache resultCache, @Nullable QueryCoalescer queryCoalescer, Mono<Optional<Handle>> ambient, Function<Handle, Flux<CachedResult>> query,
+                Flux<CachedResult> execution) {
+        this.key = Assert.requireNonNull(key, "key must not be null");
+        this.tables = TableNames.read(key.getSql());
+        this.resultCache = resultCache;
+        this.queryCoalescer = queryCoalescer;
+        this.ambient = Assert.requireNonNull(ambient, "ambient must not be null");
+        this.query = Assert.requireNonNull(query, "query must not be null");
+        this.execution = Assert.requireNonNull(execution, "execution must not be null");
+    }
+
+    @Override
+    public <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f) {
+        return mapResult(f, ResultStrategy.ORDERED);
+    }
+
+    @Override
+    public <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f, ResultStrategy strategy) {
+        Assert.requireNonNull(f, "f must not be null");
+        Assert.requireNonNull(strategy, "strategy must not be null");
+
+        return strategy.map(getResults().flatMapMany(Flux::fromIterable), f);
+    }
+
+    /**
+     * Declare the tables the query reads, replacing those found in its SQL.  Cached results of the query are invalidated when any of these tables is written.
+     *
+     * @param tables the names of the tables, optionally qualified by a schema
+     * @return this {@link CachedQuery}
+     * @throws IllegalArgumentException if {@code tables} is {@code null} or empty
+     */
+    public CachedQuery tables(String... tables) {
+        Assert.requireNonNull(tables, "tables must not be null");
+        Assert.isTrue(tables.length > 0, "tables must not be empty");
+
+        Set<String> names = new LinkedHashSet<>();
+        for (String table : tables) {
+            String name = Assert.requireNonNull(table, "table must not be null").toLowerCase(Locale.ROOT);
+            names.add(name.substring(name.lastIndexOf('.') + 1));
+        }
+
+        this.tables = Collections.unmodifiableSet(names);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "CachedQuery{" +
+            "key=" + this.key +
+            ", resultCache=" + this.resultCache +
+            ", tables=" + this.tables +
+            '}';
+    }
+
+    Set<String> getTables() {
+        return this.tables;
+    }
+
+    private Mono<List<CachedResult>> getResults() {
+        ResultCache resultCache = this.resultCache;
+        QueryCoalescer queryCoalescer = this.queryCoalescer;
+
+        return this.ambient
+            .flatMap(ambient -> {
+                if (ambient.isPresent()) {
+                    Flux<CachedResult> execution = this.query.apply(ambient.get());
+
+                    if (resultCache == null || ambient.get().isTransactionActive()) {
+                        return execution.collectList();
+                    }
+
+                    return read(resultCache, execution);
+                }
+
+                if (resultCache == null && queryCoalescer == null) {
+                    return this.execution.collectList();
+                }
+
+                Mono<List<CachedResult>> execution = resultCache == null ? this.execution.collectList() : read(resultCache, this.execution);
+                return queryCoalescer == null ? execution : queryCoalescer.execute(this.key, execution);
+            });
+    }
+
+    private Mono<List<CachedResult>> read(ResultCache resultCache, Flux<CachedResult> execution) {
+        Set<String> tables = this.tables;
+
+        return Mono.defer(() -> {
+            List<CachedResult> results = resultCache.get(this.key);
+
+            if (results != null) {
+                return Mono.just(results);
+            }
+
+            long generation = resultCache.getGeneration();
+
+            return execution.collectList()
+                .doOnNext(executed -> resultCache.put(this.key, tables, executed, generation));
+        });
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link Result} whose rows have been read into memory so that they can be mapped any number of times without a connection.  Column values are read as {@link Object} and returned as-is, so
+ * a value can only be retrieved as its default Java type or a supertype of it.  {@link ByteBuffer} and {@code byte[]} values are copied when read and each time they are returned, so that
+ * neither the driver nor a caller can change the cached value.  Values that are themselves streams, such as large objects returned as a {@link Publisher}, can only be consumed once, so a
+ * result containing them is not {@link #isReplayable() replayable}.
+ */
+final class CachedResult implements Result {
+
+    private final String[] columnNames;
+
+    @Nullable
+    private final RowMetadata rowMetadata;
+
+    private final boolean replayable;
+
+    private final List<Object[]> rows;
+
+    CachedResult(String[] columnNames, @Nullable RowMetadata rowMetadata, List<Object[]> rows) {
+        this.columnNames = Assert.requireNonNull(columnNames, "columnNames must not be null");
+        this.rowMetadata = rowMetadata;
+        this.rows = Collections.unmodifiableList(Assert.requireNonNull(rows, "rows must not be null"));
+        this.replayable = isReplayable(rows);
+    }
+
+    /**
+     * Read each row of a {@link Result} into memory as it arrives, so that it can be accessed after the underlying row has been released.
+     *
+     * @param result the result to read
+     * @return a {@link Flux} of the rows read into memory
+     */
+    static Flux<CachedRow> detach(Result result) {
+        Materializer materializer = new Materializer();
+
+        return Flux.from(result
+            .map((row, rowMetadata) -> {
+                Object[] values = materializer.apply(row, rowMetadata);
+                return new CachedRow(materializer.columnNames, values, rowMetadata);
+            }));
+    }
+
+    /**
+     * Read all rows of a {@link Result} into a {@link CachedResult}.
+     *
+     * @param result the result to read
+     * @return a {@link Mono} of the {@link CachedResult}
+     */
+    static Mono<CachedResult> materialize(Result result) {
+        Materializer materializer = new Materializer();
+
+        return Flux.from(result
+            .map(materializer))
+            .collectList()
+            .map(rows -> new CachedResult(materializer.columnNames, materializer.rowMetadata, rows));
+    }
+
+    /**
+     * Returns the updated row count of the underlying result, which is never retained.
+     *
+     * @return an empty {@link Mono}
+     */
+    @Override
+    public Publisher<Integer> getRowsUpdated() {
+        return Mono.empty();
+    }
+
+    @Override
+    public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> f) {
+        Assert.requireNonNull(f, "f must not be null");
+
+        RowMetadata rowMetadata = this.rowMetadata;
+        if (rowMetadata == null) {
+            return Flux.empty();
+        }
+
+        return Flux.fromIterable(this.rows)
+            .map(values -> f.apply(new CachedRow(this.columnNames, values, rowMetadata), rowMetadata));
+    }
+
+    @Override
+    public String toString() {
+        return "CachedResult{" +
+            "columnNames=" + String.join(", ", this.columnNames) +
+            ", rows=" + this.rows.size() +
+            '}';
+    }
+
+    int getWeight() {
+        return this.rows.size();
+    }
+
+    /**
+     * Returns whether the rows can be mapped more than once, which is not the case if any value is a stream that can only be consumed once.
+     *
+     * @return whether the rows can be mapped more than once
+     */
+    boolean isReplayable() {
+        return this.replayable;
+    }
+
+    @Nullable
+    private static Object copy(@Nullable Object value) {
+        if (value instanceof ByteBuffer) {
+            ByteBuffer source = ((ByteBuffer) value).duplicate();
+            ByteBuffer copy = ByteBuffer.allocate(source.remaining());
+            copy.put(source);
+            copy.flip();
+            return copy;
+        }
+
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        }
+
+        return value;
+    }
+
+    private static boolean isReplayable(List<Object[]> rows) {
+        for (Object[] values : rows) {
+            for (Object value : values) {
+                if (value instanceof Publisher) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * A {@link Row} whose values have been read into memory.
+     */
+    static final class CachedRow implements Row {
+
+        private final String[] columnNames;
+
+        private final RowMetadata rowMetadata;
+
+        private final Object[] values;
+
+        private CachedRow(String[] columnNames, Object[] values, RowMetadata rowMetadata) {
+            this.columnNames = columnNames;
+            this.values = values;
+            this.rowMetadata = rowMetadata;
+        }
+
+        @Override
+        @Nullable
+        public <T> T get(Object identifier, Class<T> type) {
+            Assert.requireNonNull(identifier, "identifier must not be null");
+            Assert.requireNonNull(type, "type must not be null");
+
+            Object value = this.values[getIndex(identifier)];
+
+            if (value == null) {
+                return null;
+            }
+
+            if (!type.isInstance(value)) {
+                throw new IllegalArgumentException(String.format("Cannot return value of type %s as %s", value.getClass().getName(), type.getName()));
+            }
+
+            return type.cast(copy(value));
+        }
+
+        @Override
+        public String toString() {
+            return "CachedRow{" +
+                "columnNames=" + String.join(", ", this.columnNames) +
+                '}';
+        }
+
+        RowMetadata getRowMetadata() {
+            return this.rowMetadata;
+        }
+
+        private int getIndex(Object identifier) {
+            if (identifier instanceof Integer) {
+                int index = (Integer) identifier;
+
+                if (index < 0 || index >= this.values.length) {
+                    throw new IllegalArgumentException(String.format("Column index %d is out of range", index));
+                }
+
+                return index;
+            }
+
+            for (int i = 0; i < this.columnNames.length; i++) {
+                if (this.columnNames[i].equals(identifier)) {
+                    return i;
+                }
+            }
+
+            for (int i = 0; i < this.columnNames.length; i++) {
+                if (this.columnNames[i].equalsIgnoreCase(identifier.toString())) {
+                    return i;
+                }
+            }
+
+            throw new IllegalArgumentException(String.format("Column %s does not exist", identifier));
+        }
+
+    }
+
+    private static final class Materializer implements BiFunction<Row, RowMetadata, Object[]> {
+
+        private String[] columnNames = new String[0];
+
+        @Nullable
+        private RowMetadata rowMetadata;
+
+        @Override
+        public Object[] apply(Row row, RowMetadata rowMetadata) {
+            if (this.rowMetadata != rowMetadata) {
+                List<String> columnNames = new ArrayList<>();
+
+                for (ColumnMetadata columnMetadata : rowMetadata.getColumnMetadatas()) {
+                    columnNames.add(columnMetadata.getName());
+                }
+
+                this.columnNames = columnNames.toArray(new String[0]);
+                this.rowMetadata = rowMetadata;
+            }
+
+            Object[] values = new Object[this.columnNames.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = copy(row.get(i, Object.class));
+            }
+
+            return values;
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An {@link ExecutionListener} that notifies a number of delegate listeners in order.
+ */
+final class CompositeExecutionListener implements ExecutionListener {
+
+    private final List<ExecutionListener> executionListeners;
+
+    CompositeExecutionListener(List<ExecutionListener> executionListeners) {
+        this.executionListeners = new ArrayList<>(Assert.requireNonNull(executionListeners, "executionListeners must not be null"));
+    }
+
+    @Override
+    public void afterExecution(ExecutionInfo executionInfo) {
+        for (ExecutionListener executionListener : this.executionListeners) {
+            executionListener.afterExecution(executionInfo);
+        }
+    }
+
+    @Override
+    public void beforeExecution(ExecutionInfo executionInfo) {
+        for (ExecutionListener executionListener : this.executionListeners) {
+            executionListener.beforeExecution(executionInfo);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CompositeExecutionListener{" +
+            "executionListeners=" + this.executionListeners +
+            '}';
+    }
+
+}
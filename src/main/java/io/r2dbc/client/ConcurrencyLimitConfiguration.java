@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+
+/**
+ * The configuration of the adaptive limit on the number of concurrent executions of {@link R2dbc#withHandle(java.util.function.Function)} and the methods built on it.
+ */
+public final class ConcurrencyLimitConfiguration {
+
+    private final int initialLimit;
+
+    private final int maxLimit;
+
+    private final int maxQueueSize;
+
+    private final int minLimit;
+
+    private ConcurrencyLimitConfiguration(int initialLimit, int maxLimit, int maxQueueSize, int minLimit) {
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueueSize = maxQueueSize;
+        this.minLimit = minLimit;
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitConfiguration{" +
+            "initialLimit=" + this.initialLimit +
+            ", maxLimit=" + this.maxLimit +
+            ", maxQueueSize=" + this.maxQueueSize +
+            ", minLimit=" + this.minLimit +
+            '}';
+    }
+
+    int getInitialLimit() {
+        return this.initialLimit;
+    }
+
+    int getMaxLimit() {
+        return this.maxLimit;
+    }
+
+    int getMaxQueueSize() {
+        return this.maxQueueSize;
+    }
+
+    int getMinLimit() {
+        return this.minLimit;
+    }
+
+    /**
+     * A builder for {@link ConcurrencyLimitConfiguration} instances.
+     * <p>
+     * <i>This class is not threadsafe</i>
+     */
+    public static final class Builder {
+
+        private int initialLimit = 10;
+
+        private int maxLimit = 100;
+
+        private int maxQueueSize = 100;
+
+        private int minLimit = 1;
+
+        private Builder() {
+        }
+
+        /**
+         * Returns a configured {@link ConcurrencyLimitConfiguration}.
+         *
+         * @return a configured {@link ConcurrencyLimitConfiguration}
+         * @throws IllegalArgumentException if {@code minLimit} is greater than {@code initialLimit}, or {@code initialLimit} is greater than {@code maxLimit}
+         */
+        public ConcurrencyLimitConfiguration build() {
+            Assert.isTrue(this.minLimit <= this.initialLimit, "minLimit must not be greater than initialLimit");
+            Assert.isTrue(this.initialLimit <= this.maxLimit, "initialLimit must not be greater than maxLimit");
+
+            return new ConcurrencyLimitConfiguration(this.initialLimit, this.maxLimit, this.maxQueueSize, this.minLimit);
+        }
+
+        /**
+         * Configure the limit used before any latency has been observed.  Defaults to 10.
+         *
+         * @param initialLimit the initial limit
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code initialLimit} is not positive
+         */
+        public Builder initialLimit(int initialLimit) {
+            Assert.isTrue(initialLimit > 0, "initialLimit must be positive");
+
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Configure the largest value the limit may grow to.  A pooled {@link R2dbc} gains nothing from a limit above the maximum size of its pool.  Defaults to 100.
+         *
+         * @param maxLimit the maximum limit
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxLimit} is not positive
+         */
+        public Builder maxLimit(int maxLimit) {
+            Assert.isTrue(maxLimit > 0, "maxLimit must be positive");
+
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Configure the maximum number of executions waiting for the limit to admit them.  Executions arriving while the queue is full are rejected.  Defaults to 100.
+         *
+         * @param maxQueueSize the maximum queue size, or {@code 0} to reject executions beyond the limit immediately
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxQueueSize} is negative
+         */
+        public Builder maxQueueSize(int maxQueueSize) {
+            Assert.isTrue(maxQueueSize >= 0, "maxQueueSize must not be negative");
+
+            this.maxQueueSize = maxQueueSize;
+            return this;
+        }
+
+        /**
+         * Configure the smallest value the limit may shrink to.  Defaults to 1.
+         *
+         * @param minLimit the minimum limit
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code minLimit} is not positive
+         */
+        public Builder minLimit(int minLimit) {
+            Assert.isTrue(minLimit > 0, "minLimit must be positive");
+
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Builder{" +
+                "initialLimit=" + this.initialLimit +
+                ", maxLimit=" + this.maxLimit +
+                ", maxQueueSize=" + this.maxQueueSize +
+                ", minLimit=" + this.minLimit +
+                '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * A limit on the number of concurrent executions that adapts to their observed latency.  The limit follows a gradient of the latency of each execution against a long-term average:
+ * it grows by roughly its square root while latency stays near the average, and shrinks when latency rises above it, which keeps work from piling onto a database that is slowing down.
+ * An execution that fails is treated as a dropped request and shrinks the limit by a fixed ratio, and one that is cancelled is sampled with the time it ran for, so that timeouts and errors
+ * back the limit off rather than going unnoticed.  Executions beyond the limit wait in arrival order, and are rejected when the queue is full.
+ */
+final class ConcurrencyLimiter {
+
+    private static final double BACKOFF = 0.9;
+
+    private static final double LONG_WINDOW = 100;
+
+    private static final double MIN_GRADIENT = 0.5;
+
+    private static final double SMOOTHING = 0.2;
+
+    private static final double TOLERANCE = 1.5;
+
+    private final LongSupplier nanoTime;
+
+    private final int maxLimit;
+
+    private final int maxQueueSize;
+
+    private final int minLimit;
+
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+
+    private int inFlight;
+
+    private double limit;
+
+    private double longLatency;
+
+    private long samples;
+
+    ConcurrencyLimiter(ConcurrencyLimitConfiguration configuration) {
+        this(configuration, System::nanoTime);
+    }
+
+    ConcurrencyLimiter(ConcurrencyLimitConfiguration configuration, LongSupplier nanoTime) {
+        Assert.requireNonNull(configuration, "configuration must not be null");
+        this.nanoTime = Assert.requireNonNull(nanoTime, "nanoTime must not be null");
+        this.limit = configuration.getInitialLimit();
+        this.maxLimit = configuration.getMaxLimit();
+        this.maxQueueSize = configuration.getMaxQueueSize();
+        this.minLimit = configuration.getMinLimit();
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimiter{" +
+            "maxLimit=" + this.maxLimit +
+            ", maxQueueSize=" + this.maxQueueSize +
+            ", minLimit=" + this.minLimit +
+            '}';
+    }
+
+    synchronized void drop() {
+        this.limit = Math.max(this.minLimit, this.limit * BACKOFF);
+    }
+
+    synchronized int getInFlight() {
+        return this.inFlight;
+    }
+
+    synchronized int getLimit() {
+        return (int) this.limit;
+    }
+
+    synchronized int getQueueSize() {
+        return this.waiters.size();
+    }
+
+    <T> Flux<T> limit(Publisher<T> execution) {
+        Assert.requireNonNull(execution, "execution must not be null");
+
+        return acquire()
+            .flatMapMany(permit -> Flux.from(execution)
+                .doFinally(signal -> release(permit, signal)));
+    }
+
+    synchronized void update(long latency, int inFlight) {
+        this.samples++;
+
+        if (this.samples == 1) {
+            this.longLatency = latency;
+        } else {
+            this.longLatency += (latency - this.longLatency) / Math.min(this.samples, LONG_WINDOW);
+        }
+
+        if (this.longLatency > 2 * latency) {
+            this.longLatency *= 0.95;
+        }
+
+        if (inFlight < this.limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * this.longLatency / Math.max(latency, 1)));
+        double target = this.limit * gradient + Math.sqrt(this.limit);
+
+        this.limit = Math.max(this.minLimit, Math.min(this.maxLimit, this.limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(() -> cancel(waiter));
+
+            Permit permit = null;
+            boolean rejected = false;
+            int limit;
+
+            synchronized (this) {
+                limit = (int) this.limit;
+
+                if (this.inFlight < limit) {
+                    permit = newPermit();
+                } else if (this.waiters.size() < this.maxQueueSize) {
+                    this.waiters.add(waiter);
+                } else {
+                    rejected = true;
+                }
+            }
+
+            if (rejected) {
+                waiter.error(new RejectedExecutionException(String.format("Concurrency limit of %d reached with %d executions queued", limit, this.maxQueueSize)));
+            } else if (permit != null && !waiter.complete(permit)) {
+                release(permit, null);
+            }
+        });
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.cancel()) {
+            synchronized (this) {
+                this.waiters.remove(waiter);
+            }
+        }
+    }
+
+    private void drain() {
+        for (; ; ) {
+            Waiter waiter;
+            Permit permit;
+
+            synchronized (this) {
+                if (this.inFlight >= (int) this.limit) {
+                    return;
+                }
+
+                waiter = this.waiters.poll();
+                if (waiter == null) {
+                    return;
+                }
+
+                permit = newPermit();
+            }
+
+            if (!waiter.complete(permit)) {
+                release(permit, null);
+            }
+        }
+    }
+
+    private Permit newPermit() {
+        this.inFlight++;
+        return new Permit(this.nanoTime.getAsLong(), this.inFlight);
+    }
+
+    private void release(Permit permit, @Nullable SignalType signal) {
+        if (!permit.release()) {
+            return;
+        }
+
+        synchronized (this) {
+            this.inFlight--;
+
+            if (signal == SignalType.ON_ERROR) {
+                drop();
+            } else if (signal == SignalType.ON_COMPLETE || signal == SignalType.CANCEL) {
+                update(this.nanoTime.getAsLong() - permit.start, permit.inFlight);
+            }
+        }
+
+        drain();
+    }
+
+    private static final class Permit {
+
+        private final int inFlight;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private final long start;
+
+        private Permit(long start, int inFlight) {
+            this.start = start;
+            this.inFlight = inFlight;
+        }
+
+        boolean release() {
+            return this.released.compareAndSet(false, true);
+        }
+
+    }
+
+    private static final class Waiter {
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private final MonoSink<Permit> sink;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+        boolean cancel() {
+            return this.done.compareAndSet(false, true);
+        }
+
+        boolean complete(Permit permit) {
+            if (!this.done.compareAndSet(false, true)) {
+                return false;
+            }
+
+            this.sink.success(permit);
+            return true;
+        }
+
+        void error(Throwable t) {
+            if (this.done.compareAndSet(false, true)) {
+                this.sink.error(t);
+            }
+        }
+
+    }
+
+}
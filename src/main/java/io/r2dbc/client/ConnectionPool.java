@@ -0,0 +1,427 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A pool of {@link Connection}s created by a {@link ConnectionFactory}.  Idle connections are handed out most-recently-used first.  When the pool is exhausted, callers wait in order of
+ * priority, and their priority grows by one for every {@link PoolConfiguration#getPriorityAgingInterval() aging interval} they wait so that low priority callers are not starved.  Callers
+ * of the same priority wait in arrival order.
+ */
+final class ConnectionPool {
+
+    private static final Duration MINIMUM_EVICTION_INTERVAL = Duration.ofMillis(10);
+
+    private final Logger logger = Loggers.getLogger(this.getClass());
+
+    private final AtomicLong arrivals = new AtomicLong();
+
+    private final PoolConfiguration configuration;
+
+    private final ConnectionFactory connectionFactory;
+
+    private final Disposable evictor;
+
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+    private final long maxIdleTime;
+
+    private final long maxLifeTime;
+
+    private final StatementCacheMetrics statementCacheMetrics = new StatementCacheMetrics();
+
+    private final Queue<Waiter> waiters;
+
+    private boolean closed;
+
+    private int size;
+
+    ConnectionPool(ConnectionFactory connectionFactory, PoolConfiguration configuration) {
+        this.connectionFactory = Assert.requireNonNull(connectionFactory, "connectionFactory must not be null");
+        this.configuration = Assert.requireNonNull(configuration, "configuration must not be null");
+        this.maxIdleTime = configuration.getMaxIdleTime().toNanos();
+        this.maxLifeTime = configuration.getMaxLifeTime().toNanos();
+        this.waiters = new PriorityQueue<>(getWaiterOrder(configuration.getPriorityAgingInterval().toNanos()));
+
+        this.evictor = Flux.interval(Duration.ZERO, getEvictionInterval(configuration))
+            .subscribe(tick -> evict());
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool{" +
+            "configuration=" + this.configuration +
+            ", connectionFactory=" + this.connectionFactory +
+            '}';
+    }
+
+    Mono<PooledConnection> acquire() {
+        return acquire(0);
+    }
+
+    Mono<PooledConnection> acquire(int priority) {
+        Duration acquireTimeout = this.configuration.getAcquireTimeout();
+
+        return Mono.<PooledConnection>create(sink -> {
+            Waiter waiter = new Waiter(sink, priority, System.nanoTime(), this.arrivals.getAndIncrement());
+            sink.onCancel(() -> cancel(waiter));
+
+            List<PooledConnection> expired = new ArrayList<>(0);
+            PooledConnection pooledConnection = null;
+            boolean allocate = false;
+            boolean closed;
+
+            synchronized (this) {
+                closed = this.closed;
+
+                if (!closed) {
+                    pooledConnection = pollIdle(expired);
+
+                    if (pooledConnection != null) {
+                        pooledConnection.markInUse();
+                    } else if (this.size < this.configuration.getMaxSize()) {
+                        this.size++;
+                        allocate = true;
+                    } else {
+                        this.waiters.add(waiter);
+                    }
+                }
+            }
+
+            expired.forEach(this::destroy);
+
+            if (closed) {
+                waiter.error(new IllegalStateException("Connection pool is closed"));
+            } else if (pooledConnection != null) {
+                if (!waiter.complete(pooledConnection)) {
+                    release(pooledConnection);
+                }
+            } else if (allocate) {
+                allocate(waiter);
+            }
+        })
+            .timeout(acquireTimeout, Mono.defer(() -> Mono.error(new TimeoutException(String.format("Unable to acquire a connection within %s", acquireTimeout)))));
+    }
+
+    Mono<Void> close() {
+        return Mono.defer(() -> {
+            List<PooledConnection> connections;
+            List<Waiter> waiters;
+
+            synchronized (this) {
+                if (this.closed) {
+                    return Mono.empty();
+                }
+
+                this.closed = true;
+
+                connections = new ArrayList<>(this.idle);
+                this.size -= this.idle.size();
+                this.idle.clear();
+
+                waiters = new ArrayList<>(this.waiters);
+                this.waiters.clear();
+            }
+
+            this.evictor.dispose();
+            waiters.forEach(waiter -> waiter.error(new IllegalStateException("Connection pool is closed")));
+
+            return Flux.fromIterable(connections)
+                .flatMap(pooledConnection -> pooledConnection.getConnection().close())
+                .then();
+        });
+    }
+
+    StatementCacheMetrics getStatementCacheMetrics() {
+        return this.statementCacheMetrics;
+    }
+
+    synchronized int getIdleSize() {
+        return this.idle.size();
+    }
+
+    synchronized int getSize() {
+        return this.size;
+    }
+
+    synchronized int getWaiterCount() {
+        return this.waiters.size();
+    }
+
+    void release(PooledConnection pooledConnection) {
+        boolean destroy;
+
+        synchronized (this) {
+            if (!pooledConnection.isInUse()) {
+                return;
+            }
+
+            long now = System.nanoTime();
+            pooledConnection.markIdle(now);
+
+            destroy = this.closed || pooledConnection.isLifeExpired(now, this.maxLifeTime);
+            if (destroy) {
+                this.size--;
+            }
+        }
+
+        if (destroy) {
+            destroy(pooledConnection);
+            replenish();
+        } else {
+            offer(pooledConnection);
+        }
+    }
+
+    private static Duration getEvictionInterval(PoolConfiguration configuration) {
+        Duration shortest = configuration.getMaxIdleTime().compareTo(configuration.getMaxLifeTime()) < 0 ? configuration.getMaxIdleTime() : configuration.getMaxLifeTime();
+        Duration interval = shortest.dividedBy(2);
+
+        return interval.compareTo(MINIMUM_EVICTION_INTERVAL) < 0 ? MINIMUM_EVICTION_INTERVAL : interval;
+    }
+
+    private static Comparator<Waiter> getWaiterOrder(long agingInterval) {
+        return (a, b) -> {
+            double precedence = (a.priority - (double) b.priority) + (b.since - a.since) / (double) agingInterval;
+
+            if (precedence != 0) {
+                return precedence > 0 ? -1 : 1;
+            }
+
+            return Long.compare(a.sequence, b.sequence);
+        };
+    }
+
+    private void allocate(Waiter waiter) {
+        create()
+            .subscribe(pooledConnection -> {
+                synchronized (this) {
+                    pooledConnection.markInUse();
+                }
+
+                if (!waiter.complete(pooledConnection)) {
+                    release(pooledConnection);
+                }
+            }, t -> {
+                synchronized (this) {
+                    this.size--;
+                }
+
+                waiter.error(t);
+            });
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.cancel()) {
+            synchronized (this) {
+                this.waiters.remove(waiter);
+            }
+        }
+    }
+
+    private Mono<PooledConnection> create() {
+        return Mono.from(this.connectionFactory.create())
+            .map(connection -> new PooledConnection(connection, System.nanoTime(), createStatementCache()));
+    }
+
+    @Nullable
+    private StatementCache createStatementCache() {
+        int statementCacheSize = this.configuration.getStatementCacheSize();
+        return statementCacheSize == 0 ? null : new StatementCache(statementCacheSize, this.statementCacheMetrics);
+    }
+
+    private void destroy(PooledConnection pooledConnection) {
+        Flux.from(pooledConnection.getConnection().close())
+            .onErrorResume(t -> {
+                this.logger.warn("Error closing pooled connection", t);
+                return Mono.empty();
+            })
+            .subscribe();
+    }
+
+    private void evict() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        int deficit;
+
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+
+            long now = System.nanoTime();
+
+            for (Iterator<PooledConnection> i = this.idle.descendingIterator(); i.hasNext(); ) {
+                PooledConnection pooledConnection = i.next();
+
+                if (pooledConnection.isLifeExpired(now, this.maxLifeTime) ||
+                    (this.size > this.configuration.getMinSize() && pooledConnection.isIdleExpired(now, this.maxIdleTime))) {
+
+                    i.remove();
+                    this.size--;
+                    evicted.add(pooledConnection);
+                }
+            }
+
+            deficit = Math.max(0, this.configuration.getMinSize() - this.size);
+            this.size += deficit;
+        }
+
+        evicted.forEach(this::destroy);
+
+        for (int i = 0; i < deficit; i++) {
+            create()
+                .subscribe(this::offer, t -> {
+                    synchronized (this) {
+                        this.size--;
+                    }
+
+                    this.logger.warn("Error creating connection to maintain minimum pool size", t);
+                });
+        }
+    }
+
+    private void offer(PooledConnection pooledConnection) {
+        for (; ; ) {
+            Waiter waiter;
+
+            synchronized (this) {
+                if (this.closed) {
+                    this.size--;
+                    waiter = null;
+                } else {
+                    waiter = this.waiters.poll();
+
+                    if (waiter == null) {
+                        pooledConnection.markIdle(System.nanoTime());
+                        this.idle.addFirst(pooledConnection);
+                        return;
+                    }
+
+                    pooledConnection.markInUse();
+                }
+            }
+
+            if (waiter == null) {
+                destroy(pooledConnection);
+                return;
+            }
+
+            if (waiter.complete(pooledConnection)) {
+                return;
+            }
+        }
+    }
+
+    @Nullable
+    private PooledConnection pollIdle(List<PooledConnection> expired) {
+        long now = System.nanoTime();
+
+        for (PooledConnection pooledConnection = this.idle.pollFirst(); pooledConnection != null; pooledConnection = this.idle.pollFirst()) {
+            if (!pooledConnection.isLifeExpired(now, this.maxLifeTime)) {
+                return pooledConnection;
+            }
+
+            this.size--;
+            expired.add(pooledConnection);
+        }
+
+        return null;
+    }
+
+    private void replenish() {
+        Waiter waiter;
+
+        synchronized (this) {
+            if (this.closed || this.size >= this.configuration.getMaxSize()) {
+                return;
+            }
+
+            waiter = this.waiters.poll();
+            if (waiter == null) {
+                return;
+            }
+
+            this.size++;
+        }
+
+        allocate(waiter);
+    }
+
+    private static final class Waiter {
+
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private final int priority;
+
+        private final long sequence;
+
+        private final long since;
+
+        private final MonoSink<PooledConnection> sink;
+
+        private Waiter(MonoSink<PooledConnection> sink, int priority, long since, long sequence) {
+            this.sink = sink;
+            this.priority = priority;
+            this.since = since;
+            this.sequence = sequence;
+        }
+
+        boolean cancel() {
+            return this.done.compareAndSet(false, true);
+        }
+
+        boolean complete(PooledConnection pooledConnection) {
+            if (!this.done.compareAndSet(false, true)) {
+                return false;
+            }
+
+            this.sink.success(pooledConnection);
+            return true;
+        }
+
+        void error(Throwable t) {
+            if (this.done.compareAndSet(false, true)) {
+                this.sink.error(t);
+            }
+        }
+
+    }
+
+}
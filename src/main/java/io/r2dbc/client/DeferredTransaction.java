@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.Connection;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A transaction that is only begun when the first operation that requires it executes.  Concurrent operations share a single {@link Connection#beginTransaction()}, and all operations wait for
+ * it to complete before executing.
+ */
+final class DeferredTransaction {
+
+    private final Mono<Void> begin;
+
+    private final AtomicBoolean begun = new AtomicBoolean();
+
+    DeferredTransaction(Connection connection) {
+        Assert.requireNonNull(connection, "connection must not be null");
+
+        this.begin = Mono.defer(() -> Mono.from(connection.beginTransaction())).cache();
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredTransaction{" +
+            "begun=" + this.begun +
+            '}';
+    }
+
+    /**
+     * Execute an operation within the transaction, beginning the transaction first if required.
+     *
+     * @param operation a {@link Supplier} of the {@link Publisher} executing the operation
+     * @param <T>       the type of results
+     * @return the results of the operation
+     */
+    <T> Flux<T> execute(Supplier<? extends Publisher<? extends T>> operation) {
+        return Mono.defer(() -> {
+            this.begun.set(true);
+            return this.begin;
+        })
+            .thenMany(Flux.defer(() -> Flux.<T>from(operation.get())));
+    }
+
+    boolean isBegun() {
+        return this.begun.get();
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+
+/**
+ * Information about a single execution of a {@link Query}, {@link Update}, or {@link Batch}, passed to an {@link ExecutionListener}.  Timings and counts are only complete once
+ * {@link ExecutionListener#afterExecution(ExecutionInfo)} is called.
+ */
+public final class ExecutionInfo {
+
+    private final int bindings;
+
+    private final String sql;
+
+    private final long startedAt;
+
+    private volatile long duration = -1;
+
+    @Nullable
+    private volatile Throwable error;
+
+    private volatile long rows;
+
+    private volatile long timeToFirstRow = -1;
+
+    ExecutionInfo(String sql, int bindings, long startedAt) {
+        this.sql = Assert.requireNonNull(sql, "sql must not be null");
+        this.bindings = bindings;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Returns the number of bindings executed.
+     *
+     * @return the number of bindings executed
+     */
+    public int getBindings() {
+        return this.bindings;
+    }
+
+    /**
+     * Returns the time between subscription and termination of the execution.
+     *
+     * @return the total duration of the execution, or {@link Duration#ZERO} if the execution has not terminated
+     */
+    public Duration getDuration() {
+        long duration = this.duration;
+        return duration < 0 ? Duration.ZERO : Duration.ofNanos(duration);
+    }
+
+    /**
+     * Returns the error that terminated the execution.
+     *
+     * @return the error that terminated the execution, or {@code null} if it did not fail
+     */
+    @Nullable
+    public Throwable getError() {
+        return this.error;
+    }
+
+    /**
+     * Returns the number of values emitted by the execution, such as mapped rows or update counts.
+     *
+     * @return the number of values emitted
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the SQL that was executed.  For a {@link Batch}, the statements are separated by {@code "; "}.
+     *
+     * @return the SQL that was executed
+     */
+    public String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * Returns the time between subscription and the first value emitted by the execution.
+     *
+     * @return the time to the first value, or {@link Duration#ZERO} if no value was emitted
+     */
+    public Duration getTimeToFirstRow() {
+        long timeToFirstRow = this.timeToFirstRow;
+        return timeToFirstRow < 0 ? Duration.ZERO : Duration.ofNanos(timeToFirstRow);
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionInfo{" +
+            "bindings=" + this.bindings +
+            ", duration=" + getDuration() +
+            ", error=" + this.error +
+            ", rows=" + this.rows +
+            ", sql='" + this.sql + '\'' +
+            ", timeToFirstRow=" + getTimeToFirstRow() +
+            '}';
+    }
+
+    void onError(Throwable error) {
+        this.error = error;
+    }
+
+    void onNext() {
+        if (this.rows++ == 0) {
+            this.timeToFirstRow = System.nanoTime() - this.startedAt;
+        }
+    }
+
+    void onTerminate(long now) {
+        this.duration = now - this.startedAt;
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Utilities for reporting executions to an {@link ExecutionListener}.
+ */
+final class ExecutionInstrumentation {
+
+    private ExecutionInstrumentation() {
+    }
+
+    /**
+     * Report each subscription to an execution to an {@link ExecutionListener}.
+     *
+     * @param execution the execution to report
+     * @param listener  the listener to report to
+     * @param sql       the SQL being executed
+     * @param bindings  the number of bindings being executed
+     * @param <T>       the type of values emitted by the execution
+     * @return the reported execution
+     */
+    static <T> Flux<T> instrument(Flux<T> execution, ExecutionListener listener, String sql, int bindings) {
+        return Flux.defer(() -> {
+            ExecutionInfo executionInfo = new ExecutionInfo(sql, bindings, System.nanoTime());
+            listener.beforeExecution(executionInfo);
+
+            return execution
+                .doOnNext(t -> executionInfo.onNext())
+                .doOnError(executionInfo::onError)
+                .doFinally(signalType -> {
+                    executionInfo.onTerminate(System.nanoTime());
+                    listener.afterExecution(executionInfo);
+                });
+        });
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+/**
+ * A listener notified before and after each execution of a {@link Query}, {@link Update}, or {@link Batch} created by an {@link R2dbc}.  Callbacks are invoked on the thread that signals the
+ * execution, so implementations must be threadsafe and should not block.
+ *
+ * @see R2dbc.Builder#executionListener(ExecutionListener)
+ */
+public interface ExecutionListener {
+
+    /**
+     * Called after an execution completes, fails, or is cancelled.
+     *
+     * @param executionInfo the information about the execution
+     */
+    default void afterExecution(ExecutionInfo executionInfo) {
+    }
+
+    /**
+     * Called when an execution is subscribed to, before the statement runs.
+     *
+     * @param executionInfo the information about the execution
+     */
+    default void beforeExecution(ExecutionInfo executionInfo) {
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timers and counters for the executions of a single SQL fingerprint, recorded by a {@link MetricsExecutionListener}.
+ */
+public final class ExecutionMetrics {
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAccumulator maxDuration = new LongAccumulator(Math::max, 0);
+
+    private final LongAdder rows = new LongAdder();
+
+    private final LongAdder totalDuration = new LongAdder();
+
+    private final LongAdder totalTimeToFirstRow = new LongAdder();
+
+    ExecutionMetrics() {
+    }
+
+    /**
+     * Returns the number of executions.
+     *
+     * @return the number of executions
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Returns the number of executions that failed.
+     *
+     * @return the number of failed executions
+     */
+    public long getErrors() {
+        return this.errors.sum();
+    }
+
+    /**
+     * Returns the longest duration of a single execution.
+     *
+     * @return the longest duration of a single execution
+     */
+    public Duration getMaxDuration() {
+        return Duration.ofNanos(this.maxDuration.get());
+    }
+
+    /**
+     * Returns the mean duration of an execution.
+     *
+     * @return the mean duration of an execution, or {@link Duration#ZERO} if there have been no executions
+     */
+    public Duration getMeanDuration() {
+        long count = this.count.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(this.totalDuration.sum() / count);
+    }
+
+    /**
+     * Returns the number of values emitted by all executions.
+     *
+     * @return the number of values emitted
+     */
+    public long getRows() {
+        return this.rows.sum();
+    }
+
+    /**
+     * Returns the sum of the durations of all executions.
+     *
+     * @return the total duration of all executions
+     */
+    public Duration getTotalDuration() {
+        return Duration.ofNanos(this.totalDuration.sum());
+    }
+
+    /**
+     * Returns the sum of the times to first value of all executions.
+     *
+     * @return the total time to first value of all executions
+     */
+    public Duration getTotalTimeToFirstRow() {
+        return Duration.ofNanos(this.totalTimeToFirstRow.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutionMetrics{" +
+            "count=" + this.count +
+            ", errors=" + this.errors +
+            ", maxDuration=" + getMaxDuration() +
+            ", rows=" + this.rows +
+            ", totalDuration=" + getTotalDuration() +
+            ", totalTimeToFirstRow=" + getTotalTimeToFirstRow() +
+            '}';
+    }
+
+    void record(ExecutionInfo executionInfo) {
+        long duration = executionInfo.getDuration().toNanos();
+
+        this.count.increment();
+        this.maxDuration.accumulate(duration);
+        this.rows.add(executionInfo.getRows());
+        this.totalDuration.add(duration);
+        this.totalTimeToFirstRow.add(executionInfo.getTimeToFirstRow().toNanos());
+
+        if (executionInfo.getError() != null) {
+            this.errors.increment();
+        }
+    }
+
+}
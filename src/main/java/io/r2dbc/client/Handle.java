@@ -19,12 +19,23 @@ package io.r2dbc.client;
 import io.r2dbc.client.util.Assert;
 import io.r2dbc.spi.Connection;
 import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-
+import reactor.util.annotation.Nullable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.stream.IntStream;
+import java.util.function.Supplier;
 
 import static io.r2dbc.client.util.ReactiveUtils.appendError;
 import static io.r2dbc.client.util.ReactiveUtils.typeSafe;
@@ -34,10 +45,61 @@ import static io.r2dbc.client.util.ReactiveUtils.typeSafe;
  */
 public final class Handle {
 
+    private final BindMarkers bindMarkers;
+
+    private final Supplier<? extends Publisher<Void>> closer;
+
     private final Connection connection;
 
+    private final boolean deferBeginTransaction;
+
+    @Nullable
+    private final ExecutionListener executionListener;
+
+    @Nullable
+    private final InListRewriteCache inListRewriteCache;
+
+    private final Set<String> invalidatedTables = ConcurrentHashMap.newKeySet();
+
+    @Nullable
+    private final NamedParameterCache namedParameterCache;
+
+    @Nullable
+    private final ResultCache resultCache;
+
+    private final int rewriteBatchedInserts;
+
+    @Nullable
+    private final StatementCache statementCache;
+
+    @Nullable
+    private volatile DeferredTransaction transaction;
+
+    private volatile boolean transactionActive;
+
+    private volatile boolean transactionOpen;
+
     Handle(Connection connection) {
+        this(connection, () -> connection.close());
+    }
+
+    Handle(Connection connection, Supplier<? extends Publisher<Void>> closer) {
+        this(connection, closer, null, null, false, 0, null, BindMarkers.DOLLAR, null, null);
+    }
+
+    Handle(Connection connection, Supplier<? extends Publisher<Void>> closer, @Nullable StatementCache statementCache, @Nullable ExecutionListener executionListener,
+           boolean deferBeginTransaction, int rewriteBatchedInserts, @Nullable ResultCache resultCache, BindMarkers bindMarkers, @Nullable NamedParameterCache namedParameterCache,
+           @Nullable InListRewriteCache inListRewriteCache) {
         this.connection = Assert.requireNonNull(connection, "connection must not be null");
+        this.closer = Assert.requireNonNull(closer, "closer must not be null");
+        this.statementCache = statementCache;
+        this.executionListener = executionListener;
+        this.deferBeginTransaction = deferBeginTransaction;
+        this.rewriteBatchedInserts = rewriteBatchedInserts;
+        this.resultCache = resultCache;
+        this.bindMarkers = Assert.requireNonNull(bindMarkers, "bindMarkers must not be null");
+        this.namedParameterCache = namedParameterCache;
+        this.inListRewriteCache = inListRewriteCache;
     }
 
     /**
@@ -46,25 +108,41 @@ public final class Handle {
      * @return a {@link Publisher} that indicates that the transaction is open
      */
     public Publisher<Void> beginTransaction() {
-        return this.connection.beginTransaction();
+        return Mono.from(this.connection.beginTransaction())
+            .doOnSubscribe(subscription -> this.transactionOpen = true);
     }
 
     /**
-     * Release any resources held by the {@link Handle}.
+     * Release any resources held by the {@link Handle}.  If the {@link Handle} was opened from a pooled {@link R2dbc}, the underlying {@link Connection} is returned to the pool rather than closed.
+     * A transaction that was begun but neither committed nor rolled back, for example because {@link #inTransaction(Function)} was cancelled, is rolled back first, so that a pooled
+     * {@link Connection} is never handed to its next user with a transaction open.
      *
      * @return a {@link Publisher} that termination is complete
      */
     public Publisher<Void> close() {
-        return this.connection.close();
+        DeferredTransaction transaction = this.transaction;
+
+        if (!this.transactionOpen && (transaction == null || !transaction.isBegun())) {
+            return this.closer.get();
+        }
+
+        return Mono.from(rollbackTransaction())
+            .onErrorResume(appendError(this.closer::get))
+            .then(Mono.defer(() -> Mono.from(this.closer.get())));
     }
 
     /**
-     * Commits the current transaction.
+     * Commits the current transaction.  Results cached by the {@link R2dbc} this {@link Handle} was opened from are invalidated for the tables written by the transaction once it has
+     * committed.
      *
      * @return a {@link Publisher} that indicates that a transaction has been committed
      */
     public Publisher<Void> commitTransaction() {
-        return this.connection.commitTransaction();
+        return Mono.from(this.connection.commitTransaction())
+            .doOnSuccess(ignore -> {
+                this.transactionOpen = false;
+                flushInvalidations();
+            });
     }
 
     /**
@@ -73,11 +151,39 @@ public final class Handle {
      * @return a new {@link Batch} instance
      */
     public Batch createBatch() {
-        return new Batch(this.connection.createBatch());
+        return new Batch(this.connection.createBatch(), this.executionListener, this.transaction, this.resultCache == null ? null : this::invalidate);
     }
 
     /**
-     * Creates a new {@link Query} instance for building a request.
+     * Creates a new {@link BatchLoader} that looks up keys in batches.  The SQL must contain a single bind marker, in the {@link R2dbc.Builder#bindMarkers(BindMarkers) bind marker style}
+     * of the {@link R2dbc}, within an {@code IN} list, such as {@code SELECT * FROM test WHERE id IN ($1)}.  The marker is replaced by one marker per key of a batch.
+     *
+     * @param sql          the SQL of the query
+     * @param f            a {@link BiFunction} used to transform each row into a value
+     * @param keyFunction  a {@link Function} returning the key of a value, which must be equal to the key that was requested
+     * @param maxBatchSize the maximum number of keys looked up by a single query
+     * @param maxDelay     the maximum time a key waits for other keys before it is looked up
+     * @param <K>          the type of keys
+     * @param <V>          the type of values
+     * @return a new {@link BatchLoader} instance
+     * @throws IllegalArgumentException if {@code sql}, {@code f}, {@code keyFunction} or {@code maxDelay} is {@code null}, {@code sql} does not contain exactly one bind marker, or
+     *                                  {@code maxBatchSize} or {@code maxDelay} is not positive
+     */
+    public <K, V> BatchLoader<K, V> createBatchLoader(String sql, BiFunction<Row, RowMetadata, ? extends V> f, Function<? super V, ? extends K> keyFunction, int maxBatchSize,
+                                                     Duration maxDelay) {
+        Assert.requireNonNull(sql, "sql must not be null");
+        Assert.requireNonNull(f, "f must not be null");
+        Assert.requireNonNull(keyFunction, "keyFunction must not be null");
+        Assert.isTrue(maxBatchSize > 0, "maxBatchSize must be positive");
+        Assert.requireNonNull(maxDelay, "maxDelay must not be null");
+        Assert.isTrue(!maxDelay.isNegative() && !maxDelay.isZero(), "maxDelay must be positive");
+
+        return new BatchLoader<>(sql, this::createQuery, this.bindMarkers, f, keyFunction, maxBatchSize, maxDelay);
+    }
+
+    /**
+     * Creates a new {@link Query} instance for building a request.  Bind markers, in the {@link R2dbc.Builder#bindMarkers(BindMarkers) bind marker style} of the {@link R2dbc}, that are the only
+     * content of an {@code IN} list accept {@link java.util.Collection}s as values, see {@link Query#bind(Object, Object)}.
      *
      * @param sql the SQL of the query
      * @return a new {@link Query} instance
@@ -86,7 +192,10 @@ public final class Handle {
     public Query createQuery(String sql) {
         Assert.requireNonNull(sql, "sql must not be null");
 
-        return new Query(this.connection.createStatement(sql));
+        ParsedStatement statement = getParsedStatement(sql);
+
+        return new Query(this.connection.createStatement(statement.getSql()), statement.getSql(), () -> {
+        }, this.connection::createStatement, this.executionListener, this.transaction, statement.getInListRewrite(), statement.getNamedParameters());
     }
 
     /**
@@ -99,7 +208,27 @@ public final class Handle {
     public Publisher<Void> createSavepoint(String name) {
         Assert.requireNonNull(name, "name must not be null");
 
-        return this.connection.createSavepoint(name);
+        return joinTransaction(() -> this.connection.createSavepoint(name));
+    }
+
+    /**
+     * Creates a new {@link StreamingBatch} instance for executing a stream of statements.  Statements are executed as a {@link Batch} whenever {@code maxStatements} statements or
+     * {@code maxLength} characters of SQL have accumulated, at most {@code maxInFlight} batches execute at a time, and results are emitted in statement order.
+     *
+     * @param statements    a {@link Publisher} of the SQL statements to execute
+     * @param maxStatements the maximum number of statements in a single batch
+     * @param maxLength     the length of SQL, in characters, at which a batch is executed
+     * @param maxInFlight   the maximum number of batches executing concurrently
+     * @return a new {@link StreamingBatch} instance
+     * @throws IllegalArgumentException if {@code statements} is {@code null}, or {@code maxStatements}, {@code maxLength} or {@code maxInFlight} is not positive
+     */
+    public StreamingBatch createStreamingBatch(Publisher<String> statements, int maxStatements, int maxLength, int maxInFlight) {
+        Assert.requireNonNull(statements, "statements must not be null");
+        Assert.isTrue(maxStatements > 0, "maxStatements must be positive");
+        Assert.isTrue(maxLength > 0, "maxLength must be positive");
+        Assert.isTrue(maxInFlight > 0, "maxInFlight must be positive");
+
+        return new StreamingBatch(statements, this::createBatch, maxStatements, maxLength, maxInFlight);
     }
 
     /**
@@ -112,7 +241,10 @@ public final class Handle {
     public Update createUpdate(String sql) {
         Assert.requireNonNull(sql, "sql must not be null");
 
-        return new Update(this.connection.createStatement(sql));
+        ParsedStatement statement = getParsedStatement(sql);
+
+        return new Update(this.connection.createStatement(statement.getSql()), statement.getSql(), () -> invalidate(statement.getWrittenTables()), this.connection::createStatement,
+            this.executionListener, this.transaction, statement.getInsertRewrite(), statement.getNamedParameters());
     }
 
     /**
@@ -129,14 +261,18 @@ public final class Handle {
 
         Update update = createUpdate(sql);
 
-        IntStream.range(0, parameters.length)
-            .forEach(i -> update.bind(i, parameters[i]));
+        for (int i = 0; i < parameters.length; i++) {
+            update.bind(i, parameters[i]);
+        }
 
         return update.add().execute();
     }
 
     /**
-     * Execute behavior within a transaction returning results.  The transaction is committed if the behavior completes successfully, and rolled back it produces an error.
+     * Execute behavior within a transaction returning results.  The transaction is committed if the behavior completes successfully, and rolled back it produces an error.  If the {@link Handle}
+     * was opened from an {@link R2dbc} configured to {@link R2dbc.Builder#deferBeginTransaction(boolean) defer beginning transactions}, the transaction is only begun when the behavior first
+     * executes a statement, and behavior that executes no statements makes no round trips at all.  If a transaction started by this method is already active on the {@link Handle}, the behavior
+     * joins it instead and the outermost transaction decides whether to commit or roll back.
      *
      * @param f   a {@link Function} that takes a {@link Handle} and returns a {@link Publisher} of results
      * @param <T> the type of results
@@ -149,11 +285,23 @@ public final class Handle {
     public <T> Flux<T> inTransaction(Function<Handle, ? extends Publisher<? extends T>> f) {
         Assert.requireNonNull(f, "f must not be null");
 
-        return Mono.from(
-            beginTransaction())
-            .thenMany((Publisher<T>) f.apply(this))
-            .concatWith(typeSafe(this::commitTransaction))
-            .onErrorResume(appendError(this::rollbackTransaction));
+        return Flux.defer(() -> {
+            if (this.transactionActive) {
+                return (Publisher<T>) f.apply(this);
+            }
+
+            this.transactionActive = true;
+
+            Flux<T> transaction = this.deferBeginTransaction ? inDeferredTransaction(f) : Mono.from(
+                beginTransaction())
+                .thenMany((Publisher<T>) f.apply(this))
+                .concatWith(typeSafe(this::commitTransaction))
+                .onErrorResume(appendError(this::rollbackTransaction));
+
+            return transaction
+                .doOnTerminate(this::endTransaction)
+                .doOnCancel(this::cancelTransaction);
+        });
     }
 
     /**
@@ -178,6 +326,32 @@ public final class Handle {
             .thenMany((Publisher<T>) f.apply(this)));
     }
 
+    /**
+     * Execute behavior within a transaction returning results, retrying the transaction when it fails with a retryable error.  Each attempt rolls back the failed transaction, waits for the
+     * backoff of the {@link RetryPolicy}, and applies {@code f} again in a new transaction.  So that a retried attempt never duplicates results, results are only emitted once the transaction
+     * has committed.  If a transaction is already active on the {@link Handle}, the behavior joins it without retrying, since only the outermost transaction can be retried.
+     *
+     * @param retryPolicy the policy deciding which errors are retried, how often, and after what backoff
+     * @param f           a {@link Function} that takes a {@link Handle} and returns a {@link Publisher} of results
+     * @param <T>         the type of results
+     * @return a {@link Flux} of results
+     * @throws IllegalArgumentException if {@code retryPolicy} or {@code f} is {@code null}
+     * @see #inTransaction(Function)
+     */
+    public <T> Flux<T> inTransactionWithRetry(RetryPolicy retryPolicy, Function<Handle, ? extends Publisher<? extends T>> f) {
+        Assert.requireNonNull(retryPolicy, "retryPolicy must not be null");
+        Assert.requireNonNull(f, "f must not be null");
+
+        return Flux.defer(() -> {
+            if (this.transactionActive) {
+                return inTransaction(f);
+            }
+
+            return attemptTransaction(retryPolicy, f, 1)
+                .flatMapIterable(Function.identity());
+        });
+    }
+
     /**
      * Releases a savepoint in the current transaction.
      *
@@ -188,7 +362,7 @@ public final class Handle {
     public Publisher<Void> releaseSavepoint(String name) {
         Assert.requireNonNull(name, "name must not be null");
 
-        return this.connection.releaseSavepoint(name);
+        return joinTransaction(() -> this.connection.releaseSavepoint(name));
     }
 
     /**
@@ -197,7 +371,8 @@ public final class Handle {
      * @return a {@link Publisher} that indicates that a transaction has been rolled back
      */
     public Publisher<Void> rollbackTransaction() {
-        return this.connection.rollbackTransaction();
+        return Mono.from(this.connection.rollbackTransaction())
+            .doOnSuccess(ignore -> this.transactionOpen = false);
     }
 
     /**
@@ -210,7 +385,7 @@ public final class Handle {
     public Publisher<Void> rollbackTransactionToSavepoint(String name) {
         Assert.requireNonNull(name, "name must not be null");
 
-        return this.connection.rollbackTransactionToSavepoint(name);
+        return joinTransaction(() -> this.connection.rollbackTransactionToSavepoint(name));
     }
 
     /**
@@ -227,8 +402,9 @@ public final class Handle {
 
         Query query = createQuery(sql);
 
-        IntStream.range(0, parameters.length)
-            .forEach(i -> query.bind(i, parameters[i]));
+        for (int i = 0; i < parameters.length; i++) {
+            query.bind(i, parameters[i]);
+        }
 
         return query.add();
     }
@@ -243,7 +419,7 @@ public final class Handle {
     public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
         Assert.requireNonNull(isolationLevel, "isolationLevel must not be null");
 
-        return this.connection.setTransactionIsolationLevel(isolationLevel);
+        return joinTransaction(() -> this.connection.setTransactionIsolationLevel(isolationLevel));
     }
 
     @Override
@@ -288,4 +464,116 @@ public final class Handle {
             .then();
     }
 
+    boolean isTransactionActive() {
+        return this.transactionActive;
+    }
+
+    private <T> Mono<List<T>> attemptTransaction(RetryPolicy retryPolicy, Function<Handle, ? extends Publisher<? extends T>> f, int attempt) {
+        RetryMetrics metrics = retryPolicy.getMetrics();
+
+        return Flux.defer(() -> {
+            metrics.recordAttempt();
+            return this.<T>inTransaction(f);
+        })
+            .collectList()
+            .onErrorResume(t -> {
+                if (!retryPolicy.isRetryable(t)) {
+                    return Mono.error(t);
+                }
+
+                if (attempt >= retryPolicy.getMaxAttempts()) {
+                    metrics.recordExhausted();
+                    return Mono.error(t);
+                }
+
+                metrics.recordRetry();
+                return Mono.delay(retryPolicy.getBackoff(attempt))
+                    .then(attemptTransaction(retryPolicy, f, attempt + 1));
+            });
+    }
+
+    private void cancelTransaction() {
+        DeferredTransaction transaction = this.transaction;
+
+        if (transaction != null && transaction.isBegun()) {
+            this.transactionOpen = true;
+        }
+
+        endTransaction();
+    }
+
+    private void endTransaction() {
+        this.transaction = null;
+        this.transactionActive = false;
+        this.invalidatedTables.clear();
+    }
+
+    private void flushInvalidations() {
+        ResultCache resultCache = this.resultCache;
+        if (resultCache == null || this.invalidatedTables.isEmpty()) {
+            return;
+        }
+
+        Set<String> tables = new HashSet<>();
+        for (String table : this.invalidatedTables) {
+            tables.add(table);
+            this.invalidatedTables.remove(table);
+        }
+
+        resultCache.invalidate(tables);
+    }
+
+    @Nullable
+    private InListRewrite getInListRewrite(String sql) {
+        return this.inListRewriteCache == null ? InListRewrite.parse(sql, this.bindMarkers) : this.inListRewriteCache.get(sql);
+    }
+
+    @Nullable
+    private NamedParameters getNamedParameters(String sql) {
+        return this.namedParameterCache == null ? null : this.namedParameterCache.get(sql);
+    }
+
+    private ParsedStatement getParsedStatement(String sql) {
+        StatementCache statementCache = this.statementCache;
+        return statementCache == null ? parse(sql) : statementCache.get(sql, this::parse);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Flux<T> inDeferredTransaction(Function<Handle, ? extends Publisher<? extends T>> f) {
+        DeferredTransaction transaction = new DeferredTransaction(this.connection);
+        this.transaction = transaction;
+
+        return Flux.from((Publisher<T>) f.apply(this))
+            .concatWith(typeSafe(() -> transaction.isBegun() ? commitTransaction() : Mono.empty()))
+            .onErrorResume(appendError(() -> transaction.isBegun() ? rollbackTransaction() : Mono.empty()));
+    }
+
+    private void invalidate(Collection<String> tables) {
+        ResultCache resultCache = this.resultCache;
+        if (resultCache == null || tables.isEmpty()) {
+            return;
+        }
+
+        if (this.transactionActive) {
+            this.invalidatedTables.addAll(tables);
+        } else {
+            resultCache.invalidate(tables);
+        }
+    }
+
+    private ParsedStatement parse(String sql) {
+        NamedParameters namedParameters = getNamedParameters(sql);
+        String nativeSql = namedParameters == null ? sql : namedParameters.getSql();
+        InListRewrite inListRewrite = getInListRewrite(nativeSql);
+        InsertRewrite insertRewrite = this.rewriteBatchedInserts == 0 ? null : InsertRewrite.parse(nativeSql, this.rewriteBatchedInserts);
+        Set<String> writtenTables = this.resultCache == null ? Collections.emptySet() : TableNames.written(nativeSql);
+
+        return new ParsedStatement(nativeSql, namedParameters, inListRewrite, insertRewrite, writtenTables);
+    }
+
+    private Publisher<Void> joinTransaction(Supplier<Publisher<Void>> operation) {
+        DeferredTransaction transaction = this.transaction;
+        return transaction == null ? operation.get() : transaction.execute(operation);
+    }
+
 }
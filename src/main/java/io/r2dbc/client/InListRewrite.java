@@ -0,0 +1,208 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A rewrite of a statement whose {@code IN} lists each contain a single bind marker, such as {@code WHERE id IN ($1)}, expanding the marker into one marker per element of a collection.
+ * Collections are padded to a power of two so that the number of distinct statements, and of the plans a database prepares for them, only grows logarithmically with the size of the
+ * collections.
+ */
+final class InListRewrite {
+
+    private static final Pattern CLOSE = Pattern.compile("^\\s*\\)");
+
+    private static final Pattern IN = Pattern.compile("\\bIN\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern OPEN = Pattern.compile("\\bIN\\s*\\(\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private final BindMarkers bindMarkers;
+
+    private final boolean[] expandable;
+
+    private final int[] markers;
+
+    private final String[] segments;
+
+    private InListRewrite(BindMarkers bindMarkers, String[] segments, int[] markers, boolean[] expandable) {
+        this.bindMarkers = bindMarkers;
+        this.segments = segments;
+        this.markers = markers;
+        this.expandable = expandable;
+    }
+
+    @Override
+    public String toString() {
+        return "InListRewrite{" +
+            "bindMarkers=" + this.bindMarkers +
+            ", parameters=" + this.expandable.length +
+            '}';
+    }
+
+    /**
+     * Returns the size of the bucket a collection is padded to, the smallest power of two that is at least the size of the collection.
+     *
+     * @param size the size of the collection
+     * @return the size of the bucket
+     */
+    static int getBucket(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    /**
+     * Parse a statement.
+     *
+     * @param sql         the SQL of the statement
+     * @param bindMarkers the style of the bind markers of the statement
+     * @return the rewrite of the statement, or {@code null} if it has no parameter that can be expanded
+     */
+    @Nullable
+    static InListRewrite parse(String sql, BindMarkers bindMarkers) {
+        if (!IN.matcher(sql).find()) {
+            return null;
+        }
+
+        List<String> segments = new ArrayList<>();
+        List<Integer> markers = new ArrayList<>();
+        int segmentStart = 0;
+
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+
+            if (c == '\'' || c == '"') {
+                int end = sql.indexOf(c, i + 1);
+                i = end == -1 ? sql.length() : end + 1;
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                int end = sql.indexOf('\n', i);
+                i = end == -1 ? sql.length() : end + 1;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                int end = sql.indexOf("*/", i + 2);
+                i = end == -1 ? sql.length() : end + 2;
+            } else if (bindMarkers == BindMarkers.QUESTION_MARK && c == '?') {
+                segments.add(sql.substring(segmentStart, i));
+                markers.add(markers.size());
+                segmentStart = ++i;
+            } else if (bindMarkers == BindMarkers.DOLLAR && c == '$' || bindMarkers == BindMarkers.AT_P && c == '@' && sql.startsWith("@P", i)) {
+                int start = i + (bindMarkers == BindMarkers.DOLLAR ? 1 : 2);
+                int end = start;
+
+                while (end < sql.length() && Character.isDigit(sql.charAt(end))) {
+                    end++;
+                }
+
+                int index = end == start ? -1 : bindMarkers.getIndex(sql.substring(i, end));
+                if (index == -1) {
+                    i = Math.max(end, i + 1);
+                    continue;
+                }
+
+                segments.add(sql.substring(segmentStart, i));
+                markers.add(index);
+                segmentStart = i = end;
+            } else {
+                i++;
+            }
+        }
+        segments.add(sql.substring(segmentStart));
+
+        int parameters = markers.stream().mapToInt(marker -> marker + 1).max().orElse(0);
+        boolean[] expandable = new boolean[parameters];
+        boolean[] fixed = new boolean[parameters];
+
+        for (int marker = 0; marker < markers.size(); marker++) {
+            int index = markers.get(marker);
+
+            if (OPEN.matcher(segments.get(marker)).find() && CLOSE.matcher(segments.get(marker + 1)).find()) {
+                expandable[index] = true;
+            } else {
+                fixed[index] = true;
+            }
+        }
+
+        boolean any = false;
+        for (int index = 0; index < parameters; index++) {
+            expandable[index] &= !fixed[index];
+            any |= expandable[index];
+        }
+
+        if (!any) {
+            return null;
+        }
+
+        return new InListRewrite(bindMarkers, segments.toArray(new String[0]), markers.stream().mapToInt(Integer::intValue).toArray(), expandable);
+    }
+
+    /**
+     * Returns the number of parameters of the statement.
+     *
+     * @return the number of parameters of the statement
+     */
+    int getParameters() {
+        return this.expandable.length;
+    }
+
+    /**
+     * Returns the index of the parameter an identifier refers to.
+     *
+     * @param identifier the identifier of the parameter
+     * @return the index of the parameter, or {@code -1} if the identifier does not refer to a parameter of the statement
+     */
+    int getIndex(Object identifier) {
+        int index = this.bindMarkers.getIndex(identifier);
+        return index < this.expandable.length ? index : -1;
+    }
+
+    /**
+     * Returns the SQL of the statement with each parameter expanded to a number of markers.  The markers of parameter {@code i} are bound at the indexes following the markers of all
+     * parameters before it.
+     *
+     * @param sizes the number of markers of each parameter, which must be {@code 1} for parameters that cannot be expanded
+     * @return the SQL of the expanded statement
+     */
+    String getSql(int[] sizes) {
+        int[] starts = new int[sizes.length];
+        for (int index = 1; index < sizes.length; index++) {
+            starts[index] = starts[index - 1] + sizes[index - 1];
+        }
+
+        StringBuilder sql = new StringBuilder(this.segments[0]);
+
+        for (int marker = 0; marker < this.markers.length; marker++) {
+            int index = this.markers[marker];
+            sql.append(this.bindMarkers.getPlaceholders(starts[index], sizes[index])).append(this.segments[marker + 1]);
+        }
+
+        return sql.toString();
+    }
+
+    /**
+     * Returns whether a parameter can be expanded, which is the case if each of its markers is the only content of an {@code IN} list.
+     *
+     * @param index the index of the parameter
+     * @return whether the parameter can be expanded
+     */
+    boolean isExpandable(int index) {
+        return index >= 0 && index < this.expandable.length && this.expandable[index];
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import reactor.util.annotation.Nullable;
+
+import java.util.Optional;
+
+/**
+ * A least-recently-used cache of {@link InListRewrite}s keyed by SQL, shared by all {@link Handle}s of an {@link R2dbc}, so that each distinct query is only parsed once while it is in use.
+ * Statements without an expandable parameter are cached as well, so that they are not parsed again either.
+ */
+final class InListRewriteCache {
+
+    private final BindMarkers bindMarkers;
+
+    private final LruCache<String, Optional<InListRewrite>> parses;
+
+    InListRewriteCache(int size, BindMarkers bindMarkers) {
+        Assert.isTrue(size > 0, "size must be positive");
+
+        this.bindMarkers = Assert.requireNonNull(bindMarkers, "bindMarkers must not be null");
+        this.parses = new LruCache<>(size);
+    }
+
+    /**
+     * Returns the rewrite of a statement, parsing it on a miss.
+     *
+     * @param sql the SQL of the statement
+     * @return the rewrite of the statement, or {@code null} if it has no parameter that can be expanded
+     */
+    @Nullable
+    InListRewrite get(String sql) {
+        Optional<InListRewrite> inListRewrite = this.parses.get(sql);
+
+        if (inListRewrite == null) {
+            inListRewrite = Optional.ofNullable(InListRewrite.parse(sql, this.bindMarkers));
+            this.parses.put(sql, inListRewrite);
+        }
+
+        return inListRewrite.orElse(null);
+    }
+
+    int size() {
+        return this.parses.size();
+    }
+
+    @Override
+    public String toString() {
+        return "InListRewriteCache{" +
+            "bindMarkers=" + this.bindMarkers +
+            ", statements=" + this.parses.snapshot().keySet() +
+            '}';
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.util.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A {@link Row} whose columns are accessed by their position in the list of column names passed to {@link ResultBearing#mapColumns(java.util.function.Function, String...)}.  The names are
+ * resolved to column indexes once per {@link io.r2dbc.spi.Result}, so that accessing a column does not search for it by name.
+ */
+public final class IndexedRow {
+
+    private final Integer[] indexes;
+
+    private final Row row;
+
+    IndexedRow(Row row, Integer[] indexes) {
+        this.row = Assert.requireNonNull(row, "row must not be null");
+        this.indexes = Assert.requireNonNull(indexes, "indexes must not be null");
+    }
+
+    /**
+     * Returns the value of a column.
+     *
+     * @param column the position of the column in the requested column names
+     * @param type   the type of the value
+     * @param <T>    the type of the value
+     * @return the value of the column
+     * @throws IllegalArgumentException if {@code type} is {@code null} or {@code column} is out of range
+     */
+    @Nullable
+    public <T> T get(int column, Class<T> type) {
+        Assert.requireNonNull(type, "type must not be null");
+        Assert.isTrue(column >= 0 && column < this.indexes.length, "column must be between 0 and the number of column names");
+
+        return this.row.get(this.indexes[column], type);
+    }
+
+    /**
+     * Returns the underlying {@link Row}.
+     *
+     * @return the underlying {@link Row}
+     */
+    public Row getRow() {
+        return this.row;
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedRow{" +
+            "indexes=" + Arrays.toString(this.indexes) +
+            ", row=" + this.row +
+            '}';
+    }
+
+    /**
+     * Resolve column names to column indexes.  Names are matched exactly, then ignoring case.
+     *
+     * @param rowMetadata the metadata of the columns
+     * @param columnNames the names of the columns to resolve
+     * @return the index of each column name
+     * @throws IllegalArgumentException if a column name does not match any column
+     */
+    static Integer[] resolve(RowMetadata rowMetadata, String[] columnNames) {
+        Integer[] indexes = new Integer[columnNames.length];
+        boolean[] exact = new boolean[columnNames.length];
+
+        int index = 0;
+        for (ColumnMetadata columnMetadata : rowMetadata.getColumnMetadatas()) {
+            String name = columnMetadata.getName();
+
+            for (int i = 0; i < columnNames.length; i++) {
+                if (!exact[i] && columnNames[i].equals(name)) {
+                    indexes[i] = index;
+                    exact[i] = true;
+                } else if (indexes[i] == null && columnNames[i].equalsIgnoreCase(name)) {
+                    indexes[i] = index;
+                }
+            }
+
+            index++;
+        }
+
+        for (int i = 0; i < columnNames.length; i++) {
+            if (indexes[i] == null) {
+                throw new IllegalArgumentException(String.format("Column %s does not exist", columnNames[i]));
+            }
+        }
+
+        return indexes;
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A rewrite of a single-row {@code INSERT ... VALUES (...)} statement with {@code $n} bind markers into a multi-row {@code INSERT ... VALUES (...), (...)} statement.  Only statements that end
+ * with their {@code VALUES} list and contain no quoted text can be rewritten, and statements that may skip or replace conflicting rows, such as {@code INSERT IGNORE} or
+ * {@code INSERT OR REPLACE}, are not, so that every row of a rewritten statement inserts exactly one row.
+ */
+final class InsertRewrite {
+
+    private static final Pattern INSERT = Pattern.compile("^\\s*INSERT\\s", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern MARKER = Pattern.compile("\\$(\\d+)");
+
+    private static final Pattern SKIPPING = Pattern.compile("\\b(IGNORE|REPLACE|ON\\s+CONFLICT|ON\\s+DUPLICATE)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern VALUES = Pattern.compile("\\bVALUES\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    private final int[] markers;
+
+    private final int maxRows;
+
+    private final int parameters;
+
+    private final String prefix;
+
+    private final String[] segments;
+
+    private InsertRewrite(String prefix, String[] segments, int[] markers, int parameters, int maxRows) {
+        this.prefix = prefix;
+        this.segments = segments;
+        this.markers = markers;
+        this.parameters = parameters;
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public String toString() {
+        return "InsertRewrite{" +
+            "maxRows=" + this.maxRows +
+            ", parameters=" + this.parameters +
+            ", prefix='" + this.prefix + '\'' +
+            '}';
+    }
+
+    /**
+     * Parse an {@code INSERT} statement.
+     *
+     * @param sql           the SQL of the statement
+     * @param maxParameters the maximum number of parameters in a rewritten statement
+     * @return the rewrite of the statement, or {@code null} if it cannot be rewritten
+     */
+    @Nullable
+    static InsertRewrite parse(String sql, int maxParameters) {
+        String trimmed = trimEnd(sql);
+
+        if (!INSERT.matcher(trimmed).find() || SKIPPING.matcher(trimmed).find() || trimmed.indexOf('\'') != -1 || trimmed.indexOf('"') != -1) {
+            return null;
+        }
+
+        Matcher values = VALUES.matcher(trimmed);
+        if (!values.find()) {
+            return null;
+        }
+
+        int start = values.end() - 1;
+        if (values.find() || getClosingParenthesis(trimmed, start) != trimmed.length() - 1) {
+            return null;
+        }
+
+        String group = trimmed.substring(start);
+        List<String> segments = new ArrayList<>();
+        List<Integer> markers = new ArrayList<>();
+
+        Matcher marker = MARKER.matcher(group);
+        int position = 0;
+        while (marker.find()) {
+            segments.add(group.substring(position, marker.start()));
+            markers.add(Integer.parseInt(marker.group(1)));
+            position = marker.end();
+        }
+        segments.add(group.substring(position));
+
+        int parameters = markers.stream().mapToInt(Integer::intValue).max().orElse(0);
+        if (parameters == 0 || parameters > maxParameters || markers.size() != count(group, '$')) {
+            return null;
+        }
+
+        for (int i = 1; i <= parameters; i++) {
+            if (!markers.contains(i)) {
+                return null;
+            }
+        }
+
+        return new InsertRewrite(trimmed.substring(0, start), segments.toArray(new String[0]), markers.stream().mapToInt(Integer::intValue).toArray(), parameters, maxParameters / parameters);
+    }
+
+    /**
+     * Returns the maximum number of rows in a single rewritten statement.
+     *
+     * @return the maximum number of rows in a single rewritten statement
+     */
+    int getMaxRows() {
+        return this.maxRows;
+    }
+
+    /**
+     * Returns the number of parameters in each row.
+     *
+     * @return the number of parameters in each row
+     */
+    int getParameters() {
+        return this.parameters;
+    }
+
+    /**
+     * Returns the SQL of a statement inserting a number of rows.  The parameters of row {@code r} are bound at indexes {@code r * getParameters()} onwards.
+     *
+     * @param rows the number of rows
+     * @return the SQL of a statement inserting {@code rows} rows
+     */
+    String getSql(int rows) {
+        StringBuilder sql = new StringBuilder(this.prefix);
+
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+
+            for (int i = 0; i < this.markers.length; i++) {
+                sql.append(this.segments[i]).append('$').append(row * this.parameters + this.markers[i]);
+            }
+
+            sql.append(this.segments[this.markers.length]);
+        }
+
+        return sql.toString();
+    }
+
+    private static int count(String s, char c) {
+        int count = 0;
+
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == c) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private static int getClosingParenthesis(String s, int start) {
+        int depth = 0;
+
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static String trimEnd(String sql) {
+        int end = sql.length();
+
+        while (end > 0 && (Character.isWhitespace(sql.charAt(end - 1)) || sql.charAt(end - 1) == ';')) {
+            end--;
+        }
+
+        return sql.substring(0, end);
+    }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * The configuration of leak detection for the {@link Handle}s opened by an {@link R2dbc}.
+ */
+public final class LeakDetectionConfiguration {
+
+    private final boolean closeLeakedHandles;
+
+    private final double sampleRate;
+
+    private final Duration threshold;
+
+    private LeakDetectionConfiguration(boolean closeLeakedHandles, double sampleRate, Duration threshold) {
+        this.closeLeakedHandles = closeLeakedHandles;
+        this.sampleRate = sampleRate;
+        this.threshold = Assert.requireNonNull(threshold, "threshold must not be null");
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "LeakDetectionConfiguration{" +
+            "closeLeakedHandles=" + this.closeLeakedHandles +
+            ", sampleRate=" + this.sampleRate +
+            ", threshold=" + this.threshold +
+            '}';
+    }
+
+    double getSampleRate() {
+        return this.sampleRate;
+    }
+
+    Duration getThreshold() {
+        return this.threshold;
+    }
+
+    boolean isCloseLeakedHandles() {
+        return this.closeLeakedHandles;
+    }
+
+    /**
+     * A builder for {@link LeakDetectionConfiguration} instances.
+     * <p>
+     * <i>This class is not threadsafe</i>
+     */
+    public static final class Builder {
+
+        private boolean closeLeakedHandles;
+
+        private double sampleRate = 0.01;
+
+        private Duration threshold = Duration.ofMinutes(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Returns a configured {@link LeakDetectionConfiguration}.
+         *
+         * @return a configured {@link LeakDetectionConfiguration}
+         */
+        public LeakDetectionConfiguration build() {
+            return new LeakDetectionConfiguration(this.closeLeakedHandles, this.sampleRate, this.threshold);
+        }
+
+        /**
+         * Configure whether the connection of a tracked {@link Handle} that is garbage collected without having been closed is closed, or returned to the pool, when the leak is detected.  A
+         * statement can still be running after its handle has become unreachable, so the connection is only closed once none of the executions of the handle are in flight.  Defaults to
+         * {@code false}.
+         *
+         * @param closeLeakedHandles whether to close leaked handles
+         * @return this {@link Builder}
+         */
+        public Builder closeLeakedHandles(boolean closeLeakedHandles) {
+            this.closeLeakedHandles = closeLeakedHandles;
+            return this;
+        }
+
+        /**
+         * Configure the fraction of opened {@link Handle}s that are tracked.  Tracking a {@link Handle} captures the stack trace of the code that opened it, so a low rate keeps the overhead of
+         * leak detection small enough for production while a recurring leak is still reported.  Defaults to {@code 0.01}.
+         *
+         * @param sampleRate the fraction of handles to track, greater than {@code 0} and at most {@code 1}
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code sampleRate} is not greater than {@code 0} and at most {@code 1}
+         */
+        public Builder sampleRate(double sampleRate) {
+            Assert.isTrue(sampleRate > 0 && sampleRate <= 1, "sampleRate must be greater than 0 and at most 1");
+
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Configure the amount of time a tracked {@link Handle} may be held open before it is reported.  Each {@link Handle} is reported once.  Defaults to 1 minute.
+         *
+         * @param threshold the amount of time a handle may be held open
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code threshold} is {@code null} or not positive
+         */
+        public Builder threshold(Duration threshold) {
+            Assert.requireNonNull(threshold, "threshold must not be null");
+            Assert.isTrue(!threshold.isNegative() && !threshold.isZero(), "threshold must be positive");
+
+            this.threshold = threshold;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Builder{" +
+                "closeLeakedHandles=" + this.closeLeakedHandles +
+                ", sampleRate=" + this.sampleRate +
+                ", threshold=" + this.threshold +
+                '}';
+        }
+
+    }
+
+}
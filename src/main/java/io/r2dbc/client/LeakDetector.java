@@ -0,0 +1,255 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A detector of {@link Handle}s that are held open for too long, or garbage collected without having been closed.  A sample of handles is tracked by a lease recording where and when the
+ * handle was opened, and a {@link PhantomReference} to the handle that is enqueued once the handle becomes unreachable.  A lease also listens to the executions of its handle, because a
+ * statement can still be running after the handle itself has become unreachable, and the connection of a leaked handle is only closed once none of its executions are in flight.
+ */
+final class LeakDetector {
+
+    private static final Duration MINIMUM_SCAN_INTERVAL = Duration.ofMillis(10);
+
+    private final Logger logger = Loggers.getLogger(this.getClass());
+
+    private final boolean closeLeakedHandles;
+
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+
+    private final LongSupplier nanoTime;
+
+    private final ReferenceQueue<Handle> queue = new ReferenceQueue<>();
+
+    private final double sampleRate;
+
+    private final Disposable scanner;
+
+    private final long threshold;
+
+    private long leaked;
+
+    private long overdue;
+
+    LeakDetector(LeakDetectionConfiguration configuration) {
+        this(configuration, System::nanoTime);
+    }
+
+    LeakDetector(LeakDetectionConfiguration configuration, LongSupplier nanoTime) {
+        Assert.requireNonNull(configuration, "configuration must not be null");
+        this.nanoTime = Assert.requireNonNull(nanoTime, "nanoTime must not be null");
+        this.closeLeakedHandles = configuration.isCloseLeakedHandles();
+        this.sampleRate = configuration.getSampleRate();
+        this.threshold = configuration.getThreshold().toNanos();
+
+        Duration interval = getScanInterval(configuration.getThreshold());
+        this.scanner = Flux.interval(interval, interval)
+            .subscribe(tick -> scan());
+    }
+
+    @Override
+    public String toString() {
+        return "LeakDetector{" +
+            "closeLeakedHandles=" + this.closeLeakedHandles +
+            ", sampleRate=" + this.sampleRate +
+            ", threshold=" + Duration.ofNanos(this.threshold) +
+            '}';
+    }
+
+    void close() {
+        this.scanner.dispose();
+    }
+
+    synchronized long getLeaked() {
+        return this.leaked;
+    }
+
+    synchronized long getOverdue() {
+        return this.overdue;
+    }
+
+    int getTracked() {
+        return this.leases.size();
+    }
+
+    synchronized void scan() {
+        Reference<? extends Handle> reference;
+
+        while ((reference = this.queue.poll()) != null) {
+            Lease lease = ((LeaseReference) reference).lease;
+
+            if (this.leases.remove(lease)) {
+                this.leaked++;
+                this.logger.warn("Handle was garbage collected without being closed", lease.trace);
+
+                if (this.closeLeakedHandles) {
+                    lease.leaked = true;
+
+                    if (lease.executions.get() == 0) {
+                        closeLeaked(lease);
+                    }
+                }
+            }
+        }
+
+        long now = this.nanoTime.getAsLong();
+
+        for (Lease lease : this.leases) {
+            if (!lease.reported && now - lease.acquired > this.threshold) {
+                lease.reported = true;
+                this.overdue++;
+                this.logger.warn(String.format("Handle has been open for more than %s", Duration.ofNanos(this.threshold)), lease.trace);
+            }
+        }
+    }
+
+    /**
+     * Create a {@link Handle}, tracking it if it is sampled.  The {@link Handle} of a tracked lease is created with a closer that ends the lease, and an {@link ExecutionListener} that also
+     * counts the executions of the lease that are in flight.
+     *
+     * @param closer            the closer of the connection of the handle
+     * @param executionListener the {@link ExecutionListener} of the handle, if any
+     * @param handleFactory     a {@link BiFunction} that creates a {@link Handle} from a closer and an {@link ExecutionListener}
+     * @return the {@link Handle}
+     */
+    Handle track(Supplier<? extends Publisher<Void>> closer, @Nullable ExecutionListener executionListener,
+                 BiFunction<Supplier<? extends Publisher<Void>>, ExecutionListener, Handle> handleFactory) {
+        Assert.requireNonNull(closer, "closer must not be null");
+        Assert.requireNonNull(handleFactory, "handleFactory must not be null");
+
+        if (this.sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= this.sampleRate) {
+            return handleFactory.apply(closer, executionListener);
+        }
+
+        Lease lease = new Lease(closer, this.nanoTime.getAsLong());
+        Handle handle = handleFactory.apply(lease::close, executionListener == null ? lease : new CompositeExecutionListener(Arrays.asList(executionListener, lease)));
+
+        lease.reference = new LeaseReference(handle, this.queue, lease);
+        this.leases.add(lease);
+
+        return handle;
+    }
+
+    private void closeLeaked(Lease lease) {
+        Mono.from(lease.close())
+            .subscribe(null, t -> this.logger.warn("Error closing leaked handle", t));
+    }
+
+    private static Duration getScanInterval(Duration threshold) {
+        Duration interval = threshold.dividedBy(2);
+
+        return interval.compareTo(MINIMUM_SCAN_INTERVAL) < 0 ? MINIMUM_SCAN_INTERVAL : interval;
+    }
+
+    private final class Lease implements ExecutionListener {
+
+        private final long acquired;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private final Supplier<? extends Publisher<Void>> closer;
+
+        private final AtomicInteger executions = new AtomicInteger();
+
+        private final Throwable trace = new Throwable("Handle opened here");
+
+        private volatile boolean leaked;
+
+        @Nullable
+        private volatile LeaseReference reference;
+
+        private volatile boolean reported;
+
+        private Lease(Supplier<? extends Publisher<Void>> closer, long acquired) {
+            this.closer = closer;
+            this.acquired = acquired;
+        }
+
+        @Override
+        public void afterExecution(ExecutionInfo executionInfo) {
+            if (this.executions.decrementAndGet() == 0 && this.leaked) {
+                closeLeaked(this);
+            }
+        }
+
+        @Override
+        public void beforeExecution(ExecutionInfo executionInfo) {
+            this.executions.incrementAndGet();
+        }
+
+        @Override
+        public String toString() {
+            return "Lease{" +
+                "acquired=" + this.acquired +
+                ", executions=" + this.executions +
+                '}';
+        }
+
+        private Publisher<Void> close() {
+            return Flux.defer(() -> {
+                if (!this.closed.compareAndSet(false, true)) {
+                    return Mono.empty();
+                }
+
+                LeakDetector.this.leases.remove(this);
+
+                LeaseReference reference = this.reference;
+                if (reference != null) {
+                    reference.clear();
+                }
+
+                return this.closer.get();
+            });
+        }
+
+    }
+
+    private static final class LeaseReference extends PhantomReference<Handle> {
+
+        private final Lease lease;
+
+        private LeaseReference(Handle handle, ReferenceQueue<? super Handle> queue, Lease lease) {
+            super(handle, queue);
+            this.lease = lease;
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import reactor.util.annotation.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A thread-safe, least-recently-used cache holding at most a fixed number of entries.  Adding an entry to a full cache evicts the entry that was least recently read or written.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+final class LruCache<K, V> {
+
+    private final Map<K, V> entries;
+
+    LruCache(int size) {
+        this(size, () -> {
+        });
+    }
+
+    LruCache(int size, Runnable onEviction) {
+        Assert.isTrue(size > 0, "size must be positive");
+        Assert.requireNonNull(onEviction, "onEviction must not be null");
+
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= size) {
+                    return false;
+                }
+
+                onEviction.run();
+                return true;
+            }
+
+        };
+    }
+
+    /**
+     * Returns the value of a key, computing and caching it on a miss.  The value is computed while the cache is locked, so {@code f} should be cheap.
+     *
+     * @param key the key
+     * @param f   a {@link Function} computing the value of {@code key} on a miss
+     * @return the value of {@code key}
+     */
+    synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> f) {
+        return this.entries.computeIfAbsent(key, f);
+    }
+
+    @Nullable
+    synchronized V get(K key) {
+        return this.entries.get(key);
+    }
+
+    synchronized void put(K key, V value) {
+        this.entries.put(key, value);
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Returns a copy of the entries of the cache, from least to most recently used.
+     *
+     * @return a copy of the entries of the cache
+     */
+    synchronized Map<K, V> snapshot() {
+        return new LinkedHashMap<>(this.entries);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LruCache{" +
+            "entries=" + this.entries.keySet() +
+            '}';
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import reactor.util.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * An {@link ExecutionListener} that records {@link ExecutionMetrics} for each SQL fingerprint.  A fingerprint is the SQL with its string and numeric literals replaced by {@code ?} and its
+ * whitespace collapsed, so that statements differing only in inlined values share metrics.  Metrics are kept for a bounded number of fingerprints, and those of the least recently executed
+ * fingerprint are discarded when the bound is exceeded, so that dynamically generated SQL cannot grow the listener without limit.
+ */
+public final class MetricsExecutionListener implements ExecutionListener {
+
+    private static final int DEFAULT_MAXIMUM_FINGERPRINTS = 1024;
+
+    private static final int MAXIMUM_FINGERPRINT_CACHE_SIZE = 1024;
+
+    private final LruCache<String, String> fingerprints = new LruCache<>(MAXIMUM_FINGERPRINT_CACHE_SIZE);
+
+    private final LruCache<String, ExecutionMetrics> metrics;
+
+    /**
+     * Create a new instance of {@link MetricsExecutionListener} that keeps metrics for at most 1024 fingerprints.
+     */
+    public MetricsExecutionListener() {
+        this(DEFAULT_MAXIMUM_FINGERPRINTS);
+    }
+
+    /**
+     * Create a new instance of {@link MetricsExecutionListener} that keeps metrics for at most {@code maximumFingerprints} fingerprints.
+     *
+     * @param maximumFingerprints the maximum number of fingerprints to keep metrics for
+     * @throws IllegalArgumentException if {@code maximumFingerprints} is not positive
+     */
+    public MetricsExecutionListener(int maximumFingerprints) {
+        Assert.isTrue(maximumFingerprints > 0, "maximumFingerprints must be positive");
+
+        this.metrics = new LruCache<>(maximumFingerprints);
+    }
+
+    @Override
+    public void afterExecution(ExecutionInfo executionInfo) {
+        this.metrics.computeIfAbsent(getFingerprint(executionInfo.getSql()), fingerprint -> new ExecutionMetrics())
+            .record(executionInfo);
+    }
+
+    /**
+     * Returns the metrics recorded for a SQL fingerprint.
+     *
+     * @param sql the SQL, or fingerprint, to return metrics for
+     * @return the metrics recorded for the fingerprint of {@code sql}, or {@code null} if it has not been executed
+     * @throws IllegalArgumentException if {@code sql} is {@code null}
+     */
+    @Nullable
+    public ExecutionMetrics getMetrics(String sql) {
+        Assert.requireNonNull(sql, "sql must not be null");
+
+        return this.metrics.get(getFingerprint(sql));
+    }
+
+    /**
+     * Returns the metrics recorded for all SQL fingerprints that are still kept.
+     *
+     * @return an unmodifiable snapshot of the metrics, keyed by fingerprint from least to most recently executed
+     */
+    public Map<String, ExecutionMetrics> getMetrics() {
+        return Collections.unmodifiableMap(this.metrics.snapshot());
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsExecutionListener{" +
+            "metrics=" + this.metrics.snapshot() +
+            '}';
+    }
+
+    static String fingerprint(String sql) {
+        StringBuilder fingerprint = new StringBuilder(sql.length());
+        int length = sql.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = sql.charAt(i);
+
+            if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+
+                if (fingerprint.length() > 0 && i < length) {
+                    fingerprint.append(' ');
+                }
+            } else if (c == '\'') {
+                i++;
+
+                while (i < length) {
+                    if (sql.charAt(i++) == '\'') {
+                        if (i < length && sql.charAt(i) == '\'') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                }
+
+                fingerprint.append('?');
+            } else if (Character.isDigit(c) && !isIdentifierPart(fingerprint)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+
+                fingerprint.append('?');
+            } else {
+                fingerprint.append(c);
+                i++;
+            }
+        }
+
+        return fingerprint.toString();
+    }
+
+    private static boolean isIdentifierPart(StringBuilder fingerprint) {
+        if (fingerprint.length() == 0) {
+            return false;
+        }
+
+        char previous = fingerprint.charAt(fingerprint.length() - 1);
+        return Character.isLetterOrDigit(previous) || previous == '_' || previous == '$' || previous == '@' || previous == ':';
+    }
+
+    private String getFingerprint(String sql) {
+        String fingerprint = this.fingerprints.get(sql);
+
+        if (fingerprint == null) {
+            fingerprint = fingerprint(sql);
+            this.fingerprints.put(sql, fingerprint);
+        }
+
+        return fingerprint;
+    }
+
+}
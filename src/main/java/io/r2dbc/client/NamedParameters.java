@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parse of a statement with {@code :name} named parameters, rewritten to the positional bind markers of a driver.  Each name is bound at the indexes of the markers that replaced it, which
+ * is a single index for numbered markers and one index per occurrence for anonymous {@code ?} markers.
+ */
+final class NamedParameters {
+
+    private final Map<String, int[]> indexes;
+
+    private final String sql;
+
+    private NamedParameters(String sql, Map<String, int[]> indexes) {
+        this.sql = sql;
+        this.indexes = indexes;
+    }
+
+    @Override
+    public String toString() {
+        return "NamedParameters{" +
+            "names=" + this.indexes.keySet() +
+            ", sql='" + this.sql + '\'' +
+            '}';
+    }
+
+    /**
+     * Parse a statement.  Names start with a letter or underscore and are not recognized within quoted text, within comments, or after a {@code ::} cast.
+     *
+     * @param sql         the SQL of the statement
+     * @param bindMarkers the style of the bind markers to rewrite names to
+     * @return the parse of the statement
+     */
+    static NamedParameters parse(String sql, BindMarkers bindMarkers) {
+        if (sql.indexOf(':') == -1) {
+            return new NamedParameters(sql, Collections.emptyMap());
+        }
+
+        Map<String, List<Integer>> names = new LinkedHashMap<>();
+        StringBuilder rewritten = new StringBuilder(sql.length());
+        int markers = 0;
+
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+            int end = i + 1;
+
+            if (c == '\'' || c == '"') {
+                end = sql.indexOf(c, i + 1);
+                end = end == -1 ? sql.length() : end + 1;
+            } else if (c == '-' && sql.startsWith("--", i)) {
+                end = sql.indexOf('\n', i);
+                end = end == -1 ? sql.length() : end + 1;
+            } else if (c == '/' && sql.startsWith("/*", i)) {
+                end = sql.indexOf("*/", i + 2);
+                end = end == -1 ? sql.length() : end + 2;
+            } else if (c == ':' && sql.startsWith("::", i)) {
+                end = i + 2;
+            } else if (c == ':' && i + 1 < sql.length() && isNameStart(sql.charAt(i + 1))) {
+                end = i + 2;
+                while (end < sql.length() && isNamePart(sql.charAt(end))) {
+                    end++;
+                }
+
+                List<Integer> indexes = names.computeIfAbsent(sql.substring(i + 1, end), name -> new ArrayList<>());
+                if (indexes.isEmpty() || bindMarkers == BindMarkers.QUESTION_MARK) {
+                    indexes.add(markers++);
+                }
+
+                rewritten.append(bindMarkers.getPlaceholder(indexes.get(indexes.size() - 1)));
+                i = end;
+                continue;
+            }
+
+            rewritten.append(sql, i, end);
+            i = end;
+        }
+
+        if (names.isEmpty()) {
+            return new NamedParameters(sql, Collections.emptyMap());
+        }
+
+        Map<String, int[]> indexes = new LinkedHashMap<>();
+        names.forEach((name, positions) -> indexes.put(name, positions.stream().mapToInt(Integer::intValue).toArray()));
+
+        return new NamedParameters(rewritten.toString(), indexes);
+    }
+
+    /**
+     * Returns the indexes a named parameter is bound at.
+     *
+     * @param name the name of the parameter, with or without its leading {@code :}
+     * @return the indexes of the parameter, or {@code null} if the statement has no parameter with that name
+     */
+    @Nullable
+    int[] getIndexes(String name) {
+        return this.indexes.get(name.startsWith(":") ? name.substring(1) : name);
+    }
+
+    /**
+     * Returns the SQL of the statement with its named parameters replaced by positional bind markers.
+     *
+     * @return the SQL of the rewritten statement
+     */
+    String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * Returns whether the statement has any named parameters.
+     *
+     * @return whether the statement has any named parameters
+     */
+    boolean hasParameters() {
+        return !this.indexes.isEmpty();
+    }
+
+    private static boolean isNamePart(char c) {
+        return isNameStart(c) || Character.isDigit(c);
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.Statement;
+
+/**
+ * A placeholder for a {@code null} value whose binding is deferred until the {@link Statement} it is bound to is known.
+ */
+final class NullValue {
+
+    private final Class<?> type;
+
+    NullValue(Class<?> type) {
+        this.type = type;
+    }
+
+    @Override
+    public String toString() {
+        return "NullValue{" +
+            "type=" + this.type +
+            '}';
+    }
+
+    /**
+     * Bind a value, or a {@code null} value if the value is a {@link NullValue}, to a {@link Statement}.
+     *
+     * @param statement the {@link Statement} to bind to
+     * @param index     the index to bind to
+     * @param value     the value to bind
+     */
+    static void bind(Statement statement, int index, Object value) {
+        if (value instanceof NullValue) {
+            statement.bindNull(index, ((NullValue) value).type);
+        } else {
+            statement.bind(index, value);
+        }
+    }
+
+}
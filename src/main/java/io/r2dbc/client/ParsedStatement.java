@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import reactor.util.annotation.Nullable;
+
+import java.util.Set;
+
+/**
+ * Everything a {@link Handle} derives from the SQL of a statement before creating it: the native SQL after named parameters have been rewritten, and the rewrites and table names used when
+ * binding and executing it.
+ */
+final class ParsedStatement {
+
+    @Nullable
+    private final InListRewrite inListRewrite;
+
+    @Nullable
+    private final InsertRewrite insertRewrite;
+
+    @Nullable
+    private final NamedParameters namedParameters;
+
+    private final String sql;
+
+    private final Set<String> writtenTables;
+
+    ParsedStatement(String sql, @Nullable NamedParameters namedParameters, @Nullable InListRewrite inListRewrite, @Nullable InsertRewrite insertRewrite, Set<String> writtenTables) {
+        this.sql = Assert.requireNonNull(sql, "sql must not be null");
+        this.namedParameters = namedParameters;
+        this.inListRewrite = inListRewrite;
+        this.insertRewrite = insertRewrite;
+        this.writtenTables = Assert.requireNonNull(writtenTables, "writtenTables must not be null");
+    }
+
+    @Override
+    public String toString() {
+        return "ParsedStatement{" +
+            "sql='" + this.sql + '\'' +
+            '}';
+    }
+
+    @Nullable
+    InListRewrite getInListRewrite() {
+        return this.inListRewrite;
+    }
+
+    @Nullable
+    InsertRewrite getInsertRewrite() {
+        return this.insertRewrite;
+    }
+
+    @Nullable
+    NamedParameters getNamedParameters() {
+        return this.namedParameters;
+    }
+
+    String getSql() {
+        return this.sql;
+    }
+
+    Set<String> getWrittenTables() {
+        return this.writtenTables;
+    }
+
+}
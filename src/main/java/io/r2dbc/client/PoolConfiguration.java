@@ -0,0 +1,259 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * The configuration of the connection pool used by a pooled {@link R2dbc}.
+ */
+public final class PoolConfiguration {
+
+    private final Duration acquireTimeout;
+
+    private final Duration maxIdleTime;
+
+    private final Duration maxLifeTime;
+
+    private final int maxSize;
+
+    private final int minSize;
+
+    private final Duration priorityAgingInterval;
+
+    private final int statementCacheSize;
+
+    private PoolConfiguration(Duration acquireTimeout, Duration maxIdleTime, Duration maxLifeTime, int maxSize, int minSize, Duration priorityAgingInterval, int statementCacheSize) {
+        this.acquireTimeout = Assert.requireNonNull(acquireTimeout, "acquireTimeout must not be null");
+        this.maxIdleTime = Assert.requireNonNull(maxIdleTime, "maxIdleTime must not be null");
+        this.maxLifeTime = Assert.requireNonNull(maxLifeTime, "maxLifeTime must not be null");
+        this.maxSize = maxSize;
+        this.minSize = minSize;
+        this.priorityAgingInterval = Assert.requireNonNull(priorityAgingInterval, "priorityAgingInterval must not be null");
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfiguration{" +
+            "acquireTimeout=" + this.acquireTimeout +
+            ", maxIdleTime=" + this.maxIdleTime +
+            ", maxLifeTime=" + this.maxLifeTime +
+            ", maxSize=" + this.maxSize +
+            ", minSize=" + this.minSize +
+            ", priorityAgingInterval=" + this.priorityAgingInterval +
+            ", statementCacheSize=" + this.statementCacheSize +
+            '}';
+    }
+
+    Duration getAcquireTimeout() {
+        return this.acquireTimeout;
+    }
+
+    Duration getMaxIdleTime() {
+        return this.maxIdleTime;
+    }
+
+    Duration getMaxLifeTime() {
+        return this.maxLifeTime;
+    }
+
+    int getMaxSize() {
+        return this.maxSize;
+    }
+
+    int getMinSize() {
+        return this.minSize;
+    }
+
+    Duration getPriorityAgingInterval() {
+        return this.priorityAgingInterval;
+    }
+
+    int getStatementCacheSize() {
+        return this.statementCacheSize;
+    }
+
+    /**
+     * A builder for {@link PoolConfiguration} instances.
+     * <p>
+     * <i>This class is not threadsafe</i>
+     */
+    public static final class Builder {
+
+        private Duration acquireTimeout = Duration.ofSeconds(30);
+
+        private Duration maxIdleTime = Duration.ofMinutes(10);
+
+        private Duration maxLifeTime = Duration.ofMinutes(30);
+
+        private int maxSize = 10;
+
+        private int minSize = 0;
+
+        private Duration priorityAgingInterval = Duration.ofSeconds(1);
+
+        private int statementCacheSize = 0;
+
+        private Builder() {
+        }
+
+        /**
+         * Configure the maximum amount of time to wait for a connection to become available.  Defaults to 30 seconds.
+         *
+         * @param acquireTimeout the acquire timeout
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code acquireTimeout} is {@code null} or not positive
+         */
+        public Builder acquireTimeout(Duration acquireTimeout) {
+            Assert.requireNonNull(acquireTimeout, "acquireTimeout must not be null");
+            Assert.isTrue(!acquireTimeout.isNegative() && !acquireTimeout.isZero(), "acquireTimeout must be positive");
+
+            this.acquireTimeout = acquireTimeout;
+            return this;
+        }
+
+        /**
+         * Returns a configured {@link PoolConfiguration}.
+         *
+         * @return a configured {@link PoolConfiguration}
+         * @throws IllegalArgumentException if {@code minSize} is greater than {@code maxSize}
+         */
+        public PoolConfiguration build() {
+            Assert.isTrue(this.minSize <= this.maxSize, "minSize must not be greater than maxSize");
+
+            return new PoolConfiguration(this.acquireTimeout, this.maxIdleTime, this.maxLifeTime, this.maxSize, this.minSize, this.priorityAgingInterval, this.statementCacheSize);
+        }
+
+        /**
+         * Configure the maximum amount of time a connection may sit idle in the pool before it is closed.  Connections are only closed while the pool holds more than {@code minSize}
+         * connections.  Defaults to 10 minutes.
+         *
+         * @param maxIdleTime the maximum idle time
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxIdleTime} is {@code null} or not positive
+         */
+        public Builder maxIdleTime(Duration maxIdleTime) {
+            Assert.requireNonNull(maxIdleTime, "maxIdleTime must not be null");
+            Assert.isTrue(!maxIdleTime.isNegative() && !maxIdleTime.isZero(), "maxIdleTime must be positive");
+
+            this.maxIdleTime = maxIdleTime;
+            return this;
+        }
+
+        /**
+         * Configure the maximum amount of time a connection may live before it is closed, regardless of use.  Defaults to 30 minutes.
+         *
+         * @param maxLifeTime the maximum life time
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxLifeTime} is {@code null} or not positive
+         */
+        public Builder maxLifeTime(Duration maxLifeTime) {
+            Assert.requireNonNull(maxLifeTime, "maxLifeTime must not be null");
+            Assert.isTrue(!maxLifeTime.isNegative() && !maxLifeTime.isZero(), "maxLifeTime must be positive");
+
+            this.maxLifeTime = maxLifeTime;
+            return this;
+        }
+
+        /**
+         * Configure the maximum number of connections held by the pool, both idle and in use.  Defaults to 10.
+         *
+         * @param maxSize the maximum size
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxSize} is not positive
+         */
+        public Builder maxSize(int maxSize) {
+            Assert.isTrue(maxSize > 0, "maxSize must be positive");
+
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Configure the minimum number of connections the pool keeps open.  Defaults to 0.
+         *
+         * @param minSize the minimum size
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code minSize} is negative
+         */
+        public Builder minSize(int minSize) {
+            Assert.isTrue(minSize >= 0, "minSize must not be negative");
+
+            this.minSize = minSize;
+            return this;
+        }
+
+        /**
+         * Configure how quickly callers waiting for a connection gain priority.  Waiting callers are served in order of {@link R2dbc#open(int) priority}, and a caller that has waited for this
+         * long is served ahead of callers with a priority one higher that have only just started waiting, so that low priority callers are not starved.  Defaults to 1 second.
+         *
+         * @param priorityAgingInterval the amount of waiting that is worth one priority
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code priorityAgingInterval} is {@code null} or not positive
+         */
+        public Builder priorityAgingInterval(Duration priorityAgingInterval) {
+            Assert.requireNonNull(priorityAgingInterval, "priorityAgingInterval must not be null");
+            Assert.isTrue(!priorityAgingInterval.isNegative() && !priorityAgingInterval.isZero(), "priorityAgingInterval must be positive");
+
+            this.priorityAgingInterval = priorityAgingInterval;
+            return this;
+        }
+
+        /**
+         * Configure the number of parsed SQL statements cached on each pooled connection and reused by {@link Handle#createQuery(String)} and {@link Handle#createUpdate(String)}.
+         * The cache holds the result of parsing named parameters and rewriting {@code IN} lists and batched inserts, and a new {@link io.r2dbc.spi.Statement} is created from the
+         * cached SQL for every execution, so bound and unbound statements alike hit the cache and the driver can reuse its own prepared statement.  Defaults to 0, which disables caching.
+         *
+         * @param statementCacheSize the number of parsed statements cached per connection
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code statementCacheSize} is negative
+         */
+        public Builder statementCacheSize(int statementCacheSize) {
+            Assert.isTrue(statementCacheSize >= 0, "statementCacheSize must not be negative");
+
+            this.statementCacheSize = statementCacheSize;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Builder{" +
+                "acquireTimeout=" + this.acquireTimeout +
+                ", maxIdleTime=" + this.maxIdleTime +
+                ", maxLifeTime=" + this.maxLifeTime +
+                ", maxSize=" + this.maxSize +
+                ", minSize=" + this.minSize +
+                ", priorityAgingInterval=" + this.priorityAgingInterval +
+                ", statementCacheSize=" + this.statementCacheSize +
+                '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.Connection;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A {@link Connection} held by a {@link ConnectionPool} along with its pooling state.  All mutable state is guarded by the owning {@link ConnectionPool}.
+ */
+final class PooledConnection {
+
+    private final Connection connection;
+
+    private final long createdAt;
+
+    @Nullable
+    private final StatementCache statementCache;
+
+    private boolean inUse;
+
+    private long releasedAt;
+
+    PooledConnection(Connection connection, long createdAt, @Nullable StatementCache statementCache) {
+        this.connection = Assert.requireNonNull(connection, "connection must not be null");
+        this.createdAt = createdAt;
+        this.releasedAt = createdAt;
+        this.statementCache = statementCache;
+    }
+
+    @Override
+    public String toString() {
+        return "PooledConnection{" +
+            "connection=" + this.connection +
+            ", createdAt=" + this.createdAt +
+            ", inUse=" + this.inUse +
+            ", releasedAt=" + this.releasedAt +
+            ", statementCache=" + this.statementCache +
+            '}';
+    }
+
+    Connection getConnection() {
+        return this.connection;
+    }
+
+    @Nullable
+    StatementCache getStatementCache() {
+        return this.statementCache;
+    }
+
+    boolean isIdleExpired(long now, long maxIdleTime) {
+        return now - this.releasedAt >= maxIdleTime;
+    }
+
+    boolean isInUse() {
+        return this.inUse;
+    }
+
+    boolean isLifeExpired(long now, long maxLifeTime) {
+        return now - this.createdAt >= maxLifeTime;
+    }
+
+    void markIdle(long now) {
+        this.inUse = false;
+        this.releasedAt = now;
+    }
+
+    void markInUse() {
+        this.inUse = true;
+    }
+
+}
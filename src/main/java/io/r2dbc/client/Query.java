@@ -21,7 +21,13 @@ import io.r2dbc.spi.Result;
 import io.r2dbc.spi.Statement;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.util.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
@@ -29,10 +35,54 @@ import java.util.function.Function;
  */
 public final class Query implements ResultBearing {
 
+    @Nullable
+    private final ExecutionListener executionListener;
+
+    @Nullable
+    private final NamedParameters namedParameters;
+
+    private final Runnable onExecuted;
+
+    private final String sql;
+
     private final Statement statement;
 
+    private final Function<String, Statement> statementFactory;
+
+    @Nullable
+    private final DeferredTransaction transaction;
+
+    private int bindings;
+
+    @Nullable
+    private Object[] currentRow;
+
+    @Nullable
+    private InListRewrite inListRewrite;
+
+    @Nullable
+    private List<Object[]> rows;
+
     Query(Statement statement) {
+        this(statement, "", () -> {
+        }, sql -> statement, null, null, null, null);
+    }
+
+    Query(Statement statement, String sql, Runnable onExecuted, Function<String, Statement> statementFactory, @Nullable ExecutionListener executionListener,
+          @Nullable DeferredTransaction transaction, @Nullable InListRewrite inListRewrite, @Nullable NamedParameters namedParameters) {
         this.statement = Assert.requireNonNull(statement, "statement must not be null");
+        this.sql = Assert.requireNonNull(sql, "sql must not be null");
+        this.onExecuted = Assert.requireNonNull(onExecuted, "onExecuted must not be null");
+        this.statementFactory = Assert.requireNonNull(statementFactory, "statementFactory must not be null");
+        this.executionListener = executionListener;
+        this.transaction = transaction;
+        this.inListRewrite = inListRewrite;
+        this.namedParameters = namedParameters;
+
+        if (inListRewrite != null) {
+            this.currentRow = new Object[inListRewrite.getParameters()];
+            this.rows = new ArrayList<>();
+        }
     }
 
     /**
@@ -41,23 +91,47 @@ public final class Query implements ResultBearing {
      * @return this {@link Statement}
      */
     public Query add() {
+        this.bindings++;
+
+        if (this.inListRewrite != null && this.rows != null && this.currentRow != null) {
+            this.rows.add(this.currentRow);
+            this.currentRow = new Object[this.inListRewrite.getParameters()];
+            return this;
+        }
+
         this.statement.add();
         return this;
     }
 
     /**
-     * Bind a value.
+     * Bind a value.  If the {@link Query} was created by a {@link Handle} and {@code identifier} refers to a bind marker that is the only content of an {@code IN} list, such as {@code $1} in
+     * {@code WHERE id IN ($1)}, {@code value} may be a {@link Collection} that is expanded into one marker per element.  Collections are padded to the next power of two by repeating their last
+     * element, so that lists of different sizes share a small number of statements.  A marker that is bound to a {@link Collection} must be bound to a {@link Collection} in every binding, as it
+     * is expanded in all of them.  If the {@link Handle} was opened from an {@link R2dbc} configured with
+     * {@link R2dbc.Builder#namedParameters(int) named parameters}, {@code identifier} may be the name of a {@code :name} parameter.
      *
      * @param identifier the identifier to bind to
      * @param value      the value to bind
      * @return this {@link Statement}
-     * @throws IllegalArgumentException if {@code identifier} or {@code value} is {@code null}
+     * @throws IllegalArgumentException if {@code identifier} or {@code value} is {@code null}, or {@code value} is an empty {@link Collection}
      */
     public Query bind(Object identifier, Object value) {
         Assert.requireNonNull(identifier, "identifier must not be null");
         Assert.requireNonNull(value, "value must not be null");
 
-        this.statement.bind(identifier, value);
+        int[] indexes = getIndexes(identifier);
+        if (indexes != null) {
+            for (int index : indexes) {
+                bind(index, value);
+            }
+
+            return this;
+        }
+
+        if (!capture(identifier, value)) {
+            this.statement.bind(identifier, value);
+        }
+
         return this;
     }
 
@@ -73,16 +147,44 @@ public final class Query implements ResultBearing {
         Assert.requireNonNull(identifier, "identifier must not be null");
         Assert.requireNonNull(type, "type must not be null");
 
-        this.statement.bindNull(identifier, type);
+        int[] indexes = getIndexes(identifier);
+        if (indexes != null) {
+            for (int index : indexes) {
+                if (!capture(index, new NullValue(type))) {
+                    this.statement.bindNull(index, type);
+                }
+            }
+
+            return this;
+        }
+
+        if (!capture(identifier, new NullValue(type))) {
+            this.statement.bindNull(identifier, type);
+        }
+
         return this;
     }
 
     public <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f) {
+        return mapResult(f, ResultStrategy.UNORDERED);
+    }
+
+    @Override
+    public <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f, ResultStrategy strategy) {
         Assert.requireNonNull(f, "f must not be null");
+        Assert.requireNonNull(strategy, "strategy must not be null");
+
+        Statement statement = expand();
+        Flux<Result> results = this.transaction == null ? Flux.from(statement.execute()) : this.transaction.execute(statement::execute);
 
-        return Flux
-            .from(this.statement.execute())
-            .flatMap(f::apply);
+        Flux<T> execution = strategy.map(results, f)
+            .doOnComplete(this.onExecuted);
+
+        if (this.executionListener == null) {
+            return execution;
+        }
+
+        return ExecutionInstrumentation.instrument(execution, this.executionListener, this.sql, this.bindings);
     }
 
     @Override
@@ -95,8 +197,147 @@ public final class Query implements ResultBearing {
     Query bind(int identifier, Object value) {
         Assert.requireNonNull(value, "value must not be null");
 
-        this.statement.bind(identifier, value);
+        if (!capture(identifier, value)) {
+            this.statement.bind(identifier, value);
+        }
+
         return this;
     }
 
+    private static void bind(Statement statement, int start, int size, Collection<?> values) {
+        Iterator<?> elements = values.iterator();
+        Object element = elements.next();
+
+        for (int i = 0; i < size; i++) {
+            statement.bind(start + i, element);
+
+            if (elements.hasNext()) {
+                element = elements.next();
+            }
+        }
+    }
+
+    private boolean capture(Object identifier, Object value) {
+        if (this.inListRewrite == null || this.currentRow == null) {
+            return false;
+        }
+
+        int index = this.inListRewrite.getIndex(identifier);
+        if (index < 0) {
+            replay();
+            return false;
+        }
+
+        if (value instanceof Collection && this.inListRewrite.isExpandable(index)) {
+            Assert.isTrue(!((Collection<?>) value).isEmpty(), "value must not be empty");
+            Assert.isTrue(((Collection<?>) value).stream().allMatch(Objects::nonNull), "value must not contain null elements");
+        }
+
+        this.currentRow[index] = value;
+        return true;
+    }
+
+    private Statement expand() {
+        InListRewrite inListRewrite = this.inListRewrite;
+        List<Object[]> rows = this.rows;
+        Object[] currentRow = this.currentRow;
+
+        if (inListRewrite == null || rows == null || currentRow == null) {
+            return this.statement;
+        }
+
+        List<Object[]> all = new ArrayList<>(rows);
+        all.add(currentRow);
+
+        int[] sizes = new int[inListRewrite.getParameters()];
+        boolean expanded = false;
+
+        for (int index = 0; index < sizes.length; index++) {
+            sizes[index] = 1;
+
+            if (!inListRewrite.isExpandable(index)) {
+                continue;
+            }
+
+            boolean collection = false;
+            boolean single = false;
+
+            for (Object[] row : all) {
+                if (row[index] instanceof Collection) {
+                    sizes[index] = Math.max(sizes[index], InListRewrite.getBucket(((Collection<?>) row[index]).size()));
+                    collection = true;
+                } else if (row[index] != null) {
+                    single = true;
+                }
+            }
+
+            if (collection && single) {
+                throw new IllegalArgumentException(String.format("Parameter %d must be bound to a collection in every binding, or in none", index));
+            }
+
+            expanded |= collection;
+        }
+
+        if (!expanded) {
+            replay();
+            return this.statement;
+        }
+
+        Statement statement = this.statementFactory.apply(inListRewrite.getSql(sizes));
+
+        for (int row = 0; row < all.size(); row++) {
+            Object[] values = all.get(row);
+            int start = 0;
+
+            for (int index = 0; index < values.length; index++) {
+                if (values[index] instanceof Collection && inListRewrite.isExpandable(index)) {
+                    bind(statement, start, sizes[index], (Collection<?>) values[index]);
+                } else if (values[index] != null) {
+                    NullValue.bind(statement, start, values[index]);
+                }
+
+                start += sizes[index];
+            }
+
+            if (row < rows.size()) {
+                statement.add();
+            }
+        }
+
+        return statement;
+    }
+
+    @Nullable
+    private int[] getIndexes(Object identifier) {
+        return this.namedParameters == null || !(identifier instanceof String) ? null : this.namedParameters.getIndexes((String) identifier);
+    }
+
+    private void replay() {
+        List<Object[]> rows = this.rows;
+        Object[] currentRow = this.currentRow;
+
+        this.inListRewrite = null;
+        this.rows = null;
+        this.currentRow = null;
+
+        if (rows == null || currentRow == null) {
+            return;
+        }
+
+        for (Object[] row : rows) {
+            replay(row);
+            this.statement.add();
+        }
+
+        replay(currentRow);
+    }
+
+    private void replay(Object[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] != null) {
+                NullValue.bind(this.statement, i, row[i]);
+            }
+        }
+    }
+
 }
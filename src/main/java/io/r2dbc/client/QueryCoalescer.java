@@ -0,0 +1,103 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces concurrent executions of the same query, keyed by SQL and bound parameters, into a single execution whose results are replayed to every caller.  An execution is only shared while
+ * it is in flight, so a query issued after it has completed executes again.  Results that are not {@link CachedResult#isReplayable() replayable} are only returned to the caller that started
+ * the execution, and every other caller executes the query itself.
+ */
+final class QueryCoalescer {
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final Map<ResultCache.Key, Mono<List<CachedResult>>> executions = new ConcurrentHashMap<>();
+
+    /**
+     * Execute a query, joining the execution of an identical query if one is in flight.  A shared execution runs to completion even if all callers cancel, so that its results can still be
+     * cached.
+     *
+     * @param key       the key of the query
+     * @param execution the execution of the query
+     * @return a {@link Mono} of the results of the shared execution
+     */
+    Mono<List<CachedResult>> execute(ResultCache.Key key, Mono<List<CachedResult>> execution) {
+        Assert.requireNonNull(key, "key must not be null");
+        Assert.requireNonNull(execution, "execution must not be null");
+
+        return Mono.defer(() -> {
+            AtomicReference<Mono<List<CachedResult>>> created = new AtomicReference<>();
+
+            Mono<List<CachedResult>> shared = this.executions.computeIfAbsent(key, k -> {
+                AtomicReference<Mono<List<CachedResult>>> self = new AtomicReference<>();
+
+                Mono<List<CachedResult>> mono = execution
+                    .doFinally(signal -> this.executions.remove(k, self.get()))
+                    .cache();
+
+                self.set(mono);
+                created.set(mono);
+                return mono;
+            });
+
+            if (created.get() != null) {
+                return shared;
+            }
+
+            this.coalesced.increment();
+
+            return shared
+                .flatMap(results -> isReplayable(results) ? Mono.just(results) : execution);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return "QueryCoalescer{" +
+            "coalesced=" + this.coalesced +
+            ", executions=" + this.executions.size() +
+            '}';
+    }
+
+    long getCoalesced() {
+        return this.coalesced.sum();
+    }
+
+    private static boolean isReplayable(List<CachedResult> results) {
+        for (CachedResult result : results) {
+            if (!result.isReplayable()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    int size() {
+        return this.executions.size();
+    }
+
+}
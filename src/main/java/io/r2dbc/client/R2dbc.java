@@ -23,16 +23,64 @@ import io.r2dbc.spi.ConnectionFactory;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.Logger;
+import reactor.util.Loggers;
+import reactor.util.annotation.Nullable;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * An implementation of the Reactive Relational Database Connection API for PostgreSQL servers.
  */
 public final class R2dbc {
 
+    private static final int IN_LIST_REWRITE_CACHE_SIZE = 256;
+
+    private static final ResultCacheMetrics NO_RESULT_CACHE = new ResultCacheMetrics();
+
+    private static final StatementCacheMetrics NO_STATEMENT_CACHE = new StatementCacheMetrics();
+
+    private final BindMarkers bindMarkers;
+
+    @Nullable
+    private final ConcurrencyLimiter concurrencyLimiter;
+
     private final ConnectionFactory connectionFactory;
 
+    @Nullable
+    private final ConnectionPool connectionPool;
+
+    private final boolean deferBeginTransaction;
+
+    @Nullable
+    private final ExecutionListener executionListener;
+
+    private final Object handleKey = new Object();
+
+    private final Logger logger = Loggers.getLogger(this.getClass());
+
+    private final InListRewriteCache inListRewriteCache;
+
+    @Nullable
+    private final LeakDetector leakDetector;
+
+    @Nullable
+    private final NamedParameterCache namedParameterCache;
+
+    @Nullable
+    private final QueryCoalescer queryCoalescer;
+
+    @Nullable
+    private final ResultCache resultCache;
+
+    private final int rewriteBatchedInserts;
+
     /**
      * Create a new instance of {@link R2dbc}.
      *
@@ -40,7 +88,70 @@ public final class R2dbc {
      * @throws IllegalArgumentException if {@code connectionFactory} is {@code null}
      */
     public R2dbc(ConnectionFactory connectionFactory) {
+        this(connectionFactory, null, null, false, 0, null, false, BindMarkers.DOLLAR, 0, null, null);
+    }
+
+    private R2dbc(ConnectionFactory connectionFactory, @Nullable PoolConfiguration poolConfiguration, @Nullable ExecutionListener executionListener, boolean deferBeginTransaction,
+                  int rewriteBatchedInserts, @Nullable ResultCacheConfiguration resultCacheConfiguration, boolean coalesceQueries,
+                  BindMarkers bindMarkers, int namedParameters, @Nullable LeakDetectionConfiguration leakDetectionConfiguration,
+                  @Nullable ConcurrencyLimitConfiguration concurrencyLimitConfiguration) {
         this.connectionFactory = Assert.requireNonNull(connectionFactory, "connectionFactory must not be null");
+        this.connectionPool = poolConfiguration == null ? null : new ConnectionPool(connectionFactory, poolConfiguration);
+        this.executionListener = executionListener;
+        this.deferBeginTransaction = deferBeginTransaction;
+        this.rewriteBatchedInserts = rewriteBatchedInserts;
+        this.resultCache = resultCacheConfiguration == null ? null : new ResultCache(resultCacheConfiguration);
+        this.queryCoalescer = coalesceQueries ? new QueryCoalescer() : null;
+        this.bindMarkers = Assert.requireNonNull(bindMarkers, "bindMarkers must not be null");
+        this.inListRewriteCache = new InListRewriteCache(IN_LIST_REWRITE_CACHE_SIZE, bindMarkers);
+        this.namedParameterCache = namedParameters == 0 ? null : new NamedParameterCache(namedParameters, bindMarkers);
+        this.leakDetector = leakDetectionConfiguration == null ? null : new LeakDetector(leakDetectionConfiguration);
+        this.concurrencyLimiter = concurrencyLimitConfiguration == null ? null : new ConcurrencyLimiter(concurrencyLimitConfiguration);
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Release any resources held by the {@link R2dbc}.  If the {@link R2dbc} is pooled, idle connections are closed and connections in use are closed as they are released.
+     *
+     * @return a {@link Mono} that termination is complete
+     */
+    public Mono<Void> close() {
+        if (this.leakDetector != null) {
+            this.leakDetector.close();
+        }
+
+        if (this.connectionPool == null) {
+            return Mono.empty();
+        }
+
+        return this.connectionPool.close();
+    }
+
+    /**
+     * Returns the counters of the result cache.  All counters remain zero unless the {@link R2dbc} is configured with a {@link Builder#resultCache(ResultCacheConfiguration) result cache}.
+     *
+     * @return the result cache counters
+     */
+    public ResultCacheMetrics getResultCacheMetrics() {
+        return this.resultCache == null ? NO_RESULT_CACHE : this.resultCache.getMetrics();
+    }
+
+    /**
+     * Returns the counters of the per-connection statement caches.  All counters remain zero unless the {@link R2dbc} is pooled with a {@link PoolConfiguration.Builder#statementCacheSize(int)
+     * statement cache}.
+     *
+     * @return the statement cache counters
+     */
+    public StatementCacheMetrics getStatementCacheMetrics() {
+        return this.connectionPool == null ? NO_STATEMENT_CACHE : this.connectionPool.getStatementCacheMetrics();
     }
 
     /**
@@ -60,21 +171,150 @@ public final class R2dbc {
     }
 
     /**
-     * Open a {@link Handle} and return it for use.  Note that you the caller is responsible for closing the handle otherwise connections will be leaked.
+     * Execute behavior within a transaction returning results, retrying the transaction when it fails with a retryable error.  All attempts use the same {@link Handle}.
+     *
+     * @param retryPolicy the policy deciding which errors are retried, how often, and after what backoff
+     * @param f           a {@link Function} that takes a {@link Handle} and returns a {@link Publisher} of results
+     * @param <T>         the type of results
+     * @return a {@link Flux} of results
+     * @throws IllegalArgumentException if {@code retryPolicy} or {@code f} is {@code null}
+     * @see Handle#inTransactionWithRetry(RetryPolicy, Function)
+     */
+    public <T> Flux<T> inTransactionWithRetry(RetryPolicy retryPolicy, Function<Handle, ? extends Publisher<? extends T>> f) {
+        Assert.requireNonNull(retryPolicy, "retryPolicy must not be null");
+        Assert.requireNonNull(f, "f must not be null");
+
+        return withHandle(handle -> handle.inTransactionWithRetry(retryPolicy, f));
+    }
+
+    /**
+     * Open a {@link Handle} and return it for use.  Note that you the caller is responsible for closing the handle otherwise connections will be leaked.  If the {@link R2dbc} is pooled, the
+     * {@link Handle} wraps a pooled connection that is returned to the pool when the handle is first closed.  If the {@link R2dbc} is configured with
+     * {@link Builder#leakDetection(LeakDetectionConfiguration) leak detection}, a sample of handles that are held open for too long, or never closed, is reported.
      *
      * @return a new {@link Handle}, ready to use
      * @see Handle#close()
      */
     public Mono<Handle> open() {
-        return Mono.from(
-            this.connectionFactory.create())
-            .map(Handle::new);
+        return open(0);
+    }
+
+    /**
+     * Open a {@link Handle} with a priority and return it for use.  If the {@link R2dbc} is pooled and the pool is exhausted, callers with a higher priority are served first.  A waiting
+     * caller gains one priority for every {@link PoolConfiguration.Builder#priorityAgingInterval(java.time.Duration) aging interval} it waits, so callers with a lower priority are delayed but
+     * not starved.  Callers of {@link #open()} have priority {@code 0}.  If the {@link R2dbc} is not pooled, the priority is ignored.
+     *
+     * @param priority the priority of the caller, higher values being served first
+     * @return a new {@link Handle}, ready to use
+     * @see #open()
+     */
+    public Mono<Handle> open(int priority) {
+        ConnectionPool connectionPool = this.connectionPool;
+
+        if (connectionPool == null) {
+            return Mono.from(
+                this.connectionFactory.create())
+                .map(connection -> newHandle(connection, connection::close, null));
+        }
+
+        return connectionPool.acquire(priority)
+            .map(pooledConnection -> {
+                AtomicBoolean released = new AtomicBoolean();
+
+                return newHandle(pooledConnection.getConnection(), () -> Mono.fromRunnable(() -> {
+                    if (released.compareAndSet(false, true)) {
+                        connectionPool.release(pooledConnection);
+                    }
+                }), pooledConnection.getStatementCache());
+            });
+    }
+
+    /**
+     * Execute a query over a range of keys as a number of partitions running concurrently, each on its own {@link Handle}.  The SQL must contain two bind markers, the inclusive lower bound
+     * of a partition being bound at index {@code 0} and its exclusive upper bound at index {@code 1}, such as {@code SELECT * FROM test WHERE id >= $1 AND id < $2}.  The range
+     * {@code [lowerBound, upperBound)} is split into {@code partitions} contiguous ranges of near-equal size, or fewer if the range holds fewer keys.
+     * <p>
+     * Partitions never reuse a {@link Handle} bound to the current context so that they run on separate connections, and a pooled {@link R2dbc} should allow at least {@code partitions}
+     * connections.  Partitions do not share a transaction, so the scan is not a consistent snapshot of the range.
+     *
+     * @param sql        the SQL of the query
+     * @param lowerBound the inclusive lower bound of the range
+     * @param upperBound the exclusive upper bound of the range
+     * @param partitions the maximum number of partitions to split the range into
+     * @param ordered    whether results are emitted in partition order.  Results of a partition are buffered until all earlier partitions complete when ordered, and emitted as they arrive
+     *                   otherwise.
+     * @param f          a {@link Function} that takes the {@link Query} of a partition and returns a {@link Publisher} of results
+     * @param <T>        the type of results
+     * @return a {@link Flux} of the results of all partitions
+     * @throws IllegalArgumentException if {@code sql} or {@code f} is {@code null}, {@code lowerBound} is not less than {@code upperBound}, the range holds more than {@link Long#MAX_VALUE}
+     *                                  keys, or {@code partitions} is not positive
+     */
+    public <T> Flux<T> partitionedSelect(String sql, long lowerBound, long upperBound, int partitions, boolean ordered, Function<Query, ? extends Publisher<? extends T>> f) {
+        Assert.requireNonNull(sql, "sql must not be null");
+        Assert.isTrue(lowerBound < upperBound, "lowerBound must be less than upperBound");
+        Assert.isTrue(upperBound - lowerBound > 0, "range must not hold more than Long.MAX_VALUE keys");
+        Assert.isTrue(partitions > 0, "partitions must be positive");
+        Assert.requireNonNull(f, "f must not be null");
+
+        List<long[]> ranges = getPartitions(lowerBound, upperBound, partitions);
+        Function<long[], Flux<T>> partition = range -> withNewHandle(0, handle -> f.apply(handle.select(sql, range[0], range[1])));
+
+        if (ordered) {
+            return Flux.fromIterable(ranges)
+                .flatMapSequential(partition, ranges.size());
+        }
+
+        return Flux.fromIterable(ranges)
+            .flatMap(partition, ranges.size());
+    }
+
+    /**
+     * Create a {@link CachedQuery} for a statement, binding parameters positionally, whose results are served from the result cache of this {@link R2dbc} while they are fresh.  Results are
+     * cached by SQL and parameter values, so a query answered from the cache does not acquire a connection, and its rows are replayed to every mapping from an in-memory copy.
+     * <p>
+     * Results are only cached if the {@link R2dbc} is configured with a {@link Builder#resultCache(ResultCacheConfiguration) result cache}.  Queries executed within a transaction of a
+     * {@link Handle} bound to the current context bypass the cache, so that they read the writes of the transaction.  Results are invalidated when an {@link Update} or {@link Batch} of a
+     * {@link Handle} opened from this {@link R2dbc} writes a table they were read from, once the transaction of the write has committed.  Writes made through other clients are not seen, so
+     * results may be stale for up to the configured time to live.
+     * <p>
+     * If the {@link R2dbc} is configured to {@link Builder#coalesceQueries(boolean) coalesce queries}, a query issued while an identical query is executing joins that execution rather than
+     * acquiring a connection of its own.  A shared execution always runs on a new {@link Handle}, and queries issued with a {@link Handle} bound to the current context execute on that
+     * {@link Handle} without being coalesced, so that they neither share its connection nor wait for a second one.
+     *
+     * @param sql        the SQL of the query
+     * @param parameters the parameters to bind
+     * @return a new {@link CachedQuery} instance
+     * @throws IllegalArgumentException if {@code sql} or {@code parameters} is {@code null}
+     */
+    public CachedQuery select(String sql, Object... parameters) {
+        Assert.requireNonNull(sql, "sql must not be null");
+        Assert.requireNonNull(parameters, "parameters must not be null");
+
+        ResultCache.Key key = new ResultCache.Key(sql, parameters);
+
+        Mono<Optional<Handle>> ambient = Mono.subscriberContext()
+            .map(context -> context.getOrEmpty(this.handleKey));
+
+        Function<Handle, Flux<CachedResult>> query = handle -> handle
+            .select(sql, key.getParameters())
+            .mapResult(CachedResult::materialize);
+
+        return new CachedQuery(key, this.resultCache, this.queryCoalescer, ambient, query, withNewHandle(0, query));
     }
 
     @Override
     public String toString() {
         return "R2dbc{" +
-            "connectionFactory=" + this.connectionFactory +
+            "bindMarkers=" + this.bindMarkers +
+            ", coalesceQueries=" + (this.queryCoalescer != null) +
+            ", concurrencyLimiter=" + this.concurrencyLimiter +
+            ", connectionFactory=" + this.connectionFactory +
+            ", connectionPool=" + this.connectionPool +
+            ", deferBeginTransaction=" + this.deferBeginTransaction +
+            ", executionListener=" + this.executionListener +
+            ", leakDetector=" + this.leakDetector +
+            ", resultCache=" + this.resultCache +
+            ", rewriteBatchedInserts=" + this.rewriteBatchedInserts +
             '}';
     }
 
@@ -108,7 +348,14 @@ public final class R2dbc {
     }
 
     /**
-     * Execute behavior with a {@link Handle} returning results.
+     * Execute behavior with a {@link Handle} returning results.  Statements executed by the behavior are not wrapped in a transaction, so each runs in auto-commit mode in a single round trip,
+     * which is the cheapest way to run read-only work.
+     * <p>
+     * The {@link Handle} is bound to the Reactor {@link reactor.util.context.Context} of the behavior.  Calls to this method, or to the transactional methods of this {@link R2dbc}, made from
+     * within the behavior reuse that {@link Handle} rather than opening another, and join its transaction if one is active.
+     * <p>
+     * If the {@link R2dbc} is configured with a {@link Builder#concurrencyLimit(ConcurrencyLimitConfiguration) concurrency limit}, behavior that opens a new {@link Handle} waits for the limit
+     * to admit it, and fails with a {@link java.util.concurrent.RejectedExecutionException} if too many executions are already waiting.
      *
      * @param f   a {@link Function} that takes a {@link Handle} and returns a {@link Publisher} of results
      * @param <T> the type of results
@@ -118,11 +365,313 @@ public final class R2dbc {
     public <T> Flux<T> withHandle(Function<Handle, ? extends Publisher<? extends T>> f) {
         Assert.requireNonNull(f, "f must not be null");
 
-        return open()
-            .flatMapMany(handle -> Flux.from(
+        return withHandle(0, f);
+    }
+
+    /**
+     * Execute behavior with a {@link Handle} opened with a priority returning results.  Latency sensitive behavior can be given a higher priority than background work sharing the same pool,
+     * so that it is served first when the pool is exhausted.  A {@link Handle} bound to the current context is reused regardless of its priority.
+     *
+     * @param priority the priority of the behavior, higher values being served first
+     * @param f        a {@link Function} that takes a {@link Handle} and returns a {@link Publisher} of results
+     * @param <T>      the type of results
+     * @return a {@link Flux} of results
+     * @throws IllegalArgumentException if {@code f} is {@code null}
+     * @see #open(int)
+     * @see #withHandle(Function)
+     */
+    public <T> Flux<T> withHandle(int priority, Function<Handle, ? extends Publisher<? extends T>> f) {
+        Assert.requireNonNull(f, "f must not be null");
+
+        return Mono.subscriberContext()
+            .flatMapMany(context -> {
+                Optional<Handle> ambient = context.getOrEmpty(this.handleKey);
+
+                if (ambient.isPresent()) {
+                    return Flux.<T>from(f.apply(ambient.get()));
+                }
+
+                return withNewHandle(priority, f);
+            });
+    }
+
+    /**
+     * Execute read-only behavior with a {@link Handle} returning results, without a transaction.  Each statement runs in auto-commit mode in a single round trip, so a point lookup costs one
+     * round trip rather than the three of {@link #inTransaction(Function)}, which sends {@code BEGIN} and {@code COMMIT} around it.  Statements of the behavior do not see a consistent
+     * snapshot of the database, so behavior that issues more than one statement and needs their results to agree should use {@link #inTransaction(Function)} instead.
+     * <p>
+     * As with {@link #withHandle(Function)}, a {@link Handle} bound to the current context is reused, and its transaction is joined if one is active.  Writes are not prevented, since the SPI
+     * cannot mark a connection read-only.
+     *
+     * @param f   a {@link Function} that takes a {@link Handle} and returns a {@link Publisher} of results
+     * @param <T> the type of results
+     * @return a {@link Flux} of results
+     * @throws IllegalArgumentException if {@code f} is {@code null}
+     * @see #withHandle(Function)
+     */
+    public <T> Flux<T> withReadOnly(Function<Handle, ? extends Publisher<? extends T>> f) {
+        Assert.requireNonNull(f, "f must not be null");
+
+        return withHandle(0, f);
+    }
+
+    static List<long[]> getPartitions(long lowerBound, long upperBound, int partitions) {
+        long span = upperBound - lowerBound;
+        int count = (int) Math.min(partitions, span);
+
+        long size = span / count;
+        long remainder = span % count;
+
+        List<long[]> ranges = new ArrayList<>(count);
+        long start = lowerBound;
+
+        for (int i = 0; i < count; i++) {
+            long end = start + size + (i < remainder ? 1 : 0);
+            ranges.add(new long[]{start, end});
+            start = end;
+        }
+
+        return ranges;
+    }
+
+    private Handle newHandle(Connection connection, Supplier<? extends Publisher<Void>> closer, @Nullable StatementCache statementCache) {
+        BiFunction<Supplier<? extends Publisher<Void>>, ExecutionListener, Handle> handleFactory = (c, executionListener) -> new Handle(connection, c, statementCache, executionListener,
+            this.deferBeginTransaction, this.rewriteBatchedInserts, this.resultCache, this.bindMarkers, this.namedParameterCache, this.inListRewriteCache);
+
+        return this.leakDetector == null ? handleFactory.apply(closer, this.executionListener) : this.leakDetector.track(closer, this.executionListener, handleFactory);
+    }
+
+    private <T> Flux<T> withNewHandle(int priority, Function<Handle, ? extends Publisher<? extends T>> f) {
+        Flux<T> execution = open(priority)
+            .flatMapMany(handle -> Flux.<T>from(
                 f.apply(handle))
-                .concatWith(ReactiveUtils.typeSafe(handle::close))
-                .onErrorResume(ReactiveUtils.appendError(handle::close)));
+                .concatWith(ReactiveUtils.typeSafe(() -> Flux.defer(handle::close)))
+                .onErrorResume(ReactiveUtils.appendError(handle::close))
+                .doOnCancel(() -> Flux.from(handle.close())
+                    .subscribe(null, t -> this.logger.warn("Error closing cancelled handle", t)))
+                .subscriberContext(context -> context.put(this.handleKey, handle)));
+
+        return this.concurrencyLimiter == null ? execution : this.concurrencyLimiter.limit(execution);
+    }
+
+    /**
+     * A builder for {@link R2dbc} instances.
+     * <p>
+     * <i>This class is not threadsafe</i>
+     */
+    public static final class Builder {
+
+        private BindMarkers bindMarkers = BindMarkers.DOLLAR;
+
+        private boolean coalesceQueries;
+
+        private ConcurrencyLimitConfiguration concurrencyLimitConfiguration;
+
+        private ConnectionFactory connectionFactory;
+
+        private boolean deferBeginTransaction;
+
+        private final List<ExecutionListener> executionListeners = new ArrayList<>();
+
+        private LeakDetectionConfiguration leakDetectionConfiguration;
+
+        private int namedParameters;
+
+        private PoolConfiguration poolConfiguration;
+
+        private ResultCacheConfiguration resultCacheConfiguration;
+
+        private int rewriteBatchedInserts;
+
+        private Builder() {
+        }
+
+        /**
+         * Configure the style of the bind markers the client generates when it rewrites SQL, such as in {@link Handle#createBatchLoader}.  Defaults to {@link BindMarkers#DOLLAR}.
+         *
+         * @param bindMarkers the bind marker style of the driver
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code bindMarkers} is {@code null}
+         */
+        public Builder bindMarkers(BindMarkers bindMarkers) {
+            this.bindMarkers = Assert.requireNonNull(bindMarkers, "bindMarkers must not be null");
+            return this;
+        }
+
+        /**
+         * Returns a configured {@link R2dbc}.
+         *
+         * @return a configured {@link R2dbc}
+         * @throws IllegalArgumentException if {@code connectionFactory} has not been configured
+         */
+        public R2dbc build() {
+            return new R2dbc(this.connectionFactory, this.poolConfiguration, getExecutionListener(), this.deferBeginTransaction, this.rewriteBatchedInserts,
+                this.resultCacheConfiguration, this.coalesceQueries, this.bindMarkers, this.namedParameters,
+                this.leakDetectionConfiguration, this.concurrencyLimitConfiguration);
+        }
+
+        /**
+         * Configure whether concurrent executions of {@link R2dbc#select(String, Object...)} with the same SQL and parameters share a single execution, whose results are replayed to every
+         * caller.  Queries executed within a transaction of a {@link Handle} bound to the current context are never shared.  Defaults to {@code false}.
+         *
+         * @param coalesceQueries whether to coalesce concurrent identical queries
+         * @return this {@link Builder}
+         */
+        public Builder coalesceQueries(boolean coalesceQueries) {
+            this.coalesceQueries = coalesceQueries;
+            return this;
+        }
+
+        /**
+         * Configure an adaptive limit on the number of concurrent executions of {@link R2dbc#withHandle(Function)}, and the methods built on it, that open a new {@link Handle}.  The limit grows
+         * while the latency of executions stays stable and shrinks when it rises or executions fail, so that a slowing or failing database is not given more concurrent work.  Executions beyond the limit are queued, and
+         * rejected when the queue is full.  Handles opened with {@link R2dbc#open()} are not limited.  When not configured, executions are not limited.
+         *
+         * @param concurrencyLimitConfiguration the concurrency limit configuration
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code concurrencyLimitConfiguration} is {@code null}
+         */
+        public Builder concurrencyLimit(ConcurrencyLimitConfiguration concurrencyLimitConfiguration) {
+            this.concurrencyLimitConfiguration = Assert.requireNonNull(concurrencyLimitConfiguration, "concurrencyLimitConfiguration must not be null");
+            return this;
+        }
+
+        /**
+         * Configure the {@link ConnectionFactory} used to create {@link Connection}s when required.
+         *
+         * @param connectionFactory the connection factory
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code connectionFactory} is {@code null}
+         */
+        public Builder connectionFactory(ConnectionFactory connectionFactory) {
+            this.connectionFactory = Assert.requireNonNull(connectionFactory, "connectionFactory must not be null");
+            return this;
+        }
+
+        /**
+         * Configure whether {@link Handle#inTransaction(Function)} defers beginning a transaction until the behavior first executes a statement.  Behavior that executes no statements, such as
+         * a lookup answered from a cache, then commits nothing and makes no round trips.  Defaults to {@code false}.
+         *
+         * @param deferBeginTransaction whether to defer beginning transactions
+         * @return this {@link Builder}
+         */
+        public Builder deferBeginTransaction(boolean deferBeginTransaction) {
+            this.deferBeginTransaction = deferBeginTransaction;
+            return this;
+        }
+
+        /**
+         * Register an {@link ExecutionListener} notified of every execution of a {@link Query}, {@link Update}, or {@link Batch}.  Listeners are notified in the order they are registered.  When no
+         * listener is registered, executions are not instrumented at all.
+         *
+         * @param executionListener the execution listener
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code executionListener} is {@code null}
+         */
+        public Builder executionListener(ExecutionListener executionListener) {
+            this.executionListeners.add(Assert.requireNonNull(executionListener, "executionListener must not be null"));
+            return this;
+        }
+
+        /**
+         * Configure detection of leaked {@link Handle}s opened by {@link R2dbc#open()}.  A sample of handles records where it was opened, and is reported when it is held open for longer than
+         * the configured threshold, or garbage collected without having been closed.  When not configured, handles are not tracked.
+         *
+         * @param leakDetectionConfiguration the leak detection configuration
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code leakDetectionConfiguration} is {@code null}
+         */
+        public Builder leakDetection(LeakDetectionConfiguration leakDetectionConfiguration) {
+            this.leakDetectionConfiguration = Assert.requireNonNull(leakDetectionConfiguration, "leakDetectionConfiguration must not be null");
+            return this;
+        }
+
+        /**
+         * Configure {@link Handle#createQuery(String)} and {@link Handle#createUpdate(String)} to accept portable {@code :name} named parameters, which are rewritten to positional markers in the
+         * {@link #bindMarkers(BindMarkers) bind marker style} of the driver and bound by name.  Each statement is parsed once, and the parses of at most {@code cacheSize} recently used
+         * statements are kept.  Defaults to {@code 0}, which disables named parameters.
+         *
+         * @param cacheSize the maximum number of statement parses to cache, or {@code 0} to disable named parameters
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code cacheSize} is negative
+         */
+        public Builder namedParameters(int cacheSize) {
+            Assert.isTrue(cacheSize >= 0, "cacheSize must not be negative");
+
+            this.namedParameters = cacheSize;
+            return this;
+        }
+
+        /**
+         * Configure pooling of {@link Connection}s.  When configured, closing a {@link Handle} returns its connection to the pool instead of closing it.
+         *
+         * @param poolConfiguration the pool configuration
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code poolConfiguration} is {@code null}
+         */
+        public Builder pool(PoolConfiguration poolConfiguration) {
+            this.poolConfiguration = Assert.requireNonNull(poolConfiguration, "poolConfiguration must not be null");
+            return this;
+        }
+
+        /**
+         * Configure caching of the results of {@link R2dbc#select(String, Object...)}.  When not configured, results are never cached.
+         *
+         * @param resultCacheConfiguration the result cache configuration
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code resultCacheConfiguration} is {@code null}
+         */
+        public Builder resultCache(ResultCacheConfiguration resultCacheConfiguration) {
+            this.resultCacheConfiguration = Assert.requireNonNull(resultCacheConfiguration, "resultCacheConfiguration must not be null");
+            return this;
+        }
+
+        /**
+         * Configure {@link Update#execute()} to rewrite the bindings of a simple {@code INSERT INTO ... VALUES (...)} statement into multi-row {@code INSERT INTO ... VALUES (...), (...)}
+         * statements with at most {@code maxParameters} parameters each.  Only statements using {@code $n} bind markers, bound by index or by {@code $n} name, that end with their
+         * {@code VALUES} list, and that cannot skip or replace conflicting rows, are rewritten; other statements execute unchanged.  A rewritten statement still returns one update count per
+         * binding.  Defaults to {@code 0}, which disables rewriting.
+         *
+         * @param maxParameters the maximum number of parameters in a rewritten statement, or {@code 0} to disable rewriting
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxParameters} is negative
+         */
+        public Builder rewriteBatchedInserts(int maxParameters) {
+            Assert.isTrue(maxParameters >= 0, "maxParameters must not be negative");
+
+            this.rewriteBatchedInserts = maxParameters;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Builder{" +
+                "bindMarkers=" + this.bindMarkers +
+                ", coalesceQueries=" + this.coalesceQueries +
+                ", concurrencyLimitConfiguration=" + this.concurrencyLimitConfiguration +
+                ", connectionFactory=" + this.connectionFactory +
+                ", deferBeginTransaction=" + this.deferBeginTransaction +
+                ", executionListeners=" + this.executionListeners +
+                ", leakDetectionConfiguration=" + this.leakDetectionConfiguration +
+                ", namedParameters=" + this.namedParameters +
+                ", poolConfiguration=" + this.poolConfiguration +
+                ", resultCacheConfiguration=" + this.resultCacheConfiguration +
+                ", rewriteBatchedInserts=" + this.rewriteBatchedInserts +
+                '}';
+        }
+
+        @Nullable
+        private ExecutionListener getExecutionListener() {
+            switch (this.executionListeners.size()) {
+                case 0:
+                    return null;
+                case 1:
+                    return this.executionListeners.get(0);
+                default:
+                    return new CompositeExecutionListener(this.executionListeners);
+            }
+        }
+
     }
 
 }
@@ -22,7 +22,11 @@ import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
 
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -31,6 +35,36 @@ import java.util.function.Function;
  */
 public interface ResultBearing {
 
+    /**
+     * Transforms each {@link Row} into an object, accessing columns by their position in {@code columnNames}.  The names are resolved to column indexes once per {@link Result}, using the
+     * {@link RowMetadata} of its first row, rather than searched for by name for every row.
+     *
+     * @param f           a {@link Function} used to transform each {@link IndexedRow} into an object
+     * @param columnNames the names of the columns accessed by {@code f}
+     * @param <T>         the type of results
+     * @return the values resulting from the {@link IndexedRow} transformation
+     * @throws IllegalArgumentException if {@code f} or {@code columnNames} is {@code null}
+     */
+    default <T> Flux<T> mapColumns(Function<IndexedRow, ? extends T> f, String... columnNames) {
+        Assert.requireNonNull(f, "f must not be null");
+        Assert.requireNonNull(columnNames, "columnNames must not be null");
+
+        return mapResult(result -> {
+            AtomicReference<Integer[]> indexes = new AtomicReference<>();
+
+            return result.map((row, rowMetadata) -> {
+                Integer[] resolved = indexes.get();
+
+                if (resolved == null) {
+                    resolved = IndexedRow.resolve(rowMetadata, columnNames);
+                    indexes.set(resolved);
+                }
+
+                return f.apply(new IndexedRow(row, resolved));
+            });
+        });
+    }
+
     /**
      * Transforms the {@link Result}s that are returned from execution.
      *
@@ -43,6 +77,28 @@ public interface ResultBearing {
      */
     <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f);
 
+    /**
+     * Transforms the {@link Result}s that are returned from execution, combining their values with a {@link ResultStrategy}.  Ordered strategies suit multi-statement {@link Batch}es whose
+     * values must not interleave, and the prefetch and concurrency of a strategy bound how far ahead of demand {@link Result}s and values are requested.  By default,
+     * {@link ResultStrategy#UNORDERED} delegates to {@link #mapResult(Function)}, and any other strategy is applied to the {@link Result}s that {@link #mapResult(Function)} emits.
+     *
+     * @param f        a {@link Function} used to transform each {@link Result} into a {@code Publisher} of values
+     * @param strategy the {@link ResultStrategy} used to combine the values of each {@link Result}
+     * @param <T>      the type of results
+     * @return the values resulting from the {@link Result} transformation
+     * @throws IllegalArgumentException if {@code f} or {@code strategy} is {@code null}
+     */
+    default <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f, ResultStrategy strategy) {
+        Assert.requireNonNull(f, "f must not be null");
+        Assert.requireNonNull(strategy, "strategy must not be null");
+
+        if (strategy == ResultStrategy.UNORDERED) {
+            return mapResult(f);
+        }
+
+        return strategy.map(mapResult(Mono::just), f);
+    }
+
     /**
      * Transforms each {@link Row} and {@link RowMetadata} pair into an object.
      *
@@ -57,6 +113,29 @@ public interface ResultBearing {
         return mapResult(result -> result.map(f));
     }
 
+    /**
+     * Transforms each {@link Row} and {@link RowMetadata} pair into an object on a {@link Scheduler}, so that expensive transformations do not stall the thread reading results, which is often
+     * shared with other connections.  The values of each row are read as {@link Object}s on the reading thread, and {@code f} is then applied to a copy of the row on {@code scheduler}, where
+     * a value can only be retrieved as its default Java type or a supertype of it.  Up to {@link Queues#SMALL_BUFFER_SIZE} rows are transformed at a time.
+     *
+     * @param f         a {@link BiFunction} used to transform each {@link Row} and {@link RowMetadata} pair into an object
+     * @param scheduler the {@link Scheduler} to transform rows on, such as {@link reactor.core.scheduler.Schedulers#parallel()}
+     * @param ordered   whether values are emitted in row order, rather than as transformations complete
+     * @param <T>       the type of results
+     * @return the values resulting from the {@link Row} and {@link RowMetadata} transformation
+     * @throws IllegalArgumentException if {@code f} or {@code scheduler} is {@code null}
+     */
+    default <T> Flux<T> mapRow(BiFunction<Row, RowMetadata, ? extends T> f, Scheduler scheduler, boolean ordered) {
+        Assert.requireNonNull(f, "f must not be null");
+        Assert.requireNonNull(scheduler, "scheduler must not be null");
+
+        Flux<CachedResult.CachedRow> rows = mapResult(CachedResult::detach);
+        Function<CachedResult.CachedRow, Mono<T>> transformation = row -> Mono.<T>fromCallable(() -> f.apply(row, row.getRowMetadata()))
+            .subscribeOn(scheduler);
+
+        return ordered ? rows.flatMapSequential(transformation, Queues.SMALL_BUFFER_SIZE, 1) : rows.flatMap(transformation, Queues.SMALL_BUFFER_SIZE, 1);
+    }
+
     /**
      * Transforms each {@link Row} into an object.
      *
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import reactor.util.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * A least-recently-used cache of {@link CachedResult}s keyed by SQL and bound parameters, bounded by the total number of cached rows and expiring entries a fixed time after they were read.
+ * <p>
+ * Entries are tagged with the {@link TableNames names of the tables} they were read from, and are invalidated when those tables are written.  Each invalidation advances a generation, so
+ * that results read before an invalidation of one of their tables are not cached once the read completes.
+ */
+final class ResultCache {
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, Long> invalidations = new HashMap<>();
+
+    private final Map<String, Set<Key>> keysByTable = new HashMap<>();
+
+    private final long maxWeight;
+
+    private final ResultCacheMetrics metrics = new ResultCacheMetrics();
+
+    private final LongSupplier nanoTime;
+
+    private final long timeToLive;
+
+    private long generation;
+
+    private long weight;
+
+    ResultCache(ResultCacheConfiguration configuration) {
+        this(configuration, System::nanoTime);
+    }
+
+    ResultCache(ResultCacheConfiguration configuration, LongSupplier nanoTime) {
+        Assert.requireNonNull(configuration, "configuration must not be null");
+
+        this.maxWeight = configuration.getMaxWeight();
+        this.nanoTime = Assert.requireNonNull(nanoTime, "nanoTime must not be null");
+        this.timeToLive = configuration.getTimeToLive().toNanos();
+    }
+
+    /**
+     * Returns the cached results for a key, or {@code null} if none are cached or they have expired.
+     *
+     * @param key the key of the results
+     * @return the cached results or {@code null}
+     */
+    @Nullable
+    synchronized List<CachedResult> get(Key key) {
+        Entry entry = this.entries.get(key);
+
+        if (entry == null) {
+            this.metrics.recordMiss();
+            return null;
+        }
+
+        if (this.nanoTime.getAsLong() - entry.expiresAt >= 0) {
+            remove(key, entry);
+            this.metrics.recordExpiration();
+            this.metrics.recordMiss();
+            return null;
+        }
+
+        this.metrics.recordHit();
+        return entry.results;
+    }
+
+    /**
+     * Returns the current generation, to be passed to {@link #put(Key, Set, List, long)} for results read after this call.
+     *
+     * @return the current generation
+     */
+    synchronized long getGeneration() {
+        return this.generation;
+    }
+
+    ResultCacheMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    synchronized long getWeight() {
+        return this.weight;
+    }
+
+    /**
+     * Invalidate the results read from any of a number of tables.  Invalidating {@link TableNames#ALL} invalidates all results.
+     *
+     * @param tables the names of the tables that were written
+     */
+    synchronized void invalidate(Collection<String> tables) {
+        if (tables.isEmpty()) {
+            return;
+        }
+
+        this.generation++;
+
+        if (tables.contains(TableNames.ALL)) {
+            this.entries.clear();
+            this.keysByTable.clear();
+            this.invalidations.clear();
+            this.invalidations.put(TableNames.ALL, this.generation);
+            this.weight = 0;
+            return;
+        }
+
+        Set<Key> keys = new HashSet<>();
+
+        for (String table : tables) {
+            this.invalidations.put(table, this.generation);
+            keys.addAll(this.keysByTable.getOrDefault(table, Collections.emptySet()));
+        }
+        keys.addAll(this.keysByTable.getOrDefault(TableNames.ALL, Collections.emptySet()));
+
+        for (Key key : keys) {
+            Entry entry = this.entries.get(key);
+
+            if (entry != null) {
+                remove(key, entry);
+            }
+        }
+    }
+
+    /**
+     * Cache results for a key, evicting the least recently used results while the cache is over its maximum weight.  Results heavier than the maximum weight, results that are not
+     * {@link CachedResult#isReplayable() replayable}, or results read from a table that has been invalidated since {@code generation}, are not cached.
+     *
+     * @param key        the key of the results
+     * @param tables     the names of the tables the results were read from
+     * @param results    the results
+     * @param generation the generation before the results were read
+     */
+    synchronized void put(Key key, Set<String> tables, List<CachedResult> results, long generation) {
+        if (isInvalidatedSince(TableNames.ALL, generation)) {
+            return;
+        }
+
+        for (String table : tables) {
+            if (isInvalidatedSince(table, generation)) {
+                return;
+            }
+        }
+
+        for (CachedResult result : results) {
+            if (!result.isReplayable()) {
+                return;
+            }
+        }
+
+        long weight = 0;
+        for (CachedResult result : results) {
+            weight += result.getWeight();
+        }
+        weight = Math.max(1, weight);
+
+        if (weight > this.maxWeight) {
+            return;
+        }
+
+        Entry previous = this.entries.get(key);
+        if (previous != null) {
+            remove(key, previous);
+        }
+
+        this.entries.put(key, new Entry(results, tables, this.nanoTime.getAsLong() + this.timeToLive, weight));
+        this.weight += weight;
+
+        for (String table : tables) {
+            this.keysByTable.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+        }
+
+        Iterator<Map.Entry<Key, Entry>> eldest = this.entries.entrySet().iterator();
+        while (this.weight > this.maxWeight && eldest.hasNext()) {
+            Map.Entry<Key, Entry> evicted = eldest.next();
+            eldest.remove();
+            unindex(evicted.getKey(), evicted.getValue());
+            this.metrics.recordEviction();
+        }
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "ResultCache{" +
+            "entries=" + this.entries.size() +
+            ", maxWeight=" + this.maxWeight +
+            ", timeToLive=" + this.timeToLive +
+            ", weight=" + this.weight +
+            '}';
+    }
+
+    private boolean isInvalidatedSince(String table, long generation) {
+        Long invalidated = this.invalidations.get(table);
+        return invalidated != null && invalidated > generation;
+    }
+
+    private void remove(Key key, Entry entry) {
+        this.entries.remove(key);
+        unindex(key, entry);
+    }
+
+    private void unindex(Key key, Entry entry) {
+        this.weight -= entry.weight;
+
+        for (String table : entry.tables) {
+            Set<Key> keys = this.keysByTable.get(table);
+
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                this.keysByTable.remove(table);
+            }
+        }
+    }
+
+    /**
+     * The key of cached results, made of the SQL of a query and the values bound to it.
+     */
+    static final class Key {
+
+        private final int hashCode;
+
+        private final Object[] parameters;
+
+        private final String sql;
+
+        Key(String sql, Object[] parameters) {
+            this.sql = Assert.requireNonNull(sql, "sql must not be null");
+            this.parameters = Assert.requireNonNull(parameters, "parameters must not be null").clone();
+            this.hashCode = 31 * sql.hashCode() + Arrays.deepHashCode(this.parameters);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return this.sql.equals(that.sql) &&
+                Arrays.deepEquals(this.parameters, that.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return "Key{" +
+                "parameters=" + Arrays.deepToString(this.parameters) +
+                ", sql='" + this.sql + '\'' +
+                '}';
+        }
+
+        Object[] getParameters() {
+            return this.parameters;
+        }
+
+        String getSql() {
+            return this.sql;
+        }
+
+    }
+
+    private static final class Entry {
+
+        private final long expiresAt;
+
+        private final List<CachedResult> results;
+
+        private final Set<String> tables;
+
+        private final long weight;
+
+        private Entry(List<CachedResult> results, Set<String> tables, long expiresAt, long weight) {
+            this.results = results;
+            this.tables = tables;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+
+import java.time.Duration;
+
+/**
+ * The configuration of the result cache used by {@link R2dbc#select(String, Object...)}.
+ */
+public final class ResultCacheConfiguration {
+
+    private final long maxWeight;
+
+    private final Duration timeToLive;
+
+    private ResultCacheConfiguration(long maxWeight, Duration timeToLive) {
+        this.maxWeight = maxWeight;
+        this.timeToLive = Assert.requireNonNull(timeToLive, "timeToLive must not be null");
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultCacheConfiguration{" +
+            "maxWeight=" + this.maxWeight +
+            ", timeToLive=" + this.timeToLive +
+            '}';
+    }
+
+    long getMaxWeight() {
+        return this.maxWeight;
+    }
+
+    Duration getTimeToLive() {
+        return this.timeToLive;
+    }
+
+    /**
+     * A builder for {@link ResultCacheConfiguration} instances.
+     * <p>
+     * <i>This class is not threadsafe</i>
+     */
+    public static final class Builder {
+
+        private long maxWeight = 10_000;
+
+        private Duration timeToLive = Duration.ofMinutes(1);
+
+        private Builder() {
+        }
+
+        /**
+         * Returns a configured {@link ResultCacheConfiguration}.
+         *
+         * @return a configured {@link ResultCacheConfiguration}
+         */
+        public ResultCacheConfiguration build() {
+            return new ResultCacheConfiguration(this.maxWeight, this.timeToLive);
+        }
+
+        /**
+         * Configure the maximum total weight of the cached results, where the weight of a cached result is the number of rows it holds and at least one.  The least recently used results are
+         * evicted when the maximum is exceeded, and results heavier than the maximum are never cached.  Defaults to 10,000.
+         *
+         * @param maxWeight the maximum weight
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxWeight} is not positive
+         */
+        public Builder maxWeight(long maxWeight) {
+            Assert.isTrue(maxWeight > 0, "maxWeight must be positive");
+
+            this.maxWeight = maxWeight;
+            return this;
+        }
+
+        /**
+         * Configure the amount of time a result is served from the cache after it was read.  Defaults to 1 minute.
+         *
+         * @param timeToLive the time to live
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code timeToLive} is {@code null} or not positive
+         */
+        public Builder timeToLive(Duration timeToLive) {
+            Assert.requireNonNull(timeToLive, "timeToLive must not be null");
+            Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Builder{" +
+                "maxWeight=" + this.maxWeight +
+                ", timeToLive=" + this.timeToLive +
+                '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the result cache of an {@link R2dbc}.
+ */
+public final class ResultCacheMetrics {
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    ResultCacheMetrics() {
+    }
+
+    /**
+     * Returns the number of results evicted from the cache because it was full.
+     *
+     * @return the number of results evicted
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns the number of results removed from the cache because their time to live had elapsed.
+     *
+     * @return the number of results expired
+     */
+    public long getExpirations() {
+        return this.expirations.sum();
+    }
+
+    /**
+     * Returns the number of times a result was served from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of times a result had to be read from the database because it was not in the cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultCacheMetrics{" +
+            "evictions=" + this.evictions +
+            ", expirations=" + this.expirations +
+            ", hits=" + this.hits +
+            ", misses=" + this.misses +
+            '}';
+    }
+
+    void recordEviction() {
+        this.evictions.increment();
+    }
+
+    void recordExpiration() {
+        this.expirations.increment();
+    }
+
+    void recordHit() {
+        this.hits.increment();
+    }
+
+    void recordMiss() {
+        this.misses.increment();
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.Result;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.util.concurrent.Queues;
+
+import java.util.function.Function;
+
+/**
+ * The strategy used by {@link ResultBearing#mapResult(Function, ResultStrategy)} to combine the values of the {@link Result}s returned from execution.  An ordered strategy transforms one
+ * {@link Result} at a time and emits values in {@link Result} order, while an unordered strategy transforms up to {@code concurrency} {@link Result}s at a time and emits values as they arrive.
+ */
+public final class ResultStrategy {
+
+    /**
+     * A strategy that emits values in {@link Result} order, prefetching {@link Queues#XS_BUFFER_SIZE} {@link Result}s.
+     */
+    public static final ResultStrategy ORDERED = builder().ordered(true).build();
+
+    /**
+     * A strategy that emits values as they arrive, transforming up to {@link Queues#SMALL_BUFFER_SIZE} {@link Result}s at a time and prefetching {@link Queues#XS_BUFFER_SIZE} values from
+     * each.
+     */
+    public static final ResultStrategy UNORDERED = builder().build();
+
+    private final int concurrency;
+
+    private final boolean ordered;
+
+    private final int prefetch;
+
+    private ResultStrategy(int concurrency, boolean ordered, int prefetch) {
+        this.concurrency = concurrency;
+        this.ordered = ordered;
+        this.prefetch = prefetch;
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultStrategy{" +
+            "concurrency=" + this.concurrency +
+            ", ordered=" + this.ordered +
+            ", prefetch=" + this.prefetch +
+            '}';
+    }
+
+    int getConcurrency() {
+        return this.concurrency;
+    }
+
+    int getPrefetch() {
+        return this.prefetch;
+    }
+
+    boolean isOrdered() {
+        return this.ordered;
+    }
+
+    /**
+     * Transforms {@link Result}s according to this strategy.
+     *
+     * @param results the {@link Result}s to transform
+     * @param f       a {@link Function} used to transform each {@link Result} into a {@code Publisher} of values
+     * @param <T>     the type of results
+     * @return the values resulting from the {@link Result} transformation
+     */
+    <T> Flux<T> map(Flux<? extends Result> results, Function<Result, ? extends Publisher<? extends T>> f) {
+        if (this.ordered) {
+            return results.concatMap(f::apply, this.prefetch);
+        }
+
+        return results.flatMap(f::apply, this.concurrency, this.prefetch);
+    }
+
+    /**
+     * A builder for {@link ResultStrategy} instances.
+     * <p>
+     * <i>This class is not threadsafe</i>
+     */
+    public static final class Builder {
+
+        private int concurrency = Queues.SMALL_BUFFER_SIZE;
+
+        private boolean ordered;
+
+        private int prefetch = Queues.XS_BUFFER_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * Returns a configured {@link ResultStrategy}.
+         *
+         * @return a configured {@link ResultStrategy}
+         */
+        public ResultStrategy build() {
+            return new ResultStrategy(this.concurrency, this.ordered, this.prefetch);
+        }
+
+        /**
+         * Configure the maximum number of {@link Result}s an unordered strategy transforms at a time.  Ignored by ordered strategies, which transform one {@link Result} at a time.  Defaults
+         * to {@link Queues#SMALL_BUFFER_SIZE}.
+         *
+         * @param concurrency the maximum number of {@link Result}s transformed at a time
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code concurrency} is not positive
+         */
+        public Builder concurrency(int concurrency) {
+            Assert.isTrue(concurrency > 0, "concurrency must be positive");
+
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Configure whether values are emitted in {@link Result} order.  Defaults to {@code false}.
+         *
+         * @param ordered whether values are emitted in {@link Result} order
+         * @return this {@link Builder}
+         */
+        public Builder ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * Configure the number of items requested ahead of demand: {@link Result}s for an ordered strategy, and values of each {@link Result} for an unordered strategy.  Defaults to
+         * {@link Queues#XS_BUFFER_SIZE}.
+         *
+         * @param prefetch the number of items requested ahead of demand
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code prefetch} is not positive
+         */
+        public Builder prefetch(int prefetch) {
+            Assert.isTrue(prefetch > 0, "prefetch must be positive");
+
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Builder{" +
+                "concurrency=" + this.concurrency +
+                ", ordered=" + this.ordered +
+                ", prefetch=" + this.prefetch +
+                '}';
+        }
+
+    }
+
+}
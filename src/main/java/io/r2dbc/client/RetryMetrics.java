@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the transactions run with a {@link RetryPolicy}.
+ */
+public final class RetryMetrics {
+
+    private final LongAdder attempts = new LongAdder();
+
+    private final LongAdder exhausted = new LongAdder();
+
+    private final LongAdder retries = new LongAdder();
+
+    RetryMetrics() {
+    }
+
+    /**
+     * Returns the number of times a transaction was attempted, including retries.
+     *
+     * @return the number of attempts
+     */
+    public long getAttempts() {
+        return this.attempts.sum();
+    }
+
+    /**
+     * Returns the number of times a transaction failed with a retryable error after using all of its attempts.
+     *
+     * @return the number of exhausted transactions
+     */
+    public long getExhausted() {
+        return this.exhausted.sum();
+    }
+
+    /**
+     * Returns the number of times a transaction was retried after a retryable error.
+     *
+     * @return the number of retries
+     */
+    public long getRetries() {
+        return this.retries.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryMetrics{" +
+            "attempts=" + this.attempts +
+            ", exhausted=" + this.exhausted +
+            ", retries=" + this.retries +
+            '}';
+    }
+
+    void recordAttempt() {
+        this.attempts.increment();
+    }
+
+    void recordExhausted() {
+        this.exhausted.increment();
+    }
+
+    void recordRetry() {
+        this.retries.increment();
+    }
+
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.R2dbcException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * A policy for retrying transactions that fail with transient errors, used with {@link Handle#inTransactionWithRetry(RetryPolicy, java.util.function.Function)}.  Failed attempts are retried
+ * after an exponentially increasing, jittered backoff until the maximum number of attempts is reached.
+ */
+public final class RetryPolicy {
+
+    private static final String DEADLOCK_DETECTED = "40P01";
+
+    private static final String SERIALIZATION_FAILURE = "40001";
+
+    private final Duration initialBackoff;
+
+    private final double jitter;
+
+    private final int maxAttempts;
+
+    private final Duration maxBackoff;
+
+    private final RetryMetrics metrics = new RetryMetrics();
+
+    private final Predicate<Throwable> retryable;
+
+    private RetryPolicy(Duration initialBackoff, double jitter, int maxAttempts, Duration maxBackoff, Predicate<Throwable> retryable) {
+        this.initialBackoff = Assert.requireNonNull(initialBackoff, "initialBackoff must not be null");
+        this.jitter = jitter;
+        this.maxAttempts = maxAttempts;
+        this.maxBackoff = Assert.requireNonNull(maxBackoff, "maxBackoff must not be null");
+        this.retryable = Assert.requireNonNull(retryable, "retryable must not be null");
+    }
+
+    /**
+     * Returns a new {@link Builder}.
+     *
+     * @return a new {@link Builder}
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns whether an error is a serialization failure ({@code SQLSTATE 40001}) or a detected deadlock ({@code SQLSTATE 40P01}).  The causes of the error are also examined.  This is the
+     * default {@link Builder#retryable(Predicate) retryable} predicate.
+     *
+     * @param t the error
+     * @return {@code true} if the error is a serialization failure or deadlock
+     */
+    public static boolean isTransient(Throwable t) {
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof R2dbcException) {
+                String sqlState = ((R2dbcException) cause).getSqlState();
+
+                if (SERIALIZATION_FAILURE.equals(sqlState) || DEADLOCK_DETECTED.equals(sqlState)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the counters of transactions run with this policy.
+     *
+     * @return the retry counters
+     */
+    public RetryMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+            "initialBackoff=" + this.initialBackoff +
+            ", jitter=" + this.jitter +
+            ", maxAttempts=" + this.maxAttempts +
+            ", maxBackoff=" + this.maxBackoff +
+            ", metrics=" + this.metrics +
+            ", retryable=" + this.retryable +
+            '}';
+    }
+
+    /**
+     * Returns the backoff before an attempt.
+     *
+     * @param attempt the number of the failed attempt, starting at 1
+     * @return the backoff before the next attempt
+     */
+    Duration getBackoff(int attempt) {
+        long maxBackoff = this.maxBackoff.toNanos();
+        long backoff = this.initialBackoff.toNanos();
+
+        for (int i = 1; i < attempt && backoff < maxBackoff; i++) {
+            backoff *= 2;
+        }
+
+        backoff = Math.min(backoff, maxBackoff);
+        long jitter = (long) (backoff * this.jitter * ThreadLocalRandom.current().nextDouble());
+
+        return Duration.ofNanos(backoff - jitter);
+    }
+
+    int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    boolean isRetryable(Throwable t) {
+        return this.retryable.test(t);
+    }
+
+    /**
+     * A builder for {@link RetryPolicy} instances.
+     * <p>
+     * <i>This class is not threadsafe</i>
+     */
+    public static final class Builder {
+
+        private Duration initialBackoff = Duration.ofMillis(10);
+
+        private double jitter = 0.5;
+
+        private int maxAttempts = 3;
+
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        private Predicate<Throwable> retryable = RetryPolicy::isTransient;
+
+        private Builder() {
+        }
+
+        /**
+         * Returns a configured {@link RetryPolicy}.
+         *
+         * @return a configured {@link RetryPolicy}
+         * @throws IllegalArgumentException if {@code initialBackoff} is greater than {@code maxBackoff}
+         */
+        public RetryPolicy build() {
+            Assert.isTrue(this.initialBackoff.compareTo(this.maxBackoff) <= 0, "initialBackoff must not be greater than maxBackoff");
+
+            return new RetryPolicy(this.initialBackoff, this.jitter, this.maxAttempts, this.maxBackoff, this.retryable);
+        }
+
+        /**
+         * Configure the backoff before the first retry.  Each subsequent backoff is doubled, up to {@code maxBackoff}.  Defaults to 10 milliseconds.
+         *
+         * @param initialBackoff the initial backoff
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code initialBackoff} is {@code null} or negative
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            Assert.requireNonNull(initialBackoff, "initialBackoff must not be null");
+            Assert.isTrue(!initialBackoff.isNegative(), "initialBackoff must not be negative");
+
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Configure the fraction of each backoff that is randomized, so that transactions that failed together do not retry together.  A backoff of {@code d} is reduced by a random amount
+         * between {@code 0} and {@code jitter * d}.  Defaults to 0.5.
+         *
+         * @param jitter the jitter factor
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code jitter} is not between 0 and 1
+         */
+        public Builder jitter(double jitter) {
+            Assert.isTrue(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1");
+
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Configure the maximum number of times a transaction is attempted, including the first attempt.  Defaults to 3.
+         *
+         * @param maxAttempts the maximum number of attempts
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxAttempts} is not positive
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            Assert.isTrue(maxAttempts > 0, "maxAttempts must be positive");
+
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Configure the maximum backoff between attempts.  Defaults to 1 second.
+         *
+         * @param maxBackoff the maximum backoff
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code maxBackoff} is {@code null} or negative
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            Assert.requireNonNull(maxBackoff, "maxBackoff must not be null");
+            Assert.isTrue(!maxBackoff.isNegative(), "maxBackoff must not be negative");
+
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Configure which errors are retried.  Defaults to {@link RetryPolicy#isTransient(Throwable)}.
+         *
+         * @param retryable a {@link Predicate} returning {@code true} for errors that should be retried
+         * @return this {@link Builder}
+         * @throws IllegalArgumentException if {@code retryable} is {@code null}
+         */
+        public Builder retryable(Predicate<Throwable> retryable) {
+            this.retryable = Assert.requireNonNull(retryable, "retryable must not be null");
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Builder{" +
+                "initialBackoff=" + this.initialBackoff +
+                ", jitter=" + this.jitter +
+                ", maxAttempts=" + this.maxAttempts +
+                ", maxBackoff=" + this.maxBackoff +
+                ", retryable=" + this.retryable +
+                '}';
+        }
+
+    }
+
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.util.annotation.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A {@link BiFunction} that maps each {@link Row} to a new instance of a JavaBean, for use with {@link ResultBearing#mapRow(BiFunction)}.  Each column is matched to a public setter by name,
+ * ignoring case and underscores, so that a {@code first_name} column is set with {@code setFirstName}.  Columns without a matching setter are ignored, and types with overloaded setters
+ * matching the same column name are rejected rather than mapped with an arbitrary overload.
+ * <p>
+ * Constructors and setters are resolved once per type as {@link MethodHandle}s, and columns are resolved to indexes once per {@link RowMetadata} shape, so that mapping each row involves no
+ * reflection or lookups by name.
+ *
+ * @param <T> the type of the mapped objects
+ */
+public final class RowMapper<T> implements BiFunction<Row, RowMetadata, T> {
+
+    private static final ClassValue<RowMapper<?>> ROW_MAPPERS = new ClassValue<RowMapper<?>>() {
+
+        @Override
+        protected RowMapper<?> computeValue(Class<?> type) {
+            return new RowMapper<>(type);
+        }
+
+    };
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final MethodHandle constructor;
+
+    private final Map<List<String>, Plan> plans = new ConcurrentHashMap<>();
+
+    private final Map<String, Setter> setters;
+
+    private final Class<T> type;
+
+    @Nullable
+    private volatile Plan lastPlan;
+
+    private RowMapper(Class<T> type) {
+        this.type = type;
+        this.constructor = getConstructor(type);
+        this.setters = getSetters(type);
+    }
+
+    /**
+     * Returns a {@link RowMapper} for a type.  The {@link RowMapper} is created once per type and shared.
+     *
+     * @param type the type to map rows to.  Must be public and have a public no-argument constructor.
+     * @param <T>  the type of the mapped objects
+     * @return a {@link RowMapper} for {@code type}
+     * @throws IllegalArgumentException if {@code type} is {@code null}, does not have a public no-argument constructor, or has more than one setter matching the same column name
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowMapper<T> of(Class<T> type) {
+        Assert.requireNonNull(type, "type must not be null");
+
+        return (RowMapper<T>) ROW_MAPPERS.get(type);
+    }
+
+    @Override
+    public T apply(Row row, RowMetadata rowMetadata) {
+        Assert.requireNonNull(row, "row must not be null");
+        Assert.requireNonNull(rowMetadata, "rowMetadata must not be null");
+
+        Plan plan = getPlan(rowMetadata);
+
+        try {
+            Object instance = this.constructor.invokeExact();
+
+            for (int i = 0; i < plan.indexes.length; i++) {
+                Setter setter = plan.setters[i];
+                Object value = row.get(plan.indexes[i], setter.type);
+
+                if (value != null || !setter.primitive) {
+                    setter.handle.invokeExact(instance, value);
+                }
+            }
+
+            return this.type.cast(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException(String.format("Unable to map row to %s", this.type.getName()), t);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RowMapper{" +
+            "type=" + this.type +
+            '}';
+    }
+
+    int getPlanCount() {
+        return this.plans.size();
+    }
+
+    private static MethodHandle getConstructor(Class<?> type) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class)).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(String.format("%s must have a public no-argument constructor", type.getName()), e);
+        }
+    }
+
+    private static Map<String, Setter> getSetters(Class<?> type) {
+        Map<String, Setter> setters = new HashMap<>();
+
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.getParameterCount() != 1 || !method.getName().startsWith("set") || method.getName().length() == 3) {
+                continue;
+            }
+
+            String name = normalize(method.getName().substring(3));
+            if (setters.containsKey(name)) {
+                throw new IllegalArgumentException(String.format("%s has ambiguous setters for column %s", type.getName(), name));
+            }
+
+            try {
+                MethodHandle handle = MethodHandles.publicLookup().unreflect(method).asType(SETTER_TYPE);
+                setters.put(name, new Setter(handle, method.getParameterTypes()[0]));
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException(String.format("Unable to access %s", method), e);
+            }
+        }
+
+        return setters;
+    }
+
+    private static String normalize(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+
+            if (c != '_') {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+
+        return normalized.toString();
+    }
+
+    private Plan getPlan(RowMetadata rowMetadata) {
+        Plan plan = this.lastPlan;
+        if (plan != null && plan.rowMetadata == rowMetadata) {
+            return plan;
+        }
+
+        List<String> columnNames = new ArrayList<>();
+        for (ColumnMetadata columnMetadata : rowMetadata.getColumnMetadatas()) {
+            columnNames.add(columnMetadata.getName());
+        }
+
+        plan = this.plans.computeIfAbsent(columnNames, this::createPlan).withRowMetadata(rowMetadata);
+        this.lastPlan = plan;
+
+        return plan;
+    }
+
+    private Plan createPlan(List<String> columnNames) {
+        List<Integer> indexes = new ArrayList<>();
+        List<Setter> setters = new ArrayList<>();
+
+        for (int i = 0; i < columnNames.size(); i++) {
+            Setter setter = this.setters.get(normalize(columnNames.get(i)));
+
+            if (setter != null) {
+                indexes.add(i);
+                setters.add(setter);
+            }
+        }
+
+        return new Plan(indexes.toArray(new Integer[0]), setters.toArray(new Setter[0]), null);
+    }
+
+    private static final class Plan {
+
+        private final Integer[] indexes;
+
+        @Nullable
+        private final RowMetadata rowMetadata;
+
+        private final Setter[] setters;
+
+        private Plan(Integer[] indexes, Setter[] setters, @Nullable RowMetadata rowMetadata) {
+            this.indexes = indexes;
+            this.setters = setters;
+            this.rowMetadata = rowMetadata;
+        }
+
+        private Plan withRowMetadata(RowMetadata rowMetadata) {
+            return new Plan(this.indexes, this.setters, rowMetadata);
+        }
+
+    }
+
+    private static final class Setter {
+
+        private final MethodHandle handle;
+
+        private final boolean primitive;
+
+        private final Class<?> type;
+
+        private Setter(MethodHandle handle, Class<?> type) {
+            this.handle = handle;
+            this.primitive = type.isPrimitive();
+            this.type = MethodType.methodType(type).wrap().returnType();
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.Statement;
+
+import java.util.function.Function;
+
+/**
+ * A least-recently-used cache of {@link ParsedStatement}s keyed by SQL, belonging to a single pooled connection.  A {@link Statement} is mutable and the SPI does not define whether executing it
+ * clears its bindings, so statements themselves are never reused.  Instead, each statement is created anew from SQL that has already been parsed on the connection, which leaves a driver free
+ * to reuse the statement it prepared on the server for the same SQL.
+ */
+final class StatementCache {
+
+    private final StatementCacheMetrics metrics;
+
+    private final LruCache<String, ParsedStatement> statements;
+
+    StatementCache(int size, StatementCacheMetrics metrics) {
+        Assert.isTrue(size > 0, "size must be positive");
+
+        this.metrics = Assert.requireNonNull(metrics, "metrics must not be null");
+        this.statements = new LruCache<>(size, metrics::recordEviction);
+    }
+
+    /**
+     * Returns the parse of a SQL string, parsing it on a miss.
+     *
+     * @param sql    the SQL of the statement
+     * @param parser a {@link Function} used to parse the SQL on a miss
+     * @return the parse of the SQL
+     */
+    ParsedStatement get(String sql, Function<String, ParsedStatement> parser) {
+        ParsedStatement statement = this.statements.get(sql);
+
+        if (statement != null) {
+            this.metrics.recordHit();
+            return statement;
+        }
+
+        this.metrics.recordMiss();
+
+        statement = parser.apply(sql);
+        this.statements.put(sql, statement);
+        return statement;
+    }
+
+    int size() {
+        return this.statements.size();
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCache{" +
+            "statements=" + this.statements.snapshot().keySet() +
+            '}';
+    }
+
+}
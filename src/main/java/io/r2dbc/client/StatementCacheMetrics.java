@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for the statement caches of all connections in a pooled {@link R2dbc}.
+ */
+public final class StatementCacheMetrics {
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    StatementCacheMetrics() {
+    }
+
+    /**
+     * Returns the number of statements evicted from a cache because it was full.
+     *
+     * @return the number of statements evicted
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns the number of times a statement was served from a cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of times a statement had to be created because it was not in a cache.
+     *
+     * @return the number of cache misses
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "StatementCacheMetrics{" +
+            "evictions=" + this.evictions +
+            ", hits=" + this.hits +
+            ", misses=" + this.misses +
+            '}';
+    }
+
+    void recordEviction() {
+        this.evictions.increment();
+    }
+
+    void recordHit() {
+        this.hits.increment();
+    }
+
+    void recordMiss() {
+        this.misses.increment();
+    }
+
+}
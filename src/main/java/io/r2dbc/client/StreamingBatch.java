@@ -0,0 +1,123 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.client.util.Assert;
+import io.r2dbc.spi.Result;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Batch} for a stream of statements too large to hold in memory.  Statements are accumulated into a {@link Batch} that is executed whenever it reaches a maximum number of statements
+ * or a maximum length of SQL, a bounded number of those batches execute at a time, and their results are emitted in statement order.  Results are only emitted out of statement order within
+ * a batch when mapped with {@link #mapResult(Function, ResultStrategy)} and an unordered {@link ResultStrategy}.
+ */
+public final class StreamingBatch implements ResultBearing {
+
+    private final Supplier<Batch> batchFactory;
+
+    private final int maxInFlight;
+
+    private final int maxLength;
+
+    private final int maxStatements;
+
+    private final Publisher<String> statements;
+
+    StreamingBatch(Publisher<String> statements, Supplier<Batch> batchFactory, int maxStatements, int maxLength, int maxInFlight) {
+        this.statements = Assert.requireNonNull(statements, "statements must not be null");
+        this.batchFactory = Assert.requireNonNull(batchFactory, "batchFactory must not be null");
+        this.maxStatements = maxStatements;
+        this.maxLength = maxLength;
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f) {
+        return mapResult(f, ResultStrategy.ORDERED);
+    }
+
+    @Override
+    public <T> Flux<T> mapResult(Function<Result, ? extends Publisher<? extends T>> f, ResultStrategy strategy) {
+        Assert.requireNonNull(f, "f must not be null");
+        Assert.requireNonNull(strategy, "strategy must not be null");
+
+        return Flux.defer(() -> Flux.from(this.statements)
+            .bufferUntil(new Boundary(this.maxStatements, this.maxLength)))
+            .flatMapSequential(statements -> execute(statements, f, strategy), this.maxInFlight, 1);
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingBatch{" +
+            "maxInFlight=" + this.maxInFlight +
+            ", maxLength=" + this.maxLength +
+            ", maxStatements=" + this.maxStatements +
+            ", statements=" + this.statements +
+            '}';
+    }
+
+    private <T> Flux<T> execute(List<String> statements, Function<Result, ? extends Publisher<? extends T>> f, ResultStrategy strategy) {
+        Batch batch = this.batchFactory.get();
+
+        for (String statement : statements) {
+            batch.add(statement);
+        }
+
+        return batch.mapResult(f, strategy);
+    }
+
+    /**
+     * Marks the last statement of each {@link Batch}.  A new instance is required for each subscription.
+     */
+    private static final class Boundary implements Predicate<String> {
+
+        private final int maxLength;
+
+        private final int maxStatements;
+
+        private int length;
+
+        private int statements;
+
+        private Boundary(int maxStatements, int maxLength) {
+            this.maxStatements = maxStatements;
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public boolean test(String statement) {
+            this.length += statement.length();
+            this.statements++;
+
+            if (this.statements < this.maxStatements && this.length < this.maxLength) {
+                return false;
+            }
+
+            this.length = 0;
+            this.statements = 0;
+            return true;
+        }
+
+    }
+
+}
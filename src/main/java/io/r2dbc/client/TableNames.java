@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The names of the tables read or written by a SQL statement, used to tag cached results and to invalidate them.  Names are compared in lower case and without their schema, so that a name
+ * matches every table it could refer to.  When the tables of a statement cannot be determined, the statement is treated as touching {@link #ALL} tables.
+ */
+final class TableNames {
+
+    /**
+     * The name standing for every table.
+     */
+    static final String ALL = "*";
+
+    private static final Set<String> ALL_TABLES = Collections.singleton(ALL);
+
+    private TableNames() {
+    }
+
+    /**
+     * Returns the tables read by a query, named in its {@code FROM} and {@code JOIN} clauses.
+     *
+     * @param sql the SQL of the query
+     * @return the names of the tables read, or {@link #ALL} if none could be found
+     */
+    static Set<String> read(String sql) {
+        List<String> tokens = tokenize(sql);
+        Set<String> tables = new LinkedHashSet<>();
+
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+
+            if ("join".equals(token)) {
+                addTable(tokens, i + 1, tables);
+            } else if ("from".equals(token)) {
+                int next = addTable(tokens, i + 1, tables);
+
+                while (next < tokens.size() && ",".equals(tokens.get(next))) {
+                    next = addTable(tokens, next + 1, tables);
+                }
+            }
+        }
+
+        return tables.isEmpty() ? ALL_TABLES : Collections.unmodifiableSet(tables);
+    }
+
+    /**
+     * Returns the tables written by a statement such as {@code INSERT}, {@code UPDATE}, {@code DELETE}, {@code MERGE}, {@code TRUNCATE}, {@code ALTER TABLE}, or {@code DROP TABLE}.
+     *
+     * @param sql the SQL of the statement
+     * @return the names of the tables written, or {@link #ALL} if they could not be determined
+     */
+    static Set<String> written(String sql) {
+        List<String> tokens = tokenize(sql);
+
+        if (tokens.isEmpty()) {
+            return ALL_TABLES;
+        }
+
+        int index;
+        switch (tokens.get(0)) {
+            case "insert":
+            case "merge":
+            case "replace":
+                index = skip(tokens, 1, "into");
+                break;
+            case "update":
+                index = 1;
+                break;
+            case "delete":
+                index = skip(tokens, 1, "from");
+                break;
+            case "truncate":
+                index = skip(tokens, 1, "table");
+                break;
+            case "alter":
+            case "drop":
+                if (tokens.size() < 2 || !"table".equals(tokens.get(1))) {
+                    return ALL_TABLES;
+                }
+
+                index = skip(tokens, skip(tokens, 2, "if"), "exists");
+                break;
+            default:
+                return ALL_TABLES;
+        }
+
+        Set<String> tables = new LinkedHashSet<>();
+        int next = addTable(tokens, skip(tokens, index, "only"), tables);
+
+        if ("truncate".equals(tokens.get(0)) || "drop".equals(tokens.get(0))) {
+            while (next < tokens.size() && ",".equals(tokens.get(next))) {
+                next = addTable(tokens, next + 1, tables);
+            }
+        }
+
+        return tables.isEmpty() ? ALL_TABLES : Collections.unmodifiableSet(tables);
+    }
+
+    private static int addTable(List<String> tokens, int index, Set<String> tables) {
+        index = skip(tokens, index, "only");
+        index = skip(tokens, index, "lateral");
+
+        if (index >= tokens.size() || !isIdentifier(tokens.get(index))) {
+            return index;
+        }
+
+        String name = tokens.get(index);
+        tables.add(name.substring(name.lastIndexOf('.') + 1));
+        index++;
+
+        if (index < tokens.size() && "as".equals(tokens.get(index))) {
+            index++;
+        }
+
+        if (index < tokens.size() && isIdentifier(tokens.get(index)) && !isClause(tokens.get(index))) {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static boolean isClause(String token) {
+        switch (token) {
+            case "cross":
+            case "full":
+            case "group":
+            case "having":
+            case "inner":
+            case "join":
+            case "left":
+            case "limit":
+            case "natural":
+            case "on":
+            case "order":
+            case "right":
+            case "set":
+            case "union":
+            case "using":
+            case "values":
+            case "where":
+            case "window":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isIdentifier(String token) {
+        char c = token.charAt(0);
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static int skip(List<String> tokens, int index, String keyword) {
+        return index < tokens.size() && keyword.equals(tokens.get(index)) ? index + 1 : index;
+    }
+
+    private static List<String> tokenize(String sql) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder identifier = new StringBuilder();
+
+        int i = 0;
+        while (i < sql.length()) {
+            char c = sql.charAt(i);
+
+            if (c == '"' || c == '`' || c == '[') {
+                char close = c == '[' ? ']' : c;
+                int end = sql.indexOf(close, i + 1);
+                end = end == -1 ? sql.length() : end;
+
+                identifier.append(sql, i + 1, end);
+                i = end + 1;
+            } else if (Character.isLetterOrDigit(c) || c == '_' || c == '$' || (c == '.' && identifier.length() > 0)) {
+                identifier.append(c);
+                i++;
+            } else {
+                if (identifier.length() > 0) {
+                    tokens.add(identifier.toString().toLowerCase(Locale.ROOT));
+                    identifier.setLength(0);
+                }
+
+                if (c == '\'') {
+                    int end = sql.indexOf('\'', i + 1);
+                    i = end == -1 ? sql.length() : end + 1;
+                } else if (c == '-' && sql.startsWith("--", i)) {
+                    int end = sql.indexOf('\n', i);
+                    i = end == -1 ? sql.length() : end + 1;
+                } else if (c == '/' && sql.startsWith("/*", i)) {
+                    int end = sql.indexOf("*/", i + 2);
+                    i = end == -1 ? sql.length() : end + 2;
+                } else {
+                    if (!Character.isWhitespace(c)) {
+                        tokens.add(String.valueOf(c));
+                    }
+                    i++;
+                }
+            }
+        }
+
+        if (identifier.length() > 0) {
+            tokens.add(identifier.toString().toLowerCase(Locale.ROOT));
+        }
+
+        return tokens;
+    }
+
+}
@@ -19,17 +19,68 @@ package io.r2dbc.client;
 import io.r2dbc.client.util.Assert;
 import io.r2dbc.spi.Result;
 import io.r2dbc.spi.Statement;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
 
 /**
  * A wrapper for a {@link Statement} providing additional convenience APIs for running updates such as {@code INSERT} and {@code DELETE}.
  */
 public final class Update {
 
+    @Nullable
+    private final ExecutionListener executionListener;
+
+    @Nullable
+    private final NamedParameters namedParameters;
+
+    private final Runnable onExecuted;
+
+    private final String sql;
+
     private final Statement statement;
 
+    private final Function<String, Statement> statementFactory;
+
+    @Nullable
+    private final DeferredTransaction transaction;
+
+    private int bindings;
+
+    @Nullable
+    private Object[] currentRow;
+
+    @Nullable
+    private InsertRewrite insertRewrite;
+
+    @Nullable
+    private List<Object[]> rows;
+
     Update(Statement statement) {
+        this(statement, "", () -> {
+        }, sql -> statement, null, null, null, null);
+    }
+
+    Update(Statement statement, String sql, Runnable onExecuted, Function<String, Statement> statementFactory, @Nullable ExecutionListener executionListener,
+           @Nullable DeferredTransaction transaction, @Nullable InsertRewrite insertRewrite, @Nullable NamedParameters namedParameters) {
         this.statement = Assert.requireNonNull(statement, "statement must not be null");
+        this.sql = Assert.requireNonNull(sql, "sql must not be null");
+        this.onExecuted = Assert.requireNonNull(onExecuted, "onExecuted must not be null");
+        this.statementFactory = Assert.requireNonNull(statementFactory, "statementFactory must not be null");
+        this.executionListener = executionListener;
+        this.transaction = transaction;
+        this.insertRewrite = insertRewrite;
+        this.namedParameters = namedParameters;
+
+        if (insertRewrite != null) {
+            this.currentRow = new Object[insertRewrite.getParameters()];
+            this.rows = new ArrayList<>();
+        }
     }
 
     /**
@@ -38,12 +89,21 @@ public final class Update {
      * @return this {@link Statement}
      */
     public Update add() {
+        this.bindings++;
+
+        if (this.insertRewrite != null && this.rows != null && this.currentRow != null) {
+            this.rows.add(this.currentRow);
+            this.currentRow = new Object[this.insertRewrite.getParameters()];
+            return this;
+        }
+
         this.statement.add();
         return this;
     }
 
     /**
-     * Bind a value.
+     * Bind a value.  If the {@link Update} was created by a {@link Handle} opened from an {@link R2dbc} configured with {@link R2dbc.Builder#namedParameters(int) named parameters},
+     * {@code identifier} may be the name of a {@code :name} parameter.
      *
      * @param identifier the identifier to bind to
      * @param value      the value to bind
@@ -54,7 +114,19 @@ public final class Update {
         Assert.requireNonNull(identifier, "identifier must not be null");
         Assert.requireNonNull(value, "value must not be null");
 
-        this.statement.bind(identifier, value);
+        int[] indexes = getIndexes(identifier);
+        if (indexes != null) {
+            for (int index : indexes) {
+                bind(index, value);
+            }
+
+            return this;
+        }
+
+        if (!capture(identifier, value)) {
+            this.statement.bind(identifier, value);
+        }
+
         return this;
     }
 
@@ -70,19 +142,71 @@ public final class Update {
         Assert.requireNonNull(identifier, "identifier must not be null");
         Assert.requireNonNull(type, "type must not be null");
 
-        this.statement.bindNull(identifier, type);
+        int[] indexes = getIndexes(identifier);
+        if (indexes != null) {
+            for (int index : indexes) {
+                if (!capture(index, new NullValue(type))) {
+                    this.statement.bindNull(index, type);
+                }
+            }
+
+            return this;
+        }
+
+        if (!capture(identifier, new NullValue(type))) {
+            this.statement.bindNull(identifier, type);
+        }
+
         return this;
     }
 
     /**
-     * Executes the update and returns the number of rows that were updated.
+     * Executes the update and returns the number of rows that were updated.  If the {@link Update} was created by a {@link Handle} opened from an {@link R2dbc} configured to
+     * {@link R2dbc.Builder#rewriteBatchedInserts(int) rewrite batched inserts}, the bindings of a simple {@code INSERT} are executed as multi-row inserts, and an update count of {@code 1} is
+     * still returned for each binding.  Should the database report fewer rows for a multi-row insert than it has bindings, for example because a trigger suppressed a row, the rows cannot be
+     * attributed to bindings, and the first bindings of the insert are counted as inserted and the remaining ones as not.
      *
      * @return the number of rows that were updated
      */
     public Flux<Integer> execute() {
-        return Flux
-            .from(this.statement.execute())
-            .flatMap(Result::getRowsUpdated);
+        Flux<Integer> execution = executeRewritten()
+            .doOnComplete(this.onExecuted);
+
+        if (this.executionListener == null) {
+            return execution;
+        }
+
+        return ExecutionInstrumentation.instrument(execution, this.executionListener, this.sql, this.bindings);
+    }
+
+    /**
+     * Executes the update for a stream of parameter tuples.  Tuples are bound positionally in windows of {@code windowSize}, each window is executed as a single statement with one binding per
+     * tuple, and at most {@code maxInFlight} windows execute at a time.  Tuples are only requested from {@code parameters} as windows complete, so backpressure is honored end to end.  As with
+     * {@link #execute()}, cached results read from the tables the update writes are invalidated once all windows have completed.
+     *
+     * @param parameters  a {@link Publisher} of positional parameter tuples
+     * @param windowSize  the maximum number of tuples bound to a single execution
+     * @param maxInFlight the maximum number of windows executing concurrently
+     * @return the number of rows that were updated by each window, in window order
+     * @throws IllegalArgumentException if {@code parameters} is {@code null}, or {@code windowSize} or {@code maxInFlight} is not positive
+     */
+    public Flux<Integer> executeMany(Publisher<Object[]> parameters, int windowSize, int maxInFlight) {
+        Assert.requireNonNull(parameters, "parameters must not be null");
+        Assert.isTrue(windowSize > 0, "windowSize must be positive");
+        Assert.isTrue(maxInFlight > 0, "maxInFlight must be positive");
+
+        return Flux.from(parameters)
+            .buffer(windowSize)
+            .flatMapSequential(window -> {
+                Mono<Integer> execution = executeWindow(window);
+
+                if (this.executionListener == null) {
+                    return execution;
+                }
+
+                return ExecutionInstrumentation.instrument(execution.flux(), this.executionListener, this.sql, window.size());
+            }, maxInFlight, 1)
+            .doOnComplete(this.onExecuted);
     }
 
     @Override
@@ -95,8 +219,160 @@ public final class Update {
     Update bind(int index, Object value) {
         Assert.requireNonNull(value, "value must not be null");
 
-        this.statement.bind(index, value);
+        if (!capture(index, value)) {
+            this.statement.bind(index, value);
+        }
+
         return this;
     }
 
+    private static boolean isComplete(Object[] row) {
+        for (Object value : row) {
+            if (value == null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isEmpty(Object[] row) {
+        for (Object value : row) {
+            if (value != null) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean capture(Object identifier, Object value) {
+        if (this.insertRewrite == null || this.currentRow == null) {
+            return false;
+        }
+
+        int index = getIndex(identifier);
+        if (index < 0 || index >= this.currentRow.length) {
+            replay();
+            return false;
+        }
+
+        this.currentRow[index] = value;
+        return true;
+    }
+
+    private Flux<Integer> executeRewritten() {
+        InsertRewrite insertRewrite = this.insertRewrite;
+        List<Object[]> rows = this.rows;
+        Object[] currentRow = this.currentRow;
+
+        if (insertRewrite == null || rows == null || currentRow == null) {
+            return execute(this.statement)
+                .flatMap(Result::getRowsUpdated);
+        }
+
+        List<Object[]> all = new ArrayList<>(rows);
+        if (!isEmpty(currentRow)) {
+            all.add(currentRow);
+        }
+
+        if (all.isEmpty() || !all.stream().allMatch(Update::isComplete)) {
+            replay();
+            return execute(this.statement)
+                .flatMap(Result::getRowsUpdated);
+        }
+
+        List<List<Object[]>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += insertRewrite.getMaxRows()) {
+            chunks.add(all.subList(i, Math.min(all.size(), i + insertRewrite.getMaxRows())));
+        }
+
+        return Flux.fromIterable(chunks)
+            .concatMap(chunk -> {
+                Statement statement = this.statementFactory.apply(insertRewrite.getSql(chunk.size()));
+
+                for (int row = 0; row < chunk.size(); row++) {
+                    Object[] values = chunk.get(row);
+
+                    for (int i = 0; i < values.length; i++) {
+                        NullValue.bind(statement, row * values.length + i, values[i]);
+                    }
+                }
+
+                return execute(statement)
+                    .flatMap(Result::getRowsUpdated)
+                    .concatMap(rowsUpdated -> Flux.range(0, chunk.size())
+                        .map(row -> row < rowsUpdated ? 1 : 0));
+            });
+    }
+
+    private int getIndex(Object identifier) {
+        if (identifier instanceof Integer) {
+            return (Integer) identifier;
+        }
+
+        if (identifier instanceof String && ((String) identifier).startsWith("$")) {
+            try {
+                return Integer.parseInt(((String) identifier).substring(1)) - 1;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+    @Nullable
+    private int[] getIndexes(Object identifier) {
+        return this.namedParameters == null || !(identifier instanceof String) ? null : this.namedParameters.getIndexes((String) identifier);
+    }
+
+    private void replay() {
+        List<Object[]> rows = this.rows;
+        Object[] currentRow = this.currentRow;
+
+        this.insertRewrite = null;
+        this.rows = null;
+        this.currentRow = null;
+
+        if (rows == null || currentRow == null) {
+            return;
+        }
+
+        for (Object[] row : rows) {
+            replay(row);
+            this.statement.add();
+        }
+
+        replay(currentRow);
+    }
+
+    private void replay(Object[] row) {
+        for (int i = 0; i < row.length; i++) {
+            if (row[i] != null) {
+                NullValue.bind(this.statement, i, row[i]);
+            }
+        }
+    }
+
+    private Flux<Result> execute(Statement statement) {
+        return this.transaction == null ? Flux.from(statement.execute()) : this.transaction.execute(statement::execute);
+    }
+
+    private Mono<Integer> executeWindow(List<Object[]> window) {
+        Statement statement = this.statementFactory.apply(this.sql);
+
+        for (Object[] parameters : window) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.bind(i, Assert.requireNonNull(parameters[i], "value must not be null"));
+            }
+
+            statement.add();
+        }
+
+        return execute(statement)
+            .flatMap(Result::getRowsUpdated)
+            .reduce(0, Integer::sum);
+    }
+
 }
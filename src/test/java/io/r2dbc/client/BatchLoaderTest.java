@@ -0,0 +1,148 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.test.MockConnection;
+import io.r2dbc.spi.test.MockResult;
+import io.r2dbc.spi.test.MockRow;
+import io.r2dbc.spi.test.MockRowMetadata;
+import io.r2dbc.spi.test.MockStatement;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class BatchLoaderTest {
+
+    private final MockStatement statement = MockStatement.builder()
+        .result(MockResult.builder()
+            .rowMetadata(MockRowMetadata.empty())
+            .row(MockRow.builder()
+                    .identified(0, Integer.class, 100)
+                    .build(),
+                MockRow.builder()
+                    .identified(0, Integer.class, 200)
+                    .build())
+            .build())
+        .build();
+
+    private final MockConnection connection = MockConnection.builder()
+        .statement(this.statement)
+        .build();
+
+    @Test
+    void constructorNoBindMarker() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Handle(this.connection).createBatchLoader("SELECT * FROM test", (row, rowMetadata) -> 1, Function.identity(), 10,
+            Duration.ofMillis(10)))
+            .withMessage("sql must contain exactly one bind marker");
+    }
+
+    @Test
+    void constructorTwoBindMarkers() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Handle(this.connection).createBatchLoader("SELECT * FROM test WHERE id IN ($1) AND value = $2",
+            (row, rowMetadata) -> 1, Function.identity(), 10, Duration.ofMillis(10)))
+            .withMessage("sql must contain exactly one bind marker");
+    }
+
+    @Test
+    void getSql() {
+        BatchLoader<Integer, Integer> batchLoader = new BatchLoader<>("SELECT * FROM test WHERE id IN (@P0) ORDER BY id", sql -> null, BindMarkers.AT_P, (row, rowMetadata) -> 1,
+            Function.identity(), 10, Duration.ofMillis(10));
+
+        assertThat(batchLoader.getSql(3)).isEqualTo("SELECT * FROM test WHERE id IN (@P0, @P1, @P2) ORDER BY id");
+    }
+
+    @Test
+    void load() {
+        BatchLoader<Integer, Integer> batchLoader = new Handle(this.connection)
+            .createBatchLoader("SELECT id FROM test WHERE id IN ($1)", (row, rowMetadata) -> row.get(0, Integer.class), Function.identity(), 10, Duration.ofMillis(10));
+
+        Mono.zip(batchLoader.load(100), batchLoader.load(200), batchLoader.load(100))
+            .as(StepVerifier::create)
+            .assertNext(values -> {
+                assertThat(values.getT1()).isEqualTo(100);
+                assertThat(values.getT2()).isEqualTo(200);
+                assertThat(values.getT3()).isEqualTo(100);
+            })
+            .verifyComplete();
+
+        assertThat(this.connection.getCreateStatementSql()).isEqualTo("SELECT id FROM test WHERE id IN ($1, $2)");
+        assertThat(this.statement.getBindings()).contains(bindings(100, 200));
+    }
+
+    @Test
+    void loadBucket() {
+        BatchLoader<Integer, Integer> batchLoader = new Handle(this.connection)
+            .createBatchLoader("SELECT id FROM test WHERE id IN ($1)", (row, rowMetadata) -> row.get(0, Integer.class), Function.identity(), 10, Duration.ofMillis(10));
+
+        Mono.zip(batchLoader.load(100), batchLoader.load(200), batchLoader.load(300))
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(this.connection.getCreateStatementSql()).isEqualTo("SELECT id FROM test WHERE id IN ($1, $2, $3, $4)");
+        assertThat(this.statement.getBindings()).contains(bindings(100, 200, 300, 300));
+    }
+
+    @Test
+    void loadMaxBatchSize() {
+        BatchLoader<Integer, Integer> batchLoader = new Handle(this.connection)
+            .createBatchLoader("SELECT id FROM test WHERE id IN ($1)", (row, rowMetadata) -> row.get(0, Integer.class), Function.identity(), 2, Duration.ofDays(1));
+
+        Mono.zip(batchLoader.load(100), batchLoader.load(200))
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void loadMissing() {
+        BatchLoader<Integer, Integer> batchLoader = new Handle(this.connection)
+            .createBatchLoader("SELECT id FROM test WHERE id IN ($1)", (row, rowMetadata) -> row.get(0, Integer.class), Function.identity(), 10, Duration.ofMillis(10));
+
+        batchLoader.load(300)
+            .as(StepVerifier::create)
+            .verifyComplete();
+    }
+
+    @Test
+    void loadNoKey() {
+        BatchLoader<Integer, Integer> batchLoader = new Handle(this.connection)
+            .createBatchLoader("SELECT id FROM test WHERE id IN ($1)", (row, rowMetadata) -> row.get(0, Integer.class), Function.identity(), 10, Duration.ofMillis(10));
+
+        assertThatIllegalArgumentException().isThrownBy(() -> batchLoader.load(null))
+            .withMessage("key must not be null");
+    }
+
+    private static Map<Object, Object> bindings(Object... values) {
+        Map<Object, Object> bindings = new HashMap<>();
+
+        for (int i = 0; i < values.length; i++) {
+            bindings.put(i, values[i]);
+        }
+
+        return bindings;
+    }
+
+}
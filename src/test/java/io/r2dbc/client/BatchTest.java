@@ -22,6 +22,12 @@ import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
@@ -67,10 +73,82 @@ final class BatchTest {
             .verifyComplete();
     }
 
+    @Test
+    void mapResultExecutionListener() {
+        MockBatch batch = MockBatch.builder()
+            .result(MockResult.empty())
+            .build();
+
+        List<ExecutionInfo> executions = new ArrayList<>();
+
+        new Batch(batch, new ExecutionListener() {
+
+            @Override
+            public void afterExecution(ExecutionInfo executionInfo) {
+                executions.add(executionInfo);
+            }
+
+        }, null, null)
+            .add("test-query-1")
+            .add("test-query-2")
+            .mapResult(actual -> Mono.error(new IllegalStateException()))
+            .as(StepVerifier::create)
+            .verifyError(IllegalStateException.class);
+
+        assertThat(executions).hasSize(1);
+        assertThat(executions.get(0).getBindings()).isEqualTo(2);
+        assertThat(executions.get(0).getError()).isInstanceOf(IllegalStateException.class);
+        assertThat(executions.get(0).getRows()).isZero();
+        assertThat(executions.get(0).getSql()).isEqualTo("test-query-1; test-query-2");
+    }
+
+    @Test
+    void mapResultInvalidate() {
+        MockBatch batch = MockBatch.builder()
+            .result(MockResult.empty())
+            .build();
+
+        List<Set<String>> invalidations = new ArrayList<>();
+
+        new Batch(batch, null, null, invalidations::add)
+            .add("INSERT INTO test VALUES (100)")
+            .add("DELETE FROM other.test_two WHERE id = 200")
+            .mapResult(actual -> Mono.just(1))
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+
+        assertThat(invalidations).containsExactly(new HashSet<>(Arrays.asList("test", "test_two")));
+    }
+
     @Test
     void mapResultNoF() {
         assertThatIllegalArgumentException().isThrownBy(() -> new Batch(MockBatch.empty()).mapResult(null))
             .withMessage("f must not be null");
     }
 
+    @Test
+    void mapResultNoStrategy() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Batch(MockBatch.empty()).mapResult(Mono::just, null))
+            .withMessage("strategy must not be null");
+    }
+
+    @Test
+    void mapResultStrategy() {
+        MockResult result = MockResult.empty();
+
+        MockBatch batch = MockBatch.builder()
+            .result(result)
+            .build();
+
+        new Batch(batch)
+            .mapResult(actual -> {
+                assertThat(actual).isSameAs(result);
+                return Mono.just(1);
+            }, ResultStrategy.builder().ordered(true).prefetch(1).build())
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+    }
+
 }
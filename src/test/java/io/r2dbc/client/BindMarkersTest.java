@@ -0,0 +1,56 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class BindMarkersTest {
+
+    @Test
+    void getIndex() {
+        assertThat(BindMarkers.DOLLAR.getIndex(2)).isEqualTo(2);
+        assertThat(BindMarkers.DOLLAR.getIndex("$3")).isEqualTo(2);
+        assertThat(BindMarkers.DOLLAR.getIndex("$0")).isEqualTo(-1);
+        assertThat(BindMarkers.AT_P.getIndex("@P3")).isEqualTo(3);
+        assertThat(BindMarkers.AT_P.getIndex("name")).isEqualTo(-1);
+        assertThat(BindMarkers.QUESTION_MARK.getIndex("?")).isEqualTo(-1);
+    }
+
+    @Test
+    void getPlaceholder() {
+        assertThat(BindMarkers.DOLLAR.getPlaceholder(0)).isEqualTo("$1");
+        assertThat(BindMarkers.AT_P.getPlaceholder(0)).isEqualTo("@P0");
+        assertThat(BindMarkers.QUESTION_MARK.getPlaceholder(0)).isEqualTo("?");
+    }
+
+    @Test
+    void getPlaceholders() {
+        assertThat(BindMarkers.DOLLAR.getPlaceholders(1, 3)).isEqualTo("$2, $3, $4");
+        assertThat(BindMarkers.AT_P.getPlaceholders(0, 2)).isEqualTo("@P0, @P1");
+        assertThat(BindMarkers.QUESTION_MARK.getPlaceholders(0, 2)).isEqualTo("?, ?");
+    }
+
+    @Test
+    void indexOf() {
+        assertThat(BindMarkers.DOLLAR.indexOf("SELECT $10, $1", 0)).isEqualTo(12);
+        assertThat(BindMarkers.DOLLAR.indexOf("SELECT $10", 0)).isEqualTo(-1);
+        assertThat(BindMarkers.AT_P.indexOf("SELECT @P0", 0)).isEqualTo(7);
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.test.MockColumnMetadata;
+import io.r2dbc.spi.test.MockResult;
+import io.r2dbc.spi.test.MockRow;
+import io.r2dbc.spi.test.MockRowMetadata;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class CachedResultTest {
+
+    private final MockResult result = MockResult.builder()
+        .rowMetadata(MockRowMetadata.builder()
+            .columnMetadata(columnMetadata("id"))
+            .columnMetadata(columnMetadata("name"))
+            .build())
+        .row(MockRow.builder()
+                .identified(0, Object.class, 100)
+                .identified(1, Object.class, "test-name-1")
+                .build(),
+            MockRow.builder()
+                .identified(0, Object.class, 200)
+                .identified(1, Object.class, "test-name-2")
+                .build())
+        .build();
+
+    @Test
+    void detach() {
+        CachedResult.detach(this.result)
+            .map(row -> row.get("name", String.class) + ":" + row.getRowMetadata().getColumnMetadatas().iterator().next().getName())
+            .as(StepVerifier::create)
+            .expectNext("test-name-1:id", "test-name-2:id")
+            .verifyComplete();
+    }
+
+    @Test
+    void map() {
+        CachedResult cachedResult = CachedResult.materialize(this.result).block();
+
+        Flux.from(cachedResult
+            .map((row, rowMetadata) -> row.get("NAME", String.class) + ":" + row.get(0, Integer.class)))
+            .concatWith(cachedResult.map((row, rowMetadata) -> row.get("name", String.class)))
+            .as(StepVerifier::create)
+            .expectNext("test-name-1:100", "test-name-2:200", "test-name-1", "test-name-2")
+            .verifyComplete();
+    }
+
+    @Test
+    void mapByteArray() {
+        byte[] value = new byte[]{1, 2};
+        CachedResult cachedResult = CachedResult.materialize(singleValue(value)).block();
+        value[0] = 3;
+
+        Flux.from(cachedResult
+            .map((row, rowMetadata) -> {
+                byte[] bytes = row.get(0, byte[].class);
+                bytes[1] = 4;
+                return bytes;
+            }))
+            .concatWith(cachedResult.map((row, rowMetadata) -> row.get(0, byte[].class)))
+            .as(StepVerifier::create)
+            .assertNext(bytes -> assertThat(bytes).containsExactly((byte) 1, (byte) 4))
+            .assertNext(bytes -> assertThat(bytes).containsExactly((byte) 1, (byte) 2))
+            .verifyComplete();
+    }
+
+    @Test
+    void mapByteBuffer() {
+        CachedResult cachedResult = CachedResult.materialize(singleValue(ByteBuffer.wrap(new byte[]{1, 2}))).block();
+
+        Flux.from(cachedResult
+            .map((row, rowMetadata) -> {
+                ByteBuffer buffer = row.get(0, ByteBuffer.class);
+                buffer.get(new byte[2]);
+                return buffer.remaining();
+            }))
+            .concatWith(cachedResult.map((row, rowMetadata) -> row.get(0, ByteBuffer.class).remaining()))
+            .as(StepVerifier::create)
+            .expectNext(0, 2)
+            .verifyComplete();
+    }
+
+    @Test
+    void mapNoColumn() {
+        CachedResult cachedResult = CachedResult.materialize(this.result).block();
+
+        Flux.from(cachedResult
+            .map((row, rowMetadata) -> row.get("test-column", String.class)))
+            .as(StepVerifier::create)
+            .verifyErrorMessage("Column test-column does not exist");
+    }
+
+    @Test
+    void mapWrongType() {
+        CachedResult cachedResult = CachedResult.materialize(this.result).block();
+
+        Flux.from(cachedResult
+            .map((row, rowMetadata) -> row.get("id", String.class)))
+            .as(StepVerifier::create)
+            .verifyErrorMessage("Cannot return value of type java.lang.Integer as java.lang.String");
+    }
+
+    @Test
+    void materializeEmpty() {
+        CachedResult.materialize(MockResult.empty())
+            .flatMapMany(cachedResult -> cachedResult.map((row, rowMetadata) -> row))
+            .as(StepVerifier::create)
+            .verifyComplete();
+    }
+
+    @Test
+    void materializeNotReplayable() {
+        assertThat(CachedResult.materialize(this.result).block().isReplayable()).isTrue();
+        assertThat(CachedResult.materialize(singleValue(Mono.just("test-value"))).block().isReplayable()).isFalse();
+    }
+
+    private static MockColumnMetadata columnMetadata(String name) {
+        return MockColumnMetadata.builder()
+            .name(name)
+            .nativeTypeMetadata(100)
+            .build();
+    }
+
+    private static MockResult singleValue(Object value) {
+        return MockResult.builder()
+            .rowMetadata(MockRowMetadata.builder()
+                .columnMetadata(columnMetadata("value"))
+                .build())
+            .row(MockRow.builder()
+                .identified(0, Object.class, value)
+                .build())
+            .build();
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class ConcurrencyLimitConfigurationTest {
+
+    @Test
+    void build() {
+        ConcurrencyLimitConfiguration configuration = ConcurrencyLimitConfiguration.builder()
+            .initialLimit(5)
+            .maxLimit(50)
+            .maxQueueSize(20)
+            .minLimit(2)
+            .build();
+
+        assertThat(configuration.getInitialLimit()).isEqualTo(5);
+        assertThat(configuration.getMaxLimit()).isEqualTo(50);
+        assertThat(configuration.getMaxQueueSize()).isEqualTo(20);
+        assertThat(configuration.getMinLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void buildInitialLimitGreaterThanMaxLimit() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimitConfiguration.builder().initialLimit(20).maxLimit(10).build())
+            .withMessage("initialLimit must not be greater than maxLimit");
+    }
+
+    @Test
+    void buildMinLimitGreaterThanInitialLimit() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimitConfiguration.builder().initialLimit(5).minLimit(10).build())
+            .withMessage("minLimit must not be greater than initialLimit");
+    }
+
+    @Test
+    void initialLimitZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimitConfiguration.builder().initialLimit(0))
+            .withMessage("initialLimit must be positive");
+    }
+
+    @Test
+    void maxLimitZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimitConfiguration.builder().maxLimit(0))
+            .withMessage("maxLimit must be positive");
+    }
+
+    @Test
+    void maxQueueSizeNegative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimitConfiguration.builder().maxQueueSize(-1))
+            .withMessage("maxQueueSize must not be negative");
+    }
+
+    @Test
+    void minLimitZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ConcurrencyLimitConfiguration.builder().minLimit(0))
+            .withMessage("minLimit must be positive");
+    }
+
+}
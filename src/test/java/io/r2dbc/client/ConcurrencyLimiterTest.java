@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class ConcurrencyLimiterTest {
+
+    @Test
+    void constructorNoConfiguration() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ConcurrencyLimiter(null))
+            .withMessage("configuration must not be null");
+    }
+
+    @Test
+    void drop() {
+        ConcurrencyLimiter limiter = limiter(20, 0);
+
+        limiter.drop();
+
+        assertThat(limiter.getLimit()).isEqualTo(18);
+    }
+
+    @Test
+    void dropMinLimit() {
+        ConcurrencyLimiter limiter = limiter(20, 0);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.drop();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void limit() {
+        ConcurrencyLimiter limiter = limiter(1, 1);
+
+        limiter.limit(Flux.just(100, 200))
+            .as(StepVerifier::create)
+            .expectNext(100, 200)
+            .verifyComplete();
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitCancelQueued() {
+        ConcurrencyLimiter limiter = limiter(1, 1);
+        MonoProcessor<Integer> first = MonoProcessor.create();
+
+        limiter.limit(first).subscribe();
+        Disposable second = limiter.limit(Mono.just(200)).subscribe();
+
+        assertThat(limiter.getQueueSize()).isEqualTo(1);
+
+        second.dispose();
+
+        assertThat(limiter.getQueueSize()).isZero();
+
+        first.onNext(100);
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitError() {
+        ConcurrencyLimiter limiter = limiter(1, 1);
+
+        limiter.limit(Mono.error(new IllegalStateException()))
+            .as(StepVerifier::create)
+            .verifyError(IllegalStateException.class);
+
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitErrorBacksOff() {
+        ConcurrencyLimiter limiter = limiter(20, 0);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.limit(Mono.error(new IllegalStateException()))
+                .as(StepVerifier::create)
+                .verifyError(IllegalStateException.class);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(10);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void limitNoExecution() {
+        assertThatIllegalArgumentException().isThrownBy(() -> limiter(1, 1).limit(null))
+            .withMessage("execution must not be null");
+    }
+
+    @Test
+    void limitQueued() {
+        ConcurrencyLimiter limiter = limiter(1, 1);
+        MonoProcessor<Integer> first = MonoProcessor.create();
+        List<Integer> results = new ArrayList<>();
+
+        limiter.limit(first).subscribe(results::add);
+        limiter.limit(Mono.just(200)).subscribe(results::add);
+
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.getQueueSize()).isEqualTo(1);
+
+        first.onNext(100);
+
+        assertThat(results).containsExactly(100, 200);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getQueueSize()).isZero();
+    }
+
+    @Test
+    void limitRejected() {
+        ConcurrencyLimiter limiter = limiter(1, 0);
+
+        limiter.limit(MonoProcessor.<Integer>create()).subscribe();
+
+        limiter.limit(Mono.just(200))
+            .as(StepVerifier::create)
+            .verifyErrorSatisfies(t -> assertThat(t).isInstanceOf(RejectedExecutionException.class).hasMessage("Concurrency limit of 1 reached with 0 executions queued"));
+    }
+
+    @Test
+    void updateLatencyRising() {
+        ConcurrencyLimiter limiter = limiter(20, 0);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.update(10_000_000, limiter.getLimit());
+        }
+
+        int limit = limiter.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.update(100_000_000, limiter.getLimit());
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(limit);
+    }
+
+    @Test
+    void updateLatencyStable() {
+        ConcurrencyLimiter limiter = limiter(20, 0);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.update(10_000_000, limiter.getLimit());
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void updateUnderutilized() {
+        ConcurrencyLimiter limiter = limiter(20, 0);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.update(10_000_000, 1);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(20);
+    }
+
+    private static ConcurrencyLimiter limiter(int initialLimit, int maxQueueSize) {
+        ConcurrencyLimitConfiguration configuration = ConcurrencyLimitConfiguration.builder()
+            .initialLimit(initialLimit)
+            .maxLimit(initialLimit == 1 ? 1 : 100)
+            .maxQueueSize(maxQueueSize)
+            .build();
+
+        return new ConcurrencyLimiter(configuration, () -> 0L);
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.test.MockConnection;
+import io.r2dbc.spi.test.MockConnectionFactory;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class ConnectionPoolTest {
+
+    @Test
+    void acquire() {
+        MockConnection connection = MockConnection.empty();
+
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(connection), PoolConfiguration.builder().build());
+
+        connectionPool
+            .acquire()
+            .as(StepVerifier::create)
+            .assertNext(pooledConnection -> assertThat(pooledConnection.getConnection()).isSameAs(connection))
+            .verifyComplete();
+
+        assertThat(connectionPool.getSize()).isEqualTo(1);
+        assertThat(connectionPool.getIdleSize()).isEqualTo(0);
+    }
+
+    @Test
+    void acquireAfterClose() {
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(MockConnection.empty()), PoolConfiguration.builder().build());
+
+        connectionPool
+            .close()
+            .thenMany(connectionPool.acquire())
+            .as(StepVerifier::create)
+            .verifyErrorMatches(t -> t instanceof IllegalStateException && "Connection pool is closed".equals(t.getMessage()));
+    }
+
+    @Test
+    void acquirePriority() {
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(MockConnection.empty()), PoolConfiguration.builder().maxSize(1).build());
+
+        PooledConnection pooledConnection = connectionPool.acquire().block();
+        List<Integer> order = new ArrayList<>();
+
+        acquireInOrder(connectionPool, 0, order);
+        acquireInOrder(connectionPool, 5, order);
+        acquireInOrder(connectionPool, 10, order);
+        acquireInOrder(connectionPool, 5, order);
+
+        connectionPool.release(pooledConnection);
+
+        assertThat(order).containsExactly(10, 5, 5, 0);
+        assertThat(connectionPool.getWaiterCount()).isEqualTo(0);
+    }
+
+    @Test
+    void acquirePriorityAging() throws InterruptedException {
+        PoolConfiguration configuration = PoolConfiguration.builder()
+            .maxSize(1)
+            .priorityAgingInterval(Duration.ofMillis(1))
+            .build();
+
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(MockConnection.empty()), configuration);
+
+        PooledConnection pooledConnection = connectionPool.acquire().block();
+        List<Integer> order = new ArrayList<>();
+
+        acquireInOrder(connectionPool, 0, order);
+        Thread.sleep(50);
+        acquireInOrder(connectionPool, 10, order);
+
+        connectionPool.release(pooledConnection);
+
+        assertThat(order).containsExactly(0, 10);
+    }
+
+    @Test
+    void acquireReusesReleased() {
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(MockConnection.empty()), PoolConfiguration.builder().build());
+
+        PooledConnection pooledConnection = connectionPool.acquire().block();
+        connectionPool.release(pooledConnection);
+
+        assertThat(connectionPool.getIdleSize()).isEqualTo(1);
+
+        connectionPool
+            .acquire()
+            .as(StepVerifier::create)
+            .expectNext(pooledConnection)
+            .verifyComplete();
+
+        assertThat(connectionPool.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void acquireTimeout() {
+        PoolConfiguration configuration = PoolConfiguration.builder()
+            .acquireTimeout(Duration.ofMillis(100))
+            .maxSize(1)
+            .build();
+
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(MockConnection.empty()), configuration);
+
+        connectionPool.acquire().block();
+
+        connectionPool
+            .acquire()
+            .as(StepVerifier::create)
+            .verifyError(TimeoutException.class);
+
+        assertThat(connectionPool.getWaiterCount()).isEqualTo(0);
+    }
+
+    @Test
+    void acquireWaitsForRelease() {
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(MockConnection.empty()), PoolConfiguration.builder().maxSize(1).build());
+
+        PooledConnection pooledConnection = connectionPool.acquire().block();
+
+        connectionPool
+            .acquire()
+            .as(StepVerifier::create)
+            .then(() -> connectionPool.release(pooledConnection))
+            .expectNext(pooledConnection)
+            .verifyComplete();
+    }
+
+    @Test
+    void close() {
+        MockConnection connection = MockConnection.empty();
+
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(connection), PoolConfiguration.builder().build());
+
+        connectionPool.release(connectionPool.acquire().block());
+
+        connectionPool
+            .close()
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(connection.isCloseCalled()).isTrue();
+        assertThat(connectionPool.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    void constructorNoConfiguration() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ConnectionPool(MockConnectionFactory.empty(), null))
+            .withMessage("configuration must not be null");
+    }
+
+    @Test
+    void constructorNoConnectionFactory() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new ConnectionPool(null, PoolConfiguration.builder().build()))
+            .withMessage("connectionFactory must not be null");
+    }
+
+    @Test
+    void releaseTwice() {
+        ConnectionPool connectionPool = new ConnectionPool(connectionFactory(MockConnection.empty()), PoolConfiguration.builder().build());
+
+        PooledConnection pooledConnection = connectionPool.acquire().block();
+        connectionPool.release(pooledConnection);
+        connectionPool.release(pooledConnection);
+
+        assertThat(connectionPool.getIdleSize()).isEqualTo(1);
+    }
+
+    private static void acquireInOrder(ConnectionPool connectionPool, int priority, List<Integer> order) {
+        connectionPool
+            .acquire(priority)
+            .subscribe(pooledConnection -> {
+                order.add(priority);
+                connectionPool.release(pooledConnection);
+            });
+    }
+
+    private static MockConnectionFactory connectionFactory(MockConnection connection) {
+        return MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.test.MockConnection;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class DeferredTransactionTest {
+
+    @Test
+    void constructorNoConnection() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new DeferredTransaction(null))
+            .withMessage("connection must not be null");
+    }
+
+    @Test
+    void execute() {
+        MockConnection connection = MockConnection.empty();
+        DeferredTransaction transaction = new DeferredTransaction(connection);
+
+        Flux.merge(transaction.execute(() -> Mono.just(1)), transaction.execute(() -> Mono.just(2)))
+            .as(StepVerifier::create)
+            .expectNextCount(2)
+            .verifyComplete();
+
+        assertThat(connection.isBeginTransactionCalled()).isTrue();
+        assertThat(transaction.isBegun()).isTrue();
+    }
+
+    @Test
+    void notBegun() {
+        MockConnection connection = MockConnection.empty();
+        DeferredTransaction transaction = new DeferredTransaction(connection);
+
+        transaction.execute(() -> Mono.just(1));
+
+        assertThat(connection.isBeginTransactionCalled()).isFalse();
+        assertThat(transaction.isBegun()).isFalse();
+    }
+
+}
@@ -16,16 +16,24 @@
 
 package io.r2dbc.client;
 
+import io.r2dbc.spi.R2dbcException;
 import io.r2dbc.spi.test.MockBatch;
 import io.r2dbc.spi.test.MockConnection;
 import io.r2dbc.spi.test.MockResult;
 import io.r2dbc.spi.test.MockStatement;
 import org.junit.jupiter.api.Test;
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.r2dbc.spi.IsolationLevel.SERIALIZABLE;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -55,6 +63,44 @@ final class HandleTest {
         assertThat(connection.isCloseCalled()).isTrue();
     }
 
+    @Test
+    void closeCloser() {
+        MockConnection connection = MockConnection.empty();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Publisher<Void> publisher = new Handle(connection, () -> Mono.fromRunnable(() -> closed.set(true)))
+            .close();
+
+        StepVerifier.create(publisher).verifyComplete();
+        assertThat(closed).isTrue();
+        assertThat(connection.isCloseCalled()).isFalse();
+    }
+
+    @Test
+    void closeTransactionCommitted() {
+        MockConnection connection = MockConnection.empty();
+        Handle handle = new Handle(connection);
+
+        StepVerifier.create(handle.beginTransaction()).verifyComplete();
+        StepVerifier.create(handle.commitTransaction()).verifyComplete();
+        StepVerifier.create(handle.close()).verifyComplete();
+
+        assertThat(connection.isRollbackTransactionCalled()).isFalse();
+        assertThat(connection.isCloseCalled()).isTrue();
+    }
+
+    @Test
+    void closeTransactionOpen() {
+        MockConnection connection = MockConnection.empty();
+        Handle handle = new Handle(connection);
+
+        StepVerifier.create(handle.beginTransaction()).verifyComplete();
+        StepVerifier.create(handle.close()).verifyComplete();
+
+        assertThat(connection.isRollbackTransactionCalled()).isTrue();
+        assertThat(connection.isCloseCalled()).isTrue();
+    }
+
     @Test
     void commitTransaction() {
         MockConnection connection = MockConnection.empty();
@@ -72,6 +118,12 @@ final class HandleTest {
             .withMessage("connection must not be null");
     }
 
+    @Test
+    void constructorNoCloser() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Handle(MockConnection.empty(), null))
+            .withMessage("closer must not be null");
+    }
+
     @Test
     void createBatch() {
         MockConnection connection = MockConnection.builder()
@@ -97,6 +149,33 @@ final class HandleTest {
         assertThat(connection.getCreateStatementSql()).isEqualTo("test-query");
     }
 
+    @Test
+    void createQueryStatementCache() {
+        MockStatement statement = MockStatement.empty();
+
+        MockConnection connection = MockConnection.builder()
+            .statement(statement)
+            .build();
+
+        StatementCacheMetrics metrics = new StatementCacheMetrics();
+        Handle handle = new Handle(connection, connection::close, new StatementCache(1, metrics), null, false, 0, null, BindMarkers.DOLLAR, null, null);
+
+        handle
+            .createQuery("test-query")
+            .mapResult(Mono::just)
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        handle
+            .createQuery("test-query")
+            .mapResult(Mono::just)
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(metrics.getHits()).isEqualTo(1);
+        assertThat(metrics.getMisses()).isEqualTo(1);
+    }
+
     @Test
     void createQueryNoSql() {
         assertThatIllegalArgumentException().isThrownBy(() -> new Handle(MockConnection.empty()).createQuery(null))
@@ -120,6 +199,34 @@ final class HandleTest {
             .withMessage("name must not be null");
     }
 
+    @Test
+    void createStreamingBatch() {
+        MockConnection connection = MockConnection.builder()
+            .batch(MockBatch.builder()
+                .result(MockResult.empty())
+                .build())
+            .build();
+
+        new Handle(connection)
+            .createStreamingBatch(Flux.just("test-query-1", "test-query-2"), 1, 100, 1)
+            .mapResult(result -> Mono.just(1))
+            .as(StepVerifier::create)
+            .expectNext(1, 1)
+            .verifyComplete();
+    }
+
+    @Test
+    void createStreamingBatchMaxStatementsZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Handle(MockConnection.empty()).createStreamingBatch(Flux.empty(), 0, 1, 1))
+            .withMessage("maxStatements must be positive");
+    }
+
+    @Test
+    void createStreamingBatchNoStatements() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Handle(MockConnection.empty()).createStreamingBatch(null, 1, 1, 1))
+            .withMessage("statements must not be null");
+    }
+
     @Test
     void createUpdate() {
         MockConnection connection = MockConnection.builder()
@@ -133,6 +240,34 @@ final class HandleTest {
         assertThat(connection.getCreateStatementSql()).isEqualTo("test-update");
     }
 
+    @Test
+    void createUpdateStatementCache() {
+        MockStatement statement = MockStatement.empty();
+
+        MockConnection connection = MockConnection.builder()
+            .statement(statement)
+            .build();
+
+        StatementCacheMetrics metrics = new StatementCacheMetrics();
+        StatementCache statementCache = new StatementCache(1, metrics);
+        Handle handle = new Handle(connection, connection::close, statementCache, null, false, 0, null, BindMarkers.DOLLAR, null, null);
+
+        handle
+            .execute("test-update", 100)
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        handle
+            .execute("test-update", 200)
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(metrics.getHits()).isEqualTo(1);
+        assertThat(metrics.getMisses()).isEqualTo(1);
+        assertThat(statementCache.size()).isEqualTo(1);
+        assertThat(statement.getBindings()).contains(Collections.singletonMap(0, 100), Collections.singletonMap(0, 200));
+    }
+
     @Test
     void createUpdateNoSql() {
         assertThatIllegalArgumentException().isThrownBy(() -> new Handle(MockConnection.empty()).createUpdate(null))
@@ -182,6 +317,56 @@ final class HandleTest {
         assertThat(connection.isCommitTransactionCalled()).isTrue();
     }
 
+    @Test
+    void inTransactionDeferred() {
+        MockConnection connection = MockConnection.builder()
+            .statement(MockStatement.builder()
+                .result(MockResult.builder()
+                    .rowsUpdated(100)
+                    .build())
+                .build())
+            .build();
+
+        new Handle(connection, connection::close, null, null, true, 0, null, BindMarkers.DOLLAR, null, null)
+            .inTransaction(handle -> handle.execute("test-update"))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        assertThat(connection.isBeginTransactionCalled()).isTrue();
+        assertThat(connection.isCommitTransactionCalled()).isTrue();
+    }
+
+    @Test
+    void inTransactionDeferredError() {
+        MockConnection connection = MockConnection.empty();
+        Exception exception = new Exception();
+
+        new Handle(connection, connection::close, null, null, true, 0, null, BindMarkers.DOLLAR, null, null)
+            .inTransaction(handle ->
+                Mono.error(exception))
+            .as(StepVerifier::create)
+            .verifyErrorMatches(exception::equals);
+
+        assertThat(connection.isBeginTransactionCalled()).isFalse();
+        assertThat(connection.isRollbackTransactionCalled()).isFalse();
+    }
+
+    @Test
+    void inTransactionDeferredNoStatements() {
+        MockConnection connection = MockConnection.empty();
+
+        new Handle(connection, connection::close, null, null, true, 0, null, BindMarkers.DOLLAR, null, null)
+            .inTransaction(handle ->
+                Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        assertThat(connection.isBeginTransactionCalled()).isFalse();
+        assertThat(connection.isCommitTransactionCalled()).isFalse();
+    }
+
     @Test
     void inTransactionError() {
         MockConnection connection = MockConnection.empty();
@@ -197,6 +382,83 @@ final class HandleTest {
         assertThat(connection.isRollbackTransactionCalled()).isTrue();
     }
 
+    @Test
+    void inTransactionNested() {
+        MockConnection connection = MockConnection.empty();
+        Exception exception = new Exception();
+
+        new Handle(connection)
+            .inTransaction(outer -> outer
+                .inTransaction(inner ->
+                    Mono.error(exception)))
+            .as(StepVerifier::create)
+            .verifyErrorMatches(exception::equals);
+
+        assertThat(connection.isBeginTransactionCalled()).isTrue();
+        assertThat(connection.isRollbackTransactionCalled()).isTrue();
+    }
+
+    @Test
+    void inTransactionWithRetry() {
+        MockConnection connection = MockConnection.empty();
+        AtomicInteger attempts = new AtomicInteger();
+
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+            .initialBackoff(Duration.ZERO)
+            .build();
+
+        new Handle(connection)
+            .inTransactionWithRetry(retryPolicy, handle -> attempts.incrementAndGet() == 1 ? Mono.error(new R2dbcException("test-reason", "40001") {
+
+            }) : Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        assertThat(attempts).hasValue(2);
+        assertThat(connection.isRollbackTransactionCalled()).isTrue();
+        assertThat(connection.isCommitTransactionCalled()).isTrue();
+        assertThat(retryPolicy.getMetrics().getAttempts()).isEqualTo(2);
+        assertThat(retryPolicy.getMetrics().getRetries()).isEqualTo(1);
+    }
+
+    @Test
+    void inTransactionWithRetryExhausted() {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+            .initialBackoff(Duration.ZERO)
+            .maxAttempts(2)
+            .build();
+
+        new Handle(MockConnection.empty())
+            .inTransactionWithRetry(retryPolicy, handle -> Mono.error(new R2dbcException("test-reason", "40P01") {
+
+            }))
+            .as(StepVerifier::create)
+            .verifyError(R2dbcException.class);
+
+        assertThat(retryPolicy.getMetrics().getAttempts()).isEqualTo(2);
+        assertThat(retryPolicy.getMetrics().getExhausted()).isEqualTo(1);
+    }
+
+    @Test
+    void inTransactionWithRetryNotRetryable() {
+        RetryPolicy retryPolicy = RetryPolicy.builder().build();
+
+        new Handle(MockConnection.empty())
+            .inTransactionWithRetry(retryPolicy, handle -> Mono.error(new IllegalStateException()))
+            .as(StepVerifier::create)
+            .verifyError(IllegalStateException.class);
+
+        assertThat(retryPolicy.getMetrics().getAttempts()).isEqualTo(1);
+        assertThat(retryPolicy.getMetrics().getRetries()).isZero();
+    }
+
+    @Test
+    void inTransactionWithRetryNoRetryPolicy() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Handle(MockConnection.empty()).inTransactionWithRetry(null, handle -> Mono.empty()))
+            .withMessage("retryPolicy must not be null");
+    }
+
     @Test
     void inTransactionIsolationLevel() {
         MockConnection connection = MockConnection.empty();
@@ -292,6 +554,61 @@ final class HandleTest {
         assertThat(statement.getBindings()).contains(Collections.singletonMap(0, 100));
     }
 
+    @Test
+    void selectInList() {
+        MockStatement statement = MockStatement.builder()
+            .result(MockResult.empty())
+            .build();
+
+        MockConnection connection = MockConnection.builder()
+            .statement(statement)
+            .build();
+
+        new Handle(connection)
+            .select("SELECT * FROM test WHERE id IN ($1)", Arrays.asList(100, 200, 300))
+            .mapResult(result -> Mono.just(1))
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+
+        Map<Object, Object> bindings = new HashMap<>();
+        bindings.put(0, 100);
+        bindings.put(1, 200);
+        bindings.put(2, 300);
+        bindings.put(3, 300);
+
+        assertThat(connection.getCreateStatementSql()).isEqualTo("SELECT * FROM test WHERE id IN ($1, $2, $3, $4)");
+        assertThat(statement.getBindings()).contains(bindings);
+    }
+
+    @Test
+    void selectStatementCache() {
+        MockStatement statement = MockStatement.empty();
+
+        MockConnection connection = MockConnection.builder()
+            .statement(statement)
+            .build();
+
+        StatementCacheMetrics metrics = new StatementCacheMetrics();
+        Handle handle = new Handle(connection, connection::close, new StatementCache(1, metrics), null, false, 0, null, BindMarkers.DOLLAR, null, null);
+
+        handle
+            .select("SELECT * FROM test WHERE id = $1", 100)
+            .mapResult(Mono::just)
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        handle
+            .select("SELECT * FROM test WHERE id = $1", 200)
+            .mapResult(Mono::just)
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(metrics.getHits()).isEqualTo(1);
+        assertThat(metrics.getMisses()).isEqualTo(1);
+        assertThat(statement.getBindings()).contains(Collections.singletonMap(0, 100), Collections.singletonMap(0, 200));
+    }
+
     @Test
     void selectNoSql() {
         assertThatIllegalArgumentException().isThrownBy(() -> new Handle(MockConnection.empty()).select(null, new Object()))
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class InListRewriteCacheTest {
+
+    @Test
+    void constructorNoBindMarkers() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new InListRewriteCache(1, null))
+            .withMessage("bindMarkers must not be null");
+    }
+
+    @Test
+    void constructorZeroSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new InListRewriteCache(0, BindMarkers.DOLLAR))
+            .withMessage("size must be positive");
+    }
+
+    @Test
+    void get() {
+        InListRewriteCache cache = new InListRewriteCache(2, BindMarkers.DOLLAR);
+
+        InListRewrite inListRewrite = cache.get("SELECT * FROM test WHERE id IN ($1)");
+
+        assertThat(inListRewrite).isNotNull();
+        assertThat(inListRewrite.getSql(new int[]{2})).isEqualTo("SELECT * FROM test WHERE id IN ($1, $2)");
+        assertThat(cache.get("SELECT * FROM test WHERE id IN ($1)")).isSameAs(inListRewrite);
+    }
+
+    @Test
+    void getEvicts() {
+        InListRewriteCache cache = new InListRewriteCache(2, BindMarkers.DOLLAR);
+
+        InListRewrite first = cache.get("SELECT * FROM test WHERE id IN ($1)");
+        cache.get("SELECT * FROM test WHERE value IN ($1)");
+        cache.get("SELECT * FROM test WHERE parent IN ($1)");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("SELECT * FROM test WHERE id IN ($1)")).isNotSameAs(first);
+    }
+
+    @Test
+    void getNotExpandable() {
+        InListRewriteCache cache = new InListRewriteCache(2, BindMarkers.DOLLAR);
+
+        assertThat(cache.get("SELECT * FROM test WHERE id = $1")).isNull();
+        assertThat(cache.get("SELECT * FROM test WHERE id = $1")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class InListRewriteTest {
+
+    @Test
+    void getBucket() {
+        assertThat(InListRewrite.getBucket(1)).isEqualTo(1);
+        assertThat(InListRewrite.getBucket(2)).isEqualTo(2);
+        assertThat(InListRewrite.getBucket(3)).isEqualTo(4);
+        assertThat(InListRewrite.getBucket(8)).isEqualTo(8);
+        assertThat(InListRewrite.getBucket(9)).isEqualTo(16);
+    }
+
+    @Test
+    void parse() {
+        InListRewrite inListRewrite = InListRewrite.parse("SELECT * FROM test WHERE id IN ($1) AND value = $2", BindMarkers.DOLLAR);
+
+        assertThat(inListRewrite).isNotNull();
+        assertThat(inListRewrite.getParameters()).isEqualTo(2);
+        assertThat(inListRewrite.isExpandable(0)).isTrue();
+        assertThat(inListRewrite.isExpandable(1)).isFalse();
+        assertThat(inListRewrite.getSql(new int[]{4, 1})).isEqualTo("SELECT * FROM test WHERE id IN ($1, $2, $3, $4) AND value = $5");
+    }
+
+    @Test
+    void parseAtP() {
+        InListRewrite inListRewrite = InListRewrite.parse("SELECT * FROM test WHERE value = @P0 AND id IN ( @P1 )", BindMarkers.AT_P);
+
+        assertThat(inListRewrite).isNotNull();
+        assertThat(inListRewrite.getIndex("@P1")).isEqualTo(1);
+        assertThat(inListRewrite.getSql(new int[]{1, 2})).isEqualTo("SELECT * FROM test WHERE value = @P0 AND id IN ( @P1, @P2 )");
+    }
+
+    @Test
+    void parseMarkerOutsideInList() {
+        assertThat(InListRewrite.parse("SELECT * FROM test WHERE id IN ($1) OR parent = $1", BindMarkers.DOLLAR)).isNull();
+    }
+
+    @Test
+    void parseNoInList() {
+        assertThat(InListRewrite.parse("SELECT * FROM test WHERE id = $1", BindMarkers.DOLLAR)).isNull();
+        assertThat(InListRewrite.parse("SELECT * FROM test WHERE id IN ($1, $2)", BindMarkers.DOLLAR)).isNull();
+    }
+
+    @Test
+    void parseQuestionMark() {
+        InListRewrite inListRewrite = InListRewrite.parse("SELECT * FROM test WHERE value = ? AND id IN (?) AND name = ?", BindMarkers.QUESTION_MARK);
+
+        assertThat(inListRewrite).isNotNull();
+        assertThat(inListRewrite.getParameters()).isEqualTo(3);
+        assertThat(inListRewrite.getSql(new int[]{1, 2, 1})).isEqualTo("SELECT * FROM test WHERE value = ? AND id IN (?, ?) AND name = ?");
+    }
+
+    @Test
+    void parseQuoted() {
+        InListRewrite inListRewrite = InListRewrite.parse("SELECT 'IN ($2)' FROM test /* IN ($2) */ WHERE id IN ($1) -- $2", BindMarkers.DOLLAR);
+
+        assertThat(inListRewrite).isNotNull();
+        assertThat(inListRewrite.getParameters()).isEqualTo(1);
+        assertThat(inListRewrite.getSql(new int[]{2})).isEqualTo("SELECT 'IN ($2)' FROM test /* IN ($2) */ WHERE id IN ($1, $2) -- $2");
+    }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.test.MockColumnMetadata;
+import io.r2dbc.spi.test.MockRow;
+import io.r2dbc.spi.test.MockRowMetadata;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class IndexedRowTest {
+
+    @Test
+    void constructorNoIndexes() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new IndexedRow(MockRow.empty(), null))
+            .withMessage("indexes must not be null");
+    }
+
+    @Test
+    void constructorNoRow() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new IndexedRow(null, new Integer[0]))
+            .withMessage("row must not be null");
+    }
+
+    @Test
+    void get() {
+        MockRow row = MockRow.builder()
+            .identified(2, String.class, "test-value")
+            .build();
+
+        assertThat(new IndexedRow(row, new Integer[]{2}).get(0, String.class)).isEqualTo("test-value");
+    }
+
+    @Test
+    void getColumnOutOfRange() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new IndexedRow(MockRow.empty(), new Integer[0]).get(0, String.class))
+            .withMessage("column must be between 0 and the number of column names");
+    }
+
+    @Test
+    void getNoType() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new IndexedRow(MockRow.empty(), new Integer[]{0}).get(0, null))
+            .withMessage("type must not be null");
+    }
+
+    @Test
+    void resolve() {
+        MockRowMetadata rowMetadata = MockRowMetadata.builder()
+            .columnMetadata(columnMetadata("value"))
+            .columnMetadata(columnMetadata("Value"))
+            .columnMetadata(columnMetadata("other"))
+            .build();
+
+        assertThat(IndexedRow.resolve(rowMetadata, new String[]{"other", "Value", "VALUE"})).containsExactly(2, 1, 0);
+    }
+
+    @Test
+    void resolveUnknownColumn() {
+        MockRowMetadata rowMetadata = MockRowMetadata.builder()
+            .columnMetadata(columnMetadata("value"))
+            .build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> IndexedRow.resolve(rowMetadata, new String[]{"unknown"}))
+            .withMessage("Column unknown does not exist");
+    }
+
+    private static MockColumnMetadata columnMetadata(String name) {
+        return MockColumnMetadata.builder()
+            .name(name)
+            .nativeTypeMetadata(100)
+            .build();
+    }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class InsertRewriteTest {
+
+    @Test
+    void getSql() {
+        InsertRewrite insertRewrite = InsertRewrite.parse("insert into test (a, b, c) values ($2, lower($1), $2);", 100);
+
+        assertThat(insertRewrite).isNotNull();
+        assertThat(insertRewrite.getParameters()).isEqualTo(2);
+        assertThat(insertRewrite.getMaxRows()).isEqualTo(50);
+        assertThat(insertRewrite.getSql(1)).isEqualTo("insert into test (a, b, c) values ($2, lower($1), $2)");
+        assertThat(insertRewrite.getSql(3)).isEqualTo("insert into test (a, b, c) values ($2, lower($1), $2), ($4, lower($3), $4), ($6, lower($5), $6)");
+    }
+
+    @Test
+    void parseNotRewritable() {
+        assertThat(InsertRewrite.parse("UPDATE test SET value = $1", 100)).isNull();
+        assertThat(InsertRewrite.parse("INSERT INTO test VALUES ($1) RETURNING id", 100)).isNull();
+        assertThat(InsertRewrite.parse("INSERT INTO test VALUES ($1, 'text')", 100)).isNull();
+        assertThat(InsertRewrite.parse("INSERT INTO test VALUES ($1, $3)", 100)).isNull();
+        assertThat(InsertRewrite.parse("INSERT INTO test VALUES (?)", 100)).isNull();
+        assertThat(InsertRewrite.parse("INSERT INTO test SELECT * FROM other WHERE value = $1", 100)).isNull();
+        assertThat(InsertRewrite.parse("INSERT INTO test VALUES ($1, $2)", 1)).isNull();
+        assertThat(InsertRewrite.parse("INSERT IGNORE INTO test VALUES ($1)", 100)).isNull();
+        assertThat(InsertRewrite.parse("INSERT OR REPLACE INTO test VALUES ($1)", 100)).isNull();
+    }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class LeakDetectionConfigurationTest {
+
+    @Test
+    void build() {
+        LeakDetectionConfiguration configuration = LeakDetectionConfiguration.builder()
+            .closeLeakedHandles(true)
+            .sampleRate(0.5)
+            .threshold(Duration.ofSeconds(5))
+            .build();
+
+        assertThat(configuration.isCloseLeakedHandles()).isTrue();
+        assertThat(configuration.getSampleRate()).isEqualTo(0.5);
+        assertThat(configuration.getThreshold()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void buildDefaults() {
+        LeakDetectionConfiguration configuration = LeakDetectionConfiguration.builder().build();
+
+        assertThat(configuration.isCloseLeakedHandles()).isFalse();
+        assertThat(configuration.getSampleRate()).isEqualTo(0.01);
+        assertThat(configuration.getThreshold()).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    @Test
+    void sampleRateGreaterThanOne() {
+        assertThatIllegalArgumentException().isThrownBy(() -> LeakDetectionConfiguration.builder().sampleRate(1.5))
+            .withMessage("sampleRate must be greater than 0 and at most 1");
+    }
+
+    @Test
+    void sampleRateZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> LeakDetectionConfiguration.builder().sampleRate(0))
+            .withMessage("sampleRate must be greater than 0 and at most 1");
+    }
+
+    @Test
+    void thresholdNoThreshold() {
+        assertThatIllegalArgumentException().isThrownBy(() -> LeakDetectionConfiguration.builder().threshold(null))
+            .withMessage("threshold must not be null");
+    }
+
+    @Test
+    void thresholdZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> LeakDetectionConfiguration.builder().threshold(Duration.ZERO))
+            .withMessage("threshold must be positive");
+    }
+
+}
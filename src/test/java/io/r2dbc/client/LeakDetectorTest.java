@@ -0,0 +1,200 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.test.MockConnection;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class LeakDetectorTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @Test
+    void close() {
+        LeakDetector leakDetector = leakDetector(false);
+        AtomicInteger closed = new AtomicInteger();
+
+        Handle handle = leakDetector.track(() -> Mono.fromRunnable(closed::incrementAndGet), null, (closer, executionListener) -> new Handle(MockConnection.empty(), closer));
+
+        assertThat(leakDetector.getTracked()).isEqualTo(1);
+
+        handle.close()
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(closed).hasValue(1);
+        assertThat(leakDetector.getTracked()).isZero();
+
+        this.nanoTime.addAndGet(Duration.ofHours(2).toNanos());
+        leakDetector.scan();
+
+        assertThat(leakDetector.getOverdue()).isZero();
+        leakDetector.close();
+    }
+
+    @Test
+    void closeTwice() {
+        LeakDetector leakDetector = leakDetector(false);
+        AtomicInteger closed = new AtomicInteger();
+
+        Handle handle = leakDetector.track(() -> Mono.fromRunnable(closed::incrementAndGet), null, (closer, executionListener) -> new Handle(MockConnection.empty(), closer));
+
+        handle.close()
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        handle.close()
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(closed).hasValue(1);
+        leakDetector.close();
+    }
+
+    @Test
+    void constructorNoConfiguration() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LeakDetector(null))
+            .withMessage("configuration must not be null");
+    }
+
+    @Test
+    void scanLeaked() throws InterruptedException {
+        LeakDetector leakDetector = leakDetector(true);
+        AtomicInteger closed = new AtomicInteger();
+
+        leakDetector.track(() -> Mono.fromRunnable(closed::incrementAndGet), null, (closer, executionListener) -> new Handle(MockConnection.empty(), closer));
+
+        for (int i = 0; i < 100 && leakDetector.getLeaked() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            leakDetector.scan();
+        }
+
+        assertThat(leakDetector.getLeaked()).isEqualTo(1);
+        assertThat(leakDetector.getTracked()).isZero();
+        assertThat(closed).hasValue(1);
+        leakDetector.close();
+    }
+
+    @Test
+    void scanLeakedExecuting() throws InterruptedException {
+        LeakDetector leakDetector = leakDetector(true);
+        AtomicInteger closed = new AtomicInteger();
+        AtomicReference<ExecutionListener> listener = new AtomicReference<>();
+        ExecutionInfo executionInfo = new ExecutionInfo("test-query", 0, 0);
+
+        leakDetector.track(() -> Mono.fromRunnable(closed::incrementAndGet), null, (closer, executionListener) -> {
+            listener.set(executionListener);
+            return new Handle(MockConnection.empty(), closer);
+        });
+
+        listener.get().beforeExecution(executionInfo);
+
+        for (int i = 0; i < 100 && leakDetector.getLeaked() == 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+            leakDetector.scan();
+        }
+
+        assertThat(leakDetector.getLeaked()).isEqualTo(1);
+        assertThat(closed).hasValue(0);
+
+        listener.get().afterExecution(executionInfo);
+
+        assertThat(closed).hasValue(1);
+        leakDetector.close();
+    }
+
+    @Test
+    void scanOverdue() {
+        LeakDetector leakDetector = leakDetector(false);
+
+        Handle handle = leakDetector.track(Mono::empty, null, (closer, executionListener) -> new Handle(MockConnection.empty(), closer));
+
+        leakDetector.scan();
+        assertThat(leakDetector.getOverdue()).isZero();
+
+        this.nanoTime.addAndGet(Duration.ofHours(2).toNanos());
+        leakDetector.scan();
+        leakDetector.scan();
+
+        assertThat(leakDetector.getOverdue()).isEqualTo(1);
+        assertThat(leakDetector.getTracked()).isEqualTo(1);
+
+        handle.close();
+        leakDetector.close();
+    }
+
+    @Test
+    void trackExecutionListener() {
+        LeakDetector leakDetector = leakDetector(false);
+        AtomicInteger executions = new AtomicInteger();
+        AtomicReference<ExecutionListener> listener = new AtomicReference<>();
+
+        Handle handle = leakDetector.track(Mono::empty, new ExecutionListener() {
+
+            @Override
+            public void beforeExecution(ExecutionInfo executionInfo) {
+                executions.incrementAndGet();
+            }
+
+        }, (closer, executionListener) -> {
+            listener.set(executionListener);
+            return new Handle(MockConnection.empty(), closer);
+        });
+
+        listener.get().beforeExecution(new ExecutionInfo("test-query", 0, 0));
+
+        assertThat(executions).hasValue(1);
+
+        handle.close();
+        leakDetector.close();
+    }
+
+    @Test
+    void trackNoCloser() {
+        assertThatIllegalArgumentException().isThrownBy(() -> leakDetector(false).track(null, null, (closer, executionListener) -> new Handle(MockConnection.empty(), closer)))
+            .withMessage("closer must not be null");
+    }
+
+    @Test
+    void trackNoHandleFactory() {
+        assertThatIllegalArgumentException().isThrownBy(() -> leakDetector(false).track(Mono::empty, null, null))
+            .withMessage("handleFactory must not be null");
+    }
+
+    private LeakDetector leakDetector(boolean closeLeakedHandles) {
+        LeakDetectionConfiguration configuration = LeakDetectionConfiguration.builder()
+            .closeLeakedHandles(closeLeakedHandles)
+            .sampleRate(1)
+            .threshold(Duration.ofHours(1))
+            .build();
+
+        return new LeakDetector(configuration, this.nanoTime::get);
+    }
+
+}
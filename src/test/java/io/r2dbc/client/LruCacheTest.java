@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class LruCacheTest {
+
+    @Test
+    void computeIfAbsent() {
+        LruCache<String, Integer> cache = new LruCache<>(1);
+
+        assertThat(cache.computeIfAbsent("test-key", String::length)).isEqualTo(8);
+        assertThat(cache.computeIfAbsent("test-key", key -> 100)).isEqualTo(8);
+    }
+
+    @Test
+    void constructorNoOnEviction() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LruCache<>(1, null))
+            .withMessage("onEviction must not be null");
+    }
+
+    @Test
+    void constructorSizeZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new LruCache<>(0))
+            .withMessage("size must be positive");
+    }
+
+    @Test
+    void get() {
+        LruCache<String, Integer> cache = new LruCache<>(1);
+        cache.put("test-key", 100);
+
+        assertThat(cache.get("test-key")).isEqualTo(100);
+        assertThat(cache.get("test-other")).isNull();
+    }
+
+    @Test
+    void putEvictsLeastRecentlyUsed() {
+        AtomicInteger evictions = new AtomicInteger();
+        LruCache<String, Integer> cache = new LruCache<>(2, evictions::incrementAndGet);
+
+        cache.put("test-key-1", 100);
+        cache.put("test-key-2", 200);
+        cache.get("test-key-1");
+        cache.put("test-key-3", 300);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.snapshot()).containsOnlyKeys("test-key-1", "test-key-3");
+        assertThat(evictions).hasValue(1);
+    }
+
+    @Test
+    void snapshot() {
+        LruCache<String, Integer> cache = new LruCache<>(2);
+        cache.put("test-key-1", 100);
+        cache.put("test-key-2", 200);
+        cache.get("test-key-1");
+
+        assertThat(cache.snapshot().keySet()).containsExactly("test-key-2", "test-key-1");
+    }
+
+}
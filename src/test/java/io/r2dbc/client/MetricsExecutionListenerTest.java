@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class MetricsExecutionListenerTest {
+
+    @Test
+    void afterExecution() {
+        MetricsExecutionListener listener = new MetricsExecutionListener();
+
+        listener.afterExecution(execution("SELECT * FROM test WHERE id = 1", null));
+        listener.afterExecution(execution("SELECT *  FROM test\nWHERE id = 2", new IllegalStateException()));
+
+        ExecutionMetrics metrics = listener.getMetrics("SELECT * FROM test WHERE id = 3");
+
+        assertThat(listener.getMetrics()).containsOnlyKeys("SELECT * FROM test WHERE id = ?");
+        assertThat(metrics).isNotNull();
+        assertThat(metrics.getCount()).isEqualTo(2);
+        assertThat(metrics.getErrors()).isEqualTo(1);
+        assertThat(metrics.getRows()).isEqualTo(2);
+    }
+
+    @Test
+    void afterExecutionEvictsLeastRecentlyExecuted() {
+        MetricsExecutionListener listener = new MetricsExecutionListener(2);
+
+        listener.afterExecution(execution("SELECT * FROM test_1", null));
+        listener.afterExecution(execution("SELECT * FROM test_2", null));
+        listener.afterExecution(execution("SELECT * FROM test_1", null));
+        listener.afterExecution(execution("SELECT * FROM test_3", null));
+
+        assertThat(listener.getMetrics()).containsOnlyKeys("SELECT * FROM test_1", "SELECT * FROM test_3");
+        assertThat(listener.getMetrics("SELECT * FROM test_2")).isNull();
+    }
+
+    @Test
+    void constructorMaximumFingerprintsZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new MetricsExecutionListener(0))
+            .withMessage("maximumFingerprints must be positive");
+    }
+
+    @Test
+    void fingerprint() {
+        assertThat(MetricsExecutionListener.fingerprint("  SELECT value FROM test_2 WHERE name = 'it''s' AND id IN (1, 2.5)  "))
+            .isEqualTo("SELECT value FROM test_2 WHERE name = ? AND id IN (?, ?)");
+        assertThat(MetricsExecutionListener.fingerprint("INSERT INTO test VALUES ($1, :name2, @P3)"))
+            .isEqualTo("INSERT INTO test VALUES ($1, :name2, @P3)");
+    }
+
+    @Test
+    void getMetricsNoSql() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new MetricsExecutionListener().getMetrics(null))
+            .withMessage("sql must not be null");
+    }
+
+    @Test
+    void getMetricsUnknown() {
+        assertThat(new MetricsExecutionListener().getMetrics("SELECT 1")).isNull();
+    }
+
+    private static ExecutionInfo execution(String sql, Throwable error) {
+        ExecutionInfo executionInfo = new ExecutionInfo(sql, 1, System.nanoTime());
+        executionInfo.onNext();
+
+        if (error != null) {
+            executionInfo.onError(error);
+        }
+
+        executionInfo.onTerminate(System.nanoTime());
+        return executionInfo;
+    }
+
+}
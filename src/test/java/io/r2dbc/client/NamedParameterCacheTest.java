@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class NamedParameterCacheTest {
+
+    @Test
+    void constructorNoBindMarkers() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new NamedParameterCache(1, null))
+            .withMessage("bindMarkers must not be null");
+    }
+
+    @Test
+    void constructorZeroSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new NamedParameterCache(0, BindMarkers.DOLLAR))
+            .withMessage("size must be positive");
+    }
+
+    @Test
+    void get() {
+        NamedParameterCache cache = new NamedParameterCache(2, BindMarkers.DOLLAR);
+
+        NamedParameters namedParameters = cache.get("SELECT * FROM test WHERE id = :id");
+
+        assertThat(namedParameters).isNotNull();
+        assertThat(namedParameters.getSql()).isEqualTo("SELECT * FROM test WHERE id = $1");
+        assertThat(cache.get("SELECT * FROM test WHERE id = :id")).isSameAs(namedParameters);
+    }
+
+    @Test
+    void getEvicts() {
+        NamedParameterCache cache = new NamedParameterCache(2, BindMarkers.DOLLAR);
+
+        NamedParameters first = cache.get("SELECT * FROM test WHERE id = :id");
+        cache.get("SELECT * FROM test WHERE value = :value");
+        cache.get("SELECT * FROM test WHERE parent = :parent");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("SELECT * FROM test WHERE id = :id")).isNotSameAs(first);
+    }
+
+    @Test
+    void getNoParameters() {
+        NamedParameterCache cache = new NamedParameterCache(2, BindMarkers.DOLLAR);
+
+        assertThat(cache.get("SELECT * FROM test WHERE id = $1")).isNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+}
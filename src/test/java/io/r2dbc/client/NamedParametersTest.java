@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class NamedParametersTest {
+
+    @Test
+    void parse() {
+        NamedParameters namedParameters = NamedParameters.parse("SELECT * FROM test WHERE id = :id AND (value = :value OR parent = :id)", BindMarkers.DOLLAR);
+
+        assertThat(namedParameters.hasParameters()).isTrue();
+        assertThat(namedParameters.getSql()).isEqualTo("SELECT * FROM test WHERE id = $1 AND (value = $2 OR parent = $1)");
+        assertThat(namedParameters.getIndexes("id")).containsExactly(0);
+        assertThat(namedParameters.getIndexes(":value")).containsExactly(1);
+        assertThat(namedParameters.getIndexes("test-identifier")).isNull();
+    }
+
+    @Test
+    void parseAtP() {
+        NamedParameters namedParameters = NamedParameters.parse("SELECT * FROM test WHERE id = :id AND value = :value", BindMarkers.AT_P);
+
+        assertThat(namedParameters.getSql()).isEqualTo("SELECT * FROM test WHERE id = @P0 AND value = @P1");
+    }
+
+    @Test
+    void parseNoParameters() {
+        NamedParameters namedParameters = NamedParameters.parse("SELECT * FROM test WHERE id = $1", BindMarkers.DOLLAR);
+
+        assertThat(namedParameters.hasParameters()).isFalse();
+        assertThat(namedParameters.getSql()).isEqualTo("SELECT * FROM test WHERE id = $1");
+    }
+
+    @Test
+    void parseQuestionMark() {
+        NamedParameters namedParameters = NamedParameters.parse("SELECT * FROM test WHERE id = :id AND (value = :value OR parent = :id)", BindMarkers.QUESTION_MARK);
+
+        assertThat(namedParameters.getSql()).isEqualTo("SELECT * FROM test WHERE id = ? AND (value = ? OR parent = ?)");
+        assertThat(namedParameters.getIndexes("id")).containsExactly(0, 2);
+        assertThat(namedParameters.getIndexes("value")).containsExactly(1);
+    }
+
+    @Test
+    void parseQuoted() {
+        NamedParameters namedParameters = NamedParameters.parse("SELECT ':quoted', value::text /* :block */ FROM test WHERE id = :id -- :line", BindMarkers.DOLLAR);
+
+        assertThat(namedParameters.getSql()).isEqualTo("SELECT ':quoted', value::text /* :block */ FROM test WHERE id = $1 -- :line");
+        assertThat(namedParameters.getIndexes("quoted")).isNull();
+        assertThat(namedParameters.getIndexes("text")).isNull();
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class PoolConfigurationTest {
+
+    @Test
+    void build() {
+        PoolConfiguration configuration = PoolConfiguration.builder()
+            .acquireTimeout(Duration.ofSeconds(1))
+            .maxIdleTime(Duration.ofSeconds(2))
+            .maxLifeTime(Duration.ofSeconds(3))
+            .maxSize(4)
+            .minSize(2)
+            .priorityAgingInterval(Duration.ofSeconds(6))
+            .statementCacheSize(5)
+            .build();
+
+        assertThat(configuration.getAcquireTimeout()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(configuration.getMaxIdleTime()).isEqualTo(Duration.ofSeconds(2));
+        assertThat(configuration.getMaxLifeTime()).isEqualTo(Duration.ofSeconds(3));
+        assertThat(configuration.getMaxSize()).isEqualTo(4);
+        assertThat(configuration.getMinSize()).isEqualTo(2);
+        assertThat(configuration.getPriorityAgingInterval()).isEqualTo(Duration.ofSeconds(6));
+        assertThat(configuration.getStatementCacheSize()).isEqualTo(5);
+    }
+
+    @Test
+    void buildMinSizeGreaterThanMaxSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().maxSize(1).minSize(2).build())
+            .withMessage("minSize must not be greater than maxSize");
+    }
+
+    @Test
+    void acquireTimeoutNegative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().acquireTimeout(Duration.ofSeconds(-1)))
+            .withMessage("acquireTimeout must be positive");
+    }
+
+    @Test
+    void acquireTimeoutNoAcquireTimeout() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().acquireTimeout(null))
+            .withMessage("acquireTimeout must not be null");
+    }
+
+    @Test
+    void maxIdleTimeZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().maxIdleTime(Duration.ZERO))
+            .withMessage("maxIdleTime must be positive");
+    }
+
+    @Test
+    void maxLifeTimeZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().maxLifeTime(Duration.ZERO))
+            .withMessage("maxLifeTime must be positive");
+    }
+
+    @Test
+    void maxSizeZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().maxSize(0))
+            .withMessage("maxSize must be positive");
+    }
+
+    @Test
+    void minSizeNegative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().minSize(-1))
+            .withMessage("minSize must not be negative");
+    }
+
+    @Test
+    void priorityAgingIntervalNoPriorityAgingInterval() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().priorityAgingInterval(null))
+            .withMessage("priorityAgingInterval must not be null");
+    }
+
+    @Test
+    void priorityAgingIntervalZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().priorityAgingInterval(Duration.ZERO))
+            .withMessage("priorityAgingInterval must be positive");
+    }
+
+    @Test
+    void statementCacheSizeNegative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> PoolConfiguration.builder().statementCacheSize(-1))
+            .withMessage("statementCacheSize must not be negative");
+    }
+
+}
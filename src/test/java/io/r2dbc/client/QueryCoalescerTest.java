@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class QueryCoalescerTest {
+
+    private final QueryCoalescer queryCoalescer = new QueryCoalescer();
+
+    private final List<CachedResult> results = Collections.singletonList(new CachedResult(new String[0], null, Collections.emptyList()));
+
+    @Test
+    void execute() {
+        AtomicInteger executions = new AtomicInteger();
+        MonoProcessor<List<CachedResult>> processor = MonoProcessor.create();
+        Mono<List<CachedResult>> execution = processor.doOnSubscribe(subscription -> executions.incrementAndGet());
+
+        StepVerifier first = this.queryCoalescer.execute(key(100), execution)
+            .as(StepVerifier::create)
+            .expectNext(this.results)
+            .expectComplete()
+            .verifyLater();
+
+        StepVerifier second = this.queryCoalescer.execute(key(100), execution)
+            .as(StepVerifier::create)
+            .expectNext(this.results)
+            .expectComplete()
+            .verifyLater();
+
+        processor.onNext(this.results);
+
+        first.verify();
+        second.verify();
+
+        assertThat(executions).hasValue(1);
+        assertThat(this.queryCoalescer.getCoalesced()).isEqualTo(1);
+        assertThat(this.queryCoalescer.size()).isZero();
+    }
+
+    @Test
+    void executeAfterCompletion() {
+        AtomicInteger executions = new AtomicInteger();
+        Mono<List<CachedResult>> execution = Mono.fromCallable(() -> {
+            executions.incrementAndGet();
+            return this.results;
+        });
+
+        for (int i = 0; i < 2; i++) {
+            this.queryCoalescer.execute(key(100), execution)
+                .as(StepVerifier::create)
+                .expectNext(this.results)
+                .verifyComplete();
+        }
+
+        assertThat(executions).hasValue(2);
+        assertThat(this.queryCoalescer.getCoalesced()).isZero();
+    }
+
+    @Test
+    void executeDifferentParameters() {
+        AtomicInteger executions = new AtomicInteger();
+        MonoProcessor<List<CachedResult>> processor = MonoProcessor.create();
+        Mono<List<CachedResult>> execution = processor.doOnSubscribe(subscription -> executions.incrementAndGet());
+
+        StepVerifier first = this.queryCoalescer.execute(key(100), execution)
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verifyLater();
+
+        StepVerifier second = this.queryCoalescer.execute(key(200), execution)
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .expectComplete()
+            .verifyLater();
+
+        processor.onNext(this.results);
+
+        first.verify();
+        second.verify();
+
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void executeError() {
+        MonoProcessor<List<CachedResult>> processor = MonoProcessor.create();
+
+        StepVerifier first = this.queryCoalescer.execute(key(100), processor)
+            .as(StepVerifier::create)
+            .expectError(IllegalStateException.class)
+            .verifyLater();
+
+        StepVerifier second = this.queryCoalescer.execute(key(100), processor)
+            .as(StepVerifier::create)
+            .expectError(IllegalStateException.class)
+            .verifyLater();
+
+        processor.onError(new IllegalStateException());
+
+        first.verify();
+        second.verify();
+
+        assertThat(this.queryCoalescer.size()).isZero();
+    }
+
+    @Test
+    void executeNoKey() {
+        assertThatIllegalArgumentException().isThrownBy(() -> this.queryCoalescer.execute(null, Mono.empty()))
+            .withMessage("key must not be null");
+    }
+
+    @Test
+    void executeNotReplayable() {
+        AtomicInteger executions = new AtomicInteger();
+        MonoProcessor<List<CachedResult>> processor = MonoProcessor.create();
+        Mono<List<CachedResult>> execution = processor.doOnSubscribe(subscription -> executions.incrementAndGet());
+        List<CachedResult> results = Collections.singletonList(new CachedResult(new String[]{"test-column"}, null,
+            Collections.singletonList(new Object[]{Mono.just("test-value")})));
+
+        StepVerifier first = this.queryCoalescer.execute(key(100), execution)
+            .as(StepVerifier::create)
+            .expectNext(results)
+            .expectComplete()
+            .verifyLater();
+
+        StepVerifier second = this.queryCoalescer.execute(key(100), execution)
+            .as(StepVerifier::create)
+            .expectNext(results)
+            .expectComplete()
+            .verifyLater();
+
+        processor.onNext(results);
+
+        first.verify();
+        second.verify();
+
+        assertThat(executions).hasValue(2);
+        assertThat(this.queryCoalescer.size()).isZero();
+    }
+
+    private static ResultCache.Key key(int parameter) {
+        return new ResultCache.Key("test-query", new Object[]{parameter});
+    }
+
+}
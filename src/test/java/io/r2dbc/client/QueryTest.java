@@ -16,13 +16,21 @@
 
 package io.r2dbc.client;
 
+import io.r2dbc.spi.Statement;
 import io.r2dbc.spi.test.MockResult;
 import io.r2dbc.spi.test.MockStatement;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -49,6 +57,79 @@ final class QueryTest {
         assertThat(statement.getBindings()).contains(Collections.singletonMap("test-identifier", "test-value"));
     }
 
+    @Test
+    void bindCollection() {
+        MockStatement statement = MockStatement.empty();
+        MockStatement expanded = MockStatement.builder()
+            .result(MockResult.empty())
+            .build();
+        List<String> sqls = new ArrayList<>();
+
+        inListQuery(statement, sql -> {
+            sqls.add(sql);
+            return expanded;
+        })
+            .bind("$2", "test-value")
+            .bind("$1", Arrays.asList(100, 200, 300))
+            .mapResult(actual -> Mono.just(1))
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+
+        Map<Object, Object> bindings = new HashMap<>();
+        bindings.put(0, 100);
+        bindings.put(1, 200);
+        bindings.put(2, 300);
+        bindings.put(3, 300);
+        bindings.put(4, "test-value");
+
+        assertThat(sqls).containsExactly("SELECT * FROM test WHERE id IN ($1, $2, $3, $4) AND value = $5");
+        assertThat(expanded.getBindings()).contains(bindings);
+        assertThat(statement.getBindings()).doesNotContain(bindings);
+    }
+
+    @Test
+    void bindCollectionEmpty() {
+        assertThatIllegalArgumentException().isThrownBy(() -> inListQuery(MockStatement.empty(), sql -> MockStatement.empty()).bind("$1", Collections.emptyList()))
+            .withMessage("value must not be empty");
+    }
+
+    @Test
+    void bindCollectionMixed() {
+        Query query = inListQuery(MockStatement.empty(), sql -> MockStatement.empty())
+            .bind("$1", Arrays.asList(100, 200))
+            .bind("$2", "test-value")
+            .add()
+            .bind("$1", 300)
+            .bind("$2", "test-value");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> query.mapResult(actual -> Mono.just(1)))
+            .withMessage("Parameter 0 must be bound to a collection in every binding, or in none");
+    }
+
+    @Test
+    void bindCollectionNotExpanded() {
+        MockStatement statement = MockStatement.builder()
+            .result(MockResult.empty())
+            .build();
+
+        inListQuery(statement, sql -> {
+            throw new AssertionError();
+        })
+            .bind("$1", 100)
+            .bind("$2", "test-value")
+            .mapResult(actual -> Mono.just(1))
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+
+        Map<Object, Object> bindings = new HashMap<>();
+        bindings.put(0, 100);
+        bindings.put(1, "test-value");
+
+        assertThat(statement.getBindings()).contains(bindings);
+    }
+
     @Test
     void bindIndex() {
         MockStatement statement = MockStatement.empty();
@@ -65,6 +146,22 @@ final class QueryTest {
             .withMessage("value must not be null");
     }
 
+    @Test
+    void bindName() {
+        MockStatement statement = MockStatement.empty();
+
+        new Query(statement, "SELECT * FROM test WHERE id = $1 AND value = $2", () -> {
+        }, sql -> statement, null, null, null, NamedParameters.parse("SELECT * FROM test WHERE id = :id AND value = :value", BindMarkers.DOLLAR))
+            .bind("value", "test-value")
+            .bind(":id", 100);
+
+        Map<Object, Object> bindings = new HashMap<>();
+        bindings.put(0, 100);
+        bindings.put(1, "test-value");
+
+        assertThat(statement.getBindings()).contains(bindings);
+    }
+
     @Test
     void bindNoIdentifier() {
         assertThatIllegalArgumentException().isThrownBy(() -> new Query(MockStatement.empty()).bind(null, new Object()))
@@ -87,6 +184,21 @@ final class QueryTest {
         assertThat(statement.getBindings()).contains(Collections.singletonMap("test-identifier", Integer.class));
     }
 
+    @Test
+    void bindNullName() {
+        MockStatement statement = MockStatement.empty();
+
+        new Query(statement, "SELECT * FROM test WHERE id = ? OR parent = ?", () -> {
+        }, sql -> statement, null, null, null, NamedParameters.parse("SELECT * FROM test WHERE id = :id OR parent = :id", BindMarkers.QUESTION_MARK))
+            .bindNull("id", Integer.class);
+
+        Map<Object, Object> bindings = new HashMap<>();
+        bindings.put(0, Integer.class);
+        bindings.put(1, Integer.class);
+
+        assertThat(statement.getBindings()).contains(bindings);
+    }
+
     @Test
     void bindNullNoIdentifier() {
         assertThatIllegalArgumentException().isThrownBy(() -> new Query(MockStatement.empty()).bindNull(null, Object.class))
@@ -123,10 +235,73 @@ final class QueryTest {
             .verifyComplete();
     }
 
+    @Test
+    void mapResultExecutionListener() {
+        MockResult result = MockResult.empty();
+
+        MockStatement statement = MockStatement.builder()
+            .result(result)
+            .build();
+
+        List<ExecutionInfo> executions = new ArrayList<>();
+
+        new Query(statement, "test-query", () -> {
+        }, sql -> statement, new ExecutionListener() {
+
+            @Override
+            public void afterExecution(ExecutionInfo executionInfo) {
+                executions.add(executionInfo);
+            }
+
+        }, null, null, null)
+            .add()
+            .mapResult(actual -> Flux.just(1, 2))
+            .as(StepVerifier::create)
+            .expectNext(1, 2)
+            .verifyComplete();
+
+        assertThat(executions).hasSize(1);
+        assertThat(executions.get(0).getBindings()).isEqualTo(1);
+        assertThat(executions.get(0).getError()).isNull();
+        assertThat(executions.get(0).getRows()).isEqualTo(2);
+        assertThat(executions.get(0).getSql()).isEqualTo("test-query");
+    }
+
     @Test
     void mapResultNoF() {
         assertThatIllegalArgumentException().isThrownBy(() -> new Query(MockStatement.empty()).mapResult(null))
             .withMessage("f must not be null");
     }
 
+    @Test
+    void mapResultNoStrategy() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Query(MockStatement.empty()).mapResult(Mono::just, null))
+            .withMessage("strategy must not be null");
+    }
+
+    @Test
+    void mapResultStrategy() {
+        MockResult result = MockResult.empty();
+
+        MockStatement statement = MockStatement.builder()
+            .result(result)
+            .build();
+
+        new Query(statement)
+            .mapResult(actual -> {
+                assertThat(actual).isSameAs(result);
+                return Flux.just(1, 2);
+            }, ResultStrategy.ORDERED)
+            .as(StepVerifier::create)
+            .expectNext(1, 2)
+            .verifyComplete();
+    }
+
+    private static Query inListQuery(MockStatement statement, Function<String, Statement> statementFactory) {
+        String sql = "SELECT * FROM test WHERE id IN ($1) AND value = $2";
+
+        return new Query(statement, sql, () -> {
+        }, statementFactory, null, null, InListRewrite.parse(sql, BindMarkers.DOLLAR), null);
+    }
+
 }
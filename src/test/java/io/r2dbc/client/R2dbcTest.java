@@ -16,11 +16,26 @@
 
 package io.r2dbc.client;
 
+import io.r2dbc.spi.test.MockColumnMetadata;
 import io.r2dbc.spi.test.MockConnection;
 import io.r2dbc.spi.test.MockConnectionFactory;
+import io.r2dbc.spi.test.MockResult;
+import io.r2dbc.spi.test.MockRow;
+import io.r2dbc.spi.test.MockRowMetadata;
+import io.r2dbc.spi.test.MockStatement;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -53,6 +68,35 @@ final class R2dbcTest {
         assertThat(connection.isCloseCalled()).isTrue();
     }
 
+    @Test
+    void inTransactionCancelPooled() {
+        MockConnection connection = MockConnection.empty();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .pool(PoolConfiguration.builder().acquireTimeout(Duration.ofMillis(100)).maxSize(1).build())
+            .build();
+
+        r2dbc
+            .inTransaction(handle -> Flux.never())
+            .as(StepVerifier::create)
+            .thenCancel()
+            .verify();
+
+        assertThat(connection.isBeginTransactionCalled()).isTrue();
+        assertThat(connection.isRollbackTransactionCalled()).isTrue();
+
+        r2dbc
+            .withHandle(handle -> Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+    }
+
     @Test
     void inTransactionError() {
         MockConnection connection = MockConnection.empty();
@@ -80,6 +124,197 @@ final class R2dbcTest {
             .withMessage("f must not be null");
     }
 
+    @Test
+    void builderConcurrencyLimit() {
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.empty())
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .concurrencyLimit(ConcurrencyLimitConfiguration.builder().initialLimit(1).maxLimit(1).maxQueueSize(0).build())
+            .build();
+
+        r2dbc
+            .withHandle(handle -> r2dbc.withHandle(nested -> Mono.just(100)))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        r2dbc
+            .withHandle(handle -> r2dbc.partitionedSelect("SELECT * FROM test WHERE id >= $1 AND id < $2", 0, 10, 1, true, query -> Mono.just(100)))
+            .as(StepVerifier::create)
+            .verifyError(RejectedExecutionException.class);
+    }
+
+    @Test
+    void builderLeakDetection() {
+        MockConnection connection = MockConnection.empty();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .leakDetection(LeakDetectionConfiguration.builder().sampleRate(1).build())
+            .build();
+
+        r2dbc
+            .withHandle(handle -> Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        r2dbc
+            .close()
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(connection.isCloseCalled()).isTrue();
+    }
+
+    @Test
+    void builderLeakDetectionPooledError() {
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.empty())
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .leakDetection(LeakDetectionConfiguration.builder().sampleRate(1).build())
+            .pool(PoolConfiguration.builder().acquireTimeout(Duration.ofMillis(100)).maxSize(1).build())
+            .build();
+
+        for (int i = 0; i < 2; i++) {
+            r2dbc
+                .withHandle(handle -> Mono.error(new IllegalStateException()))
+                .as(StepVerifier::create)
+                .verifyError(IllegalStateException.class);
+        }
+
+        r2dbc
+            .withHandle(handle -> Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+    }
+
+    @Test
+    void builderNamedParameters() {
+        MockStatement statement = MockStatement.empty();
+
+        MockConnection connection = MockConnection.builder()
+            .statement(statement)
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .namedParameters(10)
+            .build()
+            .withHandle(handle -> handle.createUpdate("UPDATE test SET value = :value WHERE id = :id")
+                .bind("id", 100)
+                .bind("value", 200)
+                .execute())
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        Map<Object, Object> bindings = new HashMap<>();
+        bindings.put(0, 200);
+        bindings.put(1, 100);
+
+        assertThat(connection.getCreateStatementSql()).isEqualTo("UPDATE test SET value = $1 WHERE id = $2");
+        assertThat(statement.getBindings()).contains(bindings);
+    }
+
+    @Test
+    void builderNamedParametersNegative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> R2dbc.builder().namedParameters(-1))
+            .withMessage("cacheSize must not be negative");
+    }
+
+    @Test
+    void builderNoConcurrencyLimit() {
+        assertThatIllegalArgumentException().isThrownBy(() -> R2dbc.builder().concurrencyLimit(null))
+            .withMessage("concurrencyLimitConfiguration must not be null");
+    }
+
+    @Test
+    void builderNoConnectionFactory() {
+        assertThatIllegalArgumentException().isThrownBy(() -> R2dbc.builder().build())
+            .withMessage("connectionFactory must not be null");
+    }
+
+    @Test
+    void builderExecutionListener() {
+        MockConnection connection = MockConnection.builder()
+            .statement(MockStatement.empty())
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        MetricsExecutionListener first = new MetricsExecutionListener();
+        MetricsExecutionListener second = new MetricsExecutionListener();
+
+        R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .executionListener(first)
+            .executionListener(second)
+            .build()
+            .withHandle(handle -> handle.execute("test-update"))
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(first.getMetrics()).containsOnlyKeys("test-update");
+        assertThat(second.getMetrics()).containsOnlyKeys("test-update");
+    }
+
+    @Test
+    void builderNoExecutionListener() {
+        assertThatIllegalArgumentException().isThrownBy(() -> R2dbc.builder().executionListener(null))
+            .withMessage("executionListener must not be null");
+    }
+
+    @Test
+    void builderNoLeakDetection() {
+        assertThatIllegalArgumentException().isThrownBy(() -> R2dbc.builder().leakDetection(null))
+            .withMessage("leakDetectionConfiguration must not be null");
+    }
+
+    @Test
+    void close() {
+        MockConnection connection = MockConnection.empty();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .pool(PoolConfiguration.builder().build())
+            .build();
+
+        r2dbc
+            .withHandle(handle ->
+                Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        r2dbc
+            .close()
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(connection.isCloseCalled()).isTrue();
+    }
+
     @Test
     void open() {
         MockConnection connection = MockConnection.empty();
@@ -95,6 +330,441 @@ final class R2dbcTest {
             .verifyComplete();
     }
 
+    @Test
+    void openPooledCloseTwice() {
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.empty())
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .pool(PoolConfiguration.builder().acquireTimeout(Duration.ofMillis(100)).maxSize(1).build())
+            .build();
+
+        Handle first = r2dbc.open().block();
+        Mono.from(first.close()).block();
+
+        Handle second = r2dbc.open().block();
+        Mono.from(first.close()).block();
+
+        r2dbc.open()
+            .as(StepVerifier::create)
+            .verifyError(TimeoutException.class);
+
+        Mono.from(second.close()).block();
+
+        r2dbc.open()
+            .as(StepVerifier::create)
+            .expectNextCount(1)
+            .verifyComplete();
+    }
+
+    @Test
+    void partitionedSelect() {
+        MockStatement statement = MockStatement.builder()
+            .result(MockResult.empty())
+            .build();
+
+        MockConnection connection = MockConnection.builder()
+            .statement(statement)
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        new R2dbc(connectionFactory)
+            .partitionedSelect("test-query", 0, 10, 3, true, query -> query.mapResult(result -> Mono.just(1)))
+            .as(StepVerifier::create)
+            .expectNext(1, 1, 1)
+            .verifyComplete();
+
+        assertThat(connection.getCreateStatementSql()).isEqualTo("test-query");
+        assertThat(statement.getBindings()).contains(bounds(0L, 4L), bounds(4L, 7L), bounds(7L, 10L));
+        assertThat(connection.isCloseCalled()).isTrue();
+    }
+
+    @Test
+    void partitionedSelectNotNested() {
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.builder()
+                .statement(MockStatement.builder()
+                    .result(MockResult.empty())
+                    .build())
+                .build())
+            .build();
+
+        R2dbc r2dbc = new R2dbc(connectionFactory);
+
+        r2dbc
+            .withHandle(outer -> r2dbc
+                .partitionedSelect("test-query", 0, 2, 2, false, query -> r2dbc
+                    .withHandle(inner ->
+                        Mono.just(outer == inner))))
+            .as(StepVerifier::create)
+            .expectNext(false, false)
+            .verifyComplete();
+    }
+
+    @Test
+    void partitionedSelectNoF() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).partitionedSelect("test-query", 0, 10, 2, true, null))
+            .withMessage("f must not be null");
+    }
+
+    @Test
+    void partitionedSelectNoPartitions() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).partitionedSelect("test-query", 0, 10, 0, true, query -> Mono.empty()))
+            .withMessage("partitions must be positive");
+    }
+
+    @Test
+    void partitionedSelectNoRange() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).partitionedSelect("test-query", 10, 10, 2, true, query -> Mono.empty()))
+            .withMessage("lowerBound must be less than upperBound");
+    }
+
+    @Test
+    void partitionedSelectNoSql() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).partitionedSelect(null, 0, 10, 2, true, query -> Mono.empty()))
+            .withMessage("sql must not be null");
+    }
+
+    @Test
+    void partitionedSelectRangeTooWide() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).partitionedSelect("test-query", Long.MIN_VALUE, 1, 2, true, query -> Mono.empty()))
+            .withMessage("range must not hold more than Long.MAX_VALUE keys");
+    }
+
+    @Test
+    void partitions() {
+        assertThat(R2dbc.getPartitions(0, 10, 3)).containsExactly(new long[]{0, 4}, new long[]{4, 7}, new long[]{7, 10});
+        assertThat(R2dbc.getPartitions(-5, -3, 4)).containsExactly(new long[]{-5, -4}, new long[]{-4, -3});
+        assertThat(R2dbc.getPartitions(0, 100, 1)).containsExactly(new long[]{0, 100});
+    }
+
+    @Test
+    void select() {
+        MockStatement statement = MockStatement.builder()
+            .result(result())
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.builder()
+                .statement(statement)
+                .build())
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .resultCache(ResultCacheConfiguration.builder().build())
+            .build();
+
+        List<Integer> bindings = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            r2dbc
+                .select("test-query", 100)
+                .mapRow(row -> row.get("name", String.class))
+                .as(StepVerifier::create)
+                .expectNext("test-name")
+                .verifyComplete();
+
+            bindings.add(statement.getBindings().size());
+        }
+
+        assertThat(bindings.get(1)).isEqualTo(bindings.get(0));
+        assertThat(r2dbc.getResultCacheMetrics().getHits()).isEqualTo(1);
+        assertThat(r2dbc.getResultCacheMetrics().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void selectCoalesceQueries() {
+        MockStatement statement = MockStatement.builder()
+            .result(result())
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.builder()
+                .statement(statement)
+                .build())
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .coalesceQueries(true)
+            .build();
+
+        Flux.merge(r2dbc.select("test-query", 100).mapRow(row -> row.get("name", String.class)), r2dbc.select("test-query", 100).mapRow(row -> row.get("name", String.class)))
+            .as(StepVerifier::create)
+            .expectNext("test-name", "test-name")
+            .verifyComplete();
+
+        assertThat(r2dbc.getResultCacheMetrics().getMisses()).isZero();
+    }
+
+    @Test
+    void selectCoalesceQueriesWithHandle() {
+        MockStatement statement = MockStatement.builder()
+            .result(result())
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.builder()
+                .statement(statement)
+                .build())
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .coalesceQueries(true)
+            .pool(PoolConfiguration.builder().acquireTimeout(Duration.ofMillis(100)).maxSize(1).build())
+            .build();
+
+        r2dbc
+            .inTransaction(handle -> r2dbc
+                .select("test-query", 100)
+                .mapRow(row -> row.get("name", String.class)))
+            .as(StepVerifier::create)
+            .expectNext("test-name")
+            .verifyComplete();
+
+        r2dbc
+            .withHandle(handle -> r2dbc
+                .select("test-query", 100)
+                .mapRow(row -> row.get("name", String.class)))
+            .as(StepVerifier::create)
+            .expectNext("test-name")
+            .verifyComplete();
+    }
+
+    @Test
+    void selectInTransaction() {
+        MockStatement statement = MockStatement.builder()
+            .result(result())
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.builder()
+                .statement(statement)
+                .build())
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .resultCache(ResultCacheConfiguration.builder().build())
+            .build();
+
+        r2dbc
+            .inTransaction(handle -> r2dbc
+                .select("test-query", 100)
+                .mapRow(row -> row.get("name", String.class)))
+            .as(StepVerifier::create)
+            .expectNext("test-name")
+            .verifyComplete();
+
+        assertThat(r2dbc.getResultCacheMetrics().getHits()).isZero();
+        assertThat(r2dbc.getResultCacheMetrics().getMisses()).isZero();
+    }
+
+    @Test
+    void selectInvalidate() {
+        R2dbc r2dbc = cachingR2dbc();
+
+        select(r2dbc);
+
+        r2dbc
+            .withHandle(handle -> handle
+                .execute("UPDATE test SET name = $1", "test-name"))
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+
+        select(r2dbc);
+
+        assertThat(r2dbc.getResultCacheMetrics().getHits()).isZero();
+        assertThat(r2dbc.getResultCacheMetrics().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void selectInvalidateAfterCommit() {
+        R2dbc r2dbc = cachingR2dbc();
+
+        select(r2dbc);
+
+        r2dbc
+            .inTransaction(handle -> handle
+                .execute("UPDATE test SET name = $1", "test-name")
+                .thenMany(r2dbc
+                    .select("SELECT name FROM test WHERE id = $1", 100)
+                    .mapRow(row -> row.get("name", String.class))
+                    .subscriberContext(context -> Context.empty())))
+            .as(StepVerifier::create)
+            .expectNext("test-name")
+            .verifyComplete();
+
+        select(r2dbc);
+
+        assertThat(r2dbc.getResultCacheMetrics().getHits()).isEqualTo(1);
+        assertThat(r2dbc.getResultCacheMetrics().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void selectInvalidateExecuteMany() {
+        R2dbc r2dbc = cachingR2dbc();
+
+        select(r2dbc);
+
+        r2dbc
+            .withHandle(handle -> handle
+                .createUpdate("UPDATE test SET name = $1")
+                .executeMany(Flux.just(new Object[]{"test-name-1"}, new Object[]{"test-name-2"}), 2, 1))
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+
+        select(r2dbc);
+
+        assertThat(r2dbc.getResultCacheMetrics().getHits()).isZero();
+        assertThat(r2dbc.getResultCacheMetrics().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void selectInvalidateNotAfterRollback() {
+        R2dbc r2dbc = cachingR2dbc();
+
+        select(r2dbc);
+
+        r2dbc
+            .inTransaction(handle -> handle
+                .execute("UPDATE test SET name = $1", "test-name")
+                .thenMany(Mono.error(new IllegalStateException())))
+            .as(StepVerifier::create)
+            .verifyError(IllegalStateException.class);
+
+        select(r2dbc);
+
+        assertThat(r2dbc.getResultCacheMetrics().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void selectInvalidateOtherTable() {
+        R2dbc r2dbc = cachingR2dbc();
+
+        select(r2dbc);
+
+        r2dbc
+            .withHandle(handle -> handle
+                .execute("UPDATE other SET name = $1", "test-name"))
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+
+        select(r2dbc);
+
+        assertThat(r2dbc.getResultCacheMetrics().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void selectTables() {
+        R2dbc r2dbc = cachingR2dbc();
+
+        for (int i = 0; i < 2; i++) {
+            r2dbc
+                .select("SELECT name FROM test_view")
+                .tables("public.test")
+                .mapRow(row -> row.get("name", String.class))
+                .as(StepVerifier::create)
+                .expectNext("test-name")
+                .verifyComplete();
+
+            r2dbc
+                .withHandle(handle -> handle
+                    .execute("DELETE FROM test"))
+                .as(StepVerifier::create)
+                .expectNext(1)
+                .verifyComplete();
+        }
+
+        assertThat(r2dbc.getResultCacheMetrics().getHits()).isZero();
+    }
+
+    @Test
+    void selectTablesNoTables() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).select("test-query").tables())
+            .withMessage("tables must not be empty");
+    }
+
+    @Test
+    void selectNoParameters() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).select("test-query", (Object[]) null))
+            .withMessage("parameters must not be null");
+    }
+
+    @Test
+    void selectNoResultCache() {
+        MockStatement statement = MockStatement.builder()
+            .result(result())
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.builder()
+                .statement(statement)
+                .build())
+            .build();
+
+        R2dbc r2dbc = new R2dbc(connectionFactory);
+
+        List<Integer> bindings = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++) {
+            r2dbc
+                .select("test-query", 100)
+                .mapRow(row -> row.get("name", String.class))
+                .as(StepVerifier::create)
+                .expectNext("test-name")
+                .verifyComplete();
+
+            bindings.add(statement.getBindings().size());
+        }
+
+        assertThat(bindings.get(1)).isGreaterThan(bindings.get(0));
+        assertThat(r2dbc.getResultCacheMetrics().getMisses()).isZero();
+    }
+
+    @Test
+    void selectNoSql() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).select(null))
+            .withMessage("sql must not be null");
+    }
+
+    @Test
+    void statementCacheMetrics() {
+        MockConnection connection = MockConnection.builder()
+            .statement(MockStatement.empty())
+            .build();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .pool(PoolConfiguration.builder()
+                .statementCacheSize(10)
+                .build())
+            .build();
+
+        r2dbc
+            .withHandle(handle -> handle.execute("test-update"))
+            .thenMany(r2dbc.withHandle(handle -> handle.execute("test-update")))
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(r2dbc.getStatementCacheMetrics().getHits()).isEqualTo(1);
+        assertThat(r2dbc.getStatementCacheMetrics().getMisses()).isEqualTo(1);
+    }
+
     @Test
     void useHandle() {
         MockConnection connection = MockConnection.empty();
@@ -201,6 +871,131 @@ final class R2dbcTest {
         assertThat(connection.isCloseCalled()).isTrue();
     }
 
+    @Test
+    void withHandlePooled() {
+        MockConnection connection = MockConnection.empty();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .pool(PoolConfiguration.builder().build())
+            .build();
+
+        r2dbc
+            .withHandle(handle ->
+                Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        assertThat(connection.isCloseCalled()).isFalse();
+    }
+
+    @Test
+    void withHandlePriority() {
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.empty())
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .pool(PoolConfiguration.builder().maxSize(1).priorityAgingInterval(Duration.ofHours(1)).build())
+            .build();
+
+        Handle held = r2dbc.open().block();
+        List<Integer> order = new ArrayList<>();
+
+        r2dbc.withHandle(0, handle -> Mono.just(0)).subscribe(order::add);
+        r2dbc.withHandle(10, handle -> Mono.just(10)).subscribe(order::add);
+
+        assertThat(order).isEmpty();
+
+        held.close()
+            .as(StepVerifier::create)
+            .verifyComplete();
+
+        assertThat(order).containsExactly(10, 0);
+    }
+
+    @Test
+    void withHandlePriorityNoF() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).withHandle(10, null))
+            .withMessage("f must not be null");
+    }
+
+    @Test
+    void withHandleNested() {
+        MockConnection connection = MockConnection.empty();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        R2dbc r2dbc = new R2dbc(connectionFactory);
+
+        r2dbc
+            .withHandle(outer -> r2dbc
+                .inTransaction(inner ->
+                    Mono.just(outer == inner)))
+            .as(StepVerifier::create)
+            .expectNext(true)
+            .verifyComplete();
+
+        assertThat(connection.isCommitTransactionCalled()).isTrue();
+        assertThat(connection.isCloseCalled()).isTrue();
+    }
+
+    @Test
+    void withHandleNotNested() {
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.empty())
+            .build();
+
+        R2dbc r2dbc = new R2dbc(connectionFactory);
+        R2dbc other = new R2dbc(connectionFactory);
+
+        r2dbc
+            .withHandle(outer -> other
+                .withHandle(inner ->
+                    Mono.just(outer == inner)))
+            .as(StepVerifier::create)
+            .expectNext(false)
+            .verifyComplete();
+    }
+
+    @Test
+    void withHandleCancelPooled() {
+        MockConnection connection = MockConnection.empty();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        R2dbc r2dbc = R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .pool(PoolConfiguration.builder().acquireTimeout(Duration.ofMillis(100)).maxSize(1).build())
+            .build();
+
+        for (int i = 0; i < 2; i++) {
+            r2dbc
+                .withHandle(handle -> Flux.never())
+                .as(StepVerifier::create)
+                .thenCancel()
+                .verify();
+        }
+
+        r2dbc
+            .withHandle(handle -> Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        assertThat(connection.isRollbackTransactionCalled()).isFalse();
+    }
+
     @Test
     void withHandleError() {
         MockConnection connection = MockConnection.empty();
@@ -226,4 +1021,76 @@ final class R2dbcTest {
             .withMessage("f must not be null");
     }
 
+    @Test
+    void withReadOnly() {
+        MockConnection connection = MockConnection.empty();
+
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(connection)
+            .build();
+
+        new R2dbc(connectionFactory)
+            .withReadOnly(handle ->
+                Mono.just(100))
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        assertThat(connection.isBeginTransactionCalled()).isFalse();
+        assertThat(connection.isCommitTransactionCalled()).isFalse();
+        assertThat(connection.isCloseCalled()).isTrue();
+    }
+
+    @Test
+    void withReadOnlyNoF() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new R2dbc(MockConnectionFactory.empty()).withReadOnly(null))
+            .withMessage("f must not be null");
+    }
+
+    private static R2dbc cachingR2dbc() {
+        MockConnectionFactory connectionFactory = MockConnectionFactory.builder()
+            .connection(MockConnection.builder()
+                .statement(MockStatement.builder()
+                    .result(result())
+                    .build())
+                .build())
+            .build();
+
+        return R2dbc.builder()
+            .connectionFactory(connectionFactory)
+            .resultCache(ResultCacheConfiguration.builder().build())
+            .build();
+    }
+
+    private static MockResult result() {
+        return MockResult.builder()
+            .rowMetadata(MockRowMetadata.builder()
+                .columnMetadata(MockColumnMetadata.builder()
+                    .name("name")
+                    .nativeTypeMetadata(100)
+                    .build())
+                .build())
+            .row(MockRow.builder()
+                .identified(0, Object.class, "test-name")
+                .build())
+            .rowsUpdated(1)
+            .build();
+    }
+
+    private static void select(R2dbc r2dbc) {
+        r2dbc
+            .select("SELECT name FROM test WHERE id = $1", 100)
+            .mapRow(row -> row.get("name", String.class))
+            .as(StepVerifier::create)
+            .expectNext("test-name")
+            .verifyComplete();
+    }
+
+    private static Map<Object, Object> bounds(long lower, long upper) {
+        Map<Object, Object> bindings = new HashMap<>();
+        bindings.put(0, lower);
+        bindings.put(1, upper);
+        return bindings;
+    }
+
 }
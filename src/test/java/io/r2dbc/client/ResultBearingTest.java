@@ -16,6 +16,7 @@
 
 package io.r2dbc.client;
 
+import io.r2dbc.spi.Result;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import io.r2dbc.spi.test.MockColumnMetadata;
@@ -23,16 +24,114 @@ import io.r2dbc.spi.test.MockResult;
 import io.r2dbc.spi.test.MockRow;
 import io.r2dbc.spi.test.MockRowMetadata;
 import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.util.function.Tuples;
 
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 final class ResultBearingTest {
 
+    @Test
+    void mapColumns() {
+        MockRowMetadata rowMetadata = MockRowMetadata.builder()
+            .columnMetadata(MockColumnMetadata.builder()
+                .name("test-name-1")
+                .nativeTypeMetadata(100)
+                .build())
+            .columnMetadata(MockColumnMetadata.builder()
+                .name("test-name-2")
+                .nativeTypeMetadata(100)
+                .build())
+            .build();
+
+        MockRow row1 = MockRow.builder()
+            .identified(1, String.class, "test-value-1")
+            .build();
+
+        MockRow row2 = MockRow.builder()
+            .identified(1, String.class, "test-value-2")
+            .build();
+
+        MockResultBearing resultBearing = MockResultBearing.builder()
+            .result(MockResult.builder()
+                .rowMetadata(rowMetadata)
+                .row(row1, row2)
+                .build())
+            .build();
+
+        resultBearing
+            .mapColumns(row -> row.get(0, String.class), "TEST-NAME-2")
+            .as(StepVerifier::create)
+            .expectNext("test-value-1")
+            .expectNext("test-value-2")
+            .verifyComplete();
+    }
+
+    @Test
+    void mapColumnsNoColumnNames() {
+        MockResultBearing resultBearing = MockResultBearing.builder()
+            .result(MockResult.empty())
+            .build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> resultBearing.mapColumns(Function.identity(), (String[]) null))
+            .withMessage("columnNames must not be null");
+    }
+
+    @Test
+    void mapColumnsNoF() {
+        MockResultBearing resultBearing = MockResultBearing.builder()
+            .result(MockResult.empty())
+            .build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> resultBearing.mapColumns(null))
+            .withMessage("f must not be null");
+    }
+
+    @Test
+    void mapResultStrategy() {
+        MockResultBearing resultBearing = MockResultBearing.builder()
+            .result(MockResult.builder()
+                .rowsUpdated(100)
+                .build())
+            .build();
+
+        resultBearing
+            .mapResult(Result::getRowsUpdated, ResultStrategy.ORDERED)
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+    }
+
+    @Test
+    void mapResultStrategyNoStrategy() {
+        MockResultBearing resultBearing = MockResultBearing.builder()
+            .result(MockResult.empty())
+            .build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> resultBearing.mapResult(Result::getRowsUpdated, null))
+            .withMessage("strategy must not be null");
+    }
+
+    @Test
+    void mapResultStrategyUnordered() {
+        MockResultBearing resultBearing = MockResultBearing.builder()
+            .result(MockResult.builder()
+                .rowsUpdated(100)
+                .build())
+            .build();
+
+        resultBearing
+            .mapResult(Result::getRowsUpdated, ResultStrategy.UNORDERED)
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+    }
+
     @Test
     void mapRowBiFunction() {
         MockRowMetadata rowMetadata = MockRowMetadata.builder()
@@ -75,6 +174,48 @@ final class ResultBearingTest {
             .withMessage("f must not be null");
     }
 
+    @Test
+    void mapRowScheduler() {
+        MockRowMetadata rowMetadata = MockRowMetadata.builder()
+            .columnMetadata(MockColumnMetadata.builder()
+                .name("test-name")
+                .nativeTypeMetadata(100)
+                .build())
+            .build();
+
+        MockResultBearing resultBearing = MockResultBearing.builder()
+            .result(MockResult.builder()
+                .rowMetadata(rowMetadata)
+                .row(MockRow.builder()
+                        .identified(0, Object.class, "test-value-1")
+                        .build(),
+                    MockRow.builder()
+                        .identified(0, Object.class, "test-value-2")
+                        .build())
+                .build())
+            .build();
+
+        resultBearing
+            .mapRow((row, actual) -> {
+                assertThat(actual).isSameAs(rowMetadata);
+                assertThat(Thread.currentThread().getName()).startsWith("parallel");
+                return row.get("TEST-NAME", String.class);
+            }, Schedulers.parallel(), true)
+            .as(StepVerifier::create)
+            .expectNext("test-value-1", "test-value-2")
+            .verifyComplete();
+    }
+
+    @Test
+    void mapRowSchedulerNoScheduler() {
+        MockResultBearing resultBearing = MockResultBearing.builder()
+            .result(MockResult.empty())
+            .build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> resultBearing.mapRow(Tuples::of, null, true))
+            .withMessage("scheduler must not be null");
+    }
+
     @Test
     void mapRowFunction() {
         MockRow row1 = MockRow.builder()
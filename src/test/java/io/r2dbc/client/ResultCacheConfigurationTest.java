@@ -0,0 +1,57 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class ResultCacheConfigurationTest {
+
+    @Test
+    void build() {
+        ResultCacheConfiguration configuration = ResultCacheConfiguration.builder()
+            .maxWeight(100)
+            .timeToLive(Duration.ofSeconds(5))
+            .build();
+
+        assertThat(configuration.getMaxWeight()).isEqualTo(100);
+        assertThat(configuration.getTimeToLive()).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void maxWeightZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ResultCacheConfiguration.builder().maxWeight(0))
+            .withMessage("maxWeight must be positive");
+    }
+
+    @Test
+    void timeToLiveNoTimeToLive() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ResultCacheConfiguration.builder().timeToLive(null))
+            .withMessage("timeToLive must not be null");
+    }
+
+    @Test
+    void timeToLiveZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ResultCacheConfiguration.builder().timeToLive(Duration.ZERO))
+            .withMessage("timeToLive must be positive");
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class ResultCacheTest {
+
+    private static final Set<String> TABLES = Collections.singleton("test");
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    private final ResultCache resultCache = new ResultCache(ResultCacheConfiguration.builder()
+        .maxWeight(4)
+        .timeToLive(Duration.ofNanos(100))
+        .build(), this.nanoTime::get);
+
+    @Test
+    void evict() {
+        this.resultCache.put(key("test-query-1"), TABLES, results(2), 0);
+        this.resultCache.put(key("test-query-2"), TABLES, results(2), 0);
+        this.resultCache.get(key("test-query-1"));
+        this.resultCache.put(key("test-query-3"), TABLES, results(1), 0);
+
+        assertThat(this.resultCache.get(key("test-query-1"))).isNotNull();
+        assertThat(this.resultCache.get(key("test-query-2"))).isNull();
+        assertThat(this.resultCache.get(key("test-query-3"))).isNotNull();
+        assertThat(this.resultCache.getWeight()).isEqualTo(3);
+        assertThat(this.resultCache.getMetrics().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void expire() {
+        this.resultCache.put(key("test-query"), TABLES, results(1), 0);
+        this.nanoTime.set(99);
+
+        assertThat(this.resultCache.get(key("test-query"))).isNotNull();
+
+        this.nanoTime.set(100);
+
+        assertThat(this.resultCache.get(key("test-query"))).isNull();
+        assertThat(this.resultCache.size()).isZero();
+        assertThat(this.resultCache.getWeight()).isZero();
+        assertThat(this.resultCache.getMetrics().getExpirations()).isEqualTo(1);
+    }
+
+    @Test
+    void get() {
+        List<CachedResult> results = results(1);
+        this.resultCache.put(new ResultCache.Key("test-query", new Object[]{100, new byte[]{1, 2}}), TABLES, results, 0);
+
+        assertThat(this.resultCache.get(new ResultCache.Key("test-query", new Object[]{100, new byte[]{1, 2}}))).isSameAs(results);
+        assertThat(this.resultCache.get(new ResultCache.Key("test-query", new Object[]{200, new byte[]{1, 2}}))).isNull();
+        assertThat(this.resultCache.getMetrics().getHits()).isEqualTo(1);
+        assertThat(this.resultCache.getMetrics().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidate() {
+        this.resultCache.put(key("test-query-1"), TABLES, results(1), 0);
+        this.resultCache.put(key("test-query-2"), Collections.singleton("other"), results(1), 0);
+        this.resultCache.put(key("test-query-3"), Collections.singleton(TableNames.ALL), results(1), 0);
+
+        this.resultCache.invalidate(TABLES);
+
+        assertThat(this.resultCache.get(key("test-query-1"))).isNull();
+        assertThat(this.resultCache.get(key("test-query-2"))).isNotNull();
+        assertThat(this.resultCache.get(key("test-query-3"))).isNull();
+        assertThat(this.resultCache.getWeight()).isEqualTo(1);
+    }
+
+    @Test
+    void invalidateAll() {
+        this.resultCache.put(key("test-query-1"), TABLES, results(1), 0);
+        this.resultCache.put(key("test-query-2"), Collections.singleton("other"), results(1), 0);
+
+        this.resultCache.invalidate(Collections.singleton(TableNames.ALL));
+
+        assertThat(this.resultCache.size()).isZero();
+        assertThat(this.resultCache.getWeight()).isZero();
+    }
+
+    @Test
+    void putAfterInvalidate() {
+        long generation = this.resultCache.getGeneration();
+
+        this.resultCache.invalidate(TABLES);
+        this.resultCache.put(key("test-query-1"), TABLES, results(1), generation);
+        this.resultCache.put(key("test-query-2"), Collections.singleton("other"), results(1), generation);
+
+        assertThat(this.resultCache.get(key("test-query-1"))).isNull();
+        assertThat(this.resultCache.get(key("test-query-2"))).isNotNull();
+
+        this.resultCache.put(key("test-query-1"), TABLES, results(1), this.resultCache.getGeneration());
+
+        assertThat(this.resultCache.get(key("test-query-1"))).isNotNull();
+    }
+
+    @Test
+    void putEmpty() {
+        this.resultCache.put(key("test-query"), TABLES, Collections.emptyList(), 0);
+
+        assertThat(this.resultCache.get(key("test-query"))).isEmpty();
+        assertThat(this.resultCache.getWeight()).isEqualTo(1);
+    }
+
+    @Test
+    void putNotReplayable() {
+        this.resultCache.put(key("test-query"), TABLES, Collections.singletonList(new CachedResult(new String[]{"test-column"}, null,
+            Collections.singletonList(new Object[]{Mono.just("test-value")}))), 0);
+
+        assertThat(this.resultCache.get(key("test-query"))).isNull();
+        assertThat(this.resultCache.size()).isZero();
+    }
+
+    @Test
+    void putReplace() {
+        this.resultCache.put(key("test-query"), TABLES, results(2), 0);
+        this.resultCache.put(key("test-query"), TABLES, results(3), 0);
+
+        assertThat(this.resultCache.size()).isEqualTo(1);
+        assertThat(this.resultCache.getWeight()).isEqualTo(3);
+    }
+
+    @Test
+    void putTooHeavy() {
+        this.resultCache.put(key("test-query"), TABLES, results(5), 0);
+
+        assertThat(this.resultCache.get(key("test-query"))).isNull();
+        assertThat(this.resultCache.getWeight()).isZero();
+    }
+
+    private static ResultCache.Key key(String sql) {
+        return new ResultCache.Key(sql, new Object[0]);
+    }
+
+    private static List<CachedResult> results(int rows) {
+        List<Object[]> values = new ArrayList<>();
+
+        for (int i = 0; i < rows; i++) {
+            values.add(new Object[]{i});
+        }
+
+        return Collections.singletonList(new CachedResult(new String[]{"test-column"}, null, values));
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.test.MockResult;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class ResultStrategyTest {
+
+    private final MockResult first = MockResult.empty();
+
+    private final MockResult second = MockResult.empty();
+
+    private final Function<Result, Mono<Integer>> f = result -> result == this.first ? Mono.just(1).delayElement(Duration.ofMillis(100)) : Mono.just(2);
+
+    @Test
+    void builder() {
+        ResultStrategy strategy = ResultStrategy.builder()
+            .concurrency(2)
+            .ordered(true)
+            .prefetch(4)
+            .build();
+
+        assertThat(strategy.getConcurrency()).isEqualTo(2);
+        assertThat(strategy.getPrefetch()).isEqualTo(4);
+        assertThat(strategy.isOrdered()).isTrue();
+    }
+
+    @Test
+    void builderConcurrencyZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ResultStrategy.builder().concurrency(0))
+            .withMessage("concurrency must be positive");
+    }
+
+    @Test
+    void builderPrefetchZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ResultStrategy.builder().prefetch(0))
+            .withMessage("prefetch must be positive");
+    }
+
+    @Test
+    void mapOrdered() {
+        ResultStrategy.ORDERED.map(Flux.just(this.first, this.second), this.f)
+            .as(StepVerifier::create)
+            .expectNext(1, 2)
+            .verifyComplete();
+    }
+
+    @Test
+    void mapUnordered() {
+        ResultStrategy.UNORDERED.map(Flux.just(this.first, this.second), this.f)
+            .as(StepVerifier::create)
+            .expectNext(2, 1)
+            .verifyComplete();
+    }
+
+    @Test
+    void mapUnorderedConcurrencyOne() {
+        ResultStrategy.builder()
+            .concurrency(1)
+            .build()
+            .map(Flux.just(this.first, this.second), this.f)
+            .as(StepVerifier::create)
+            .expectNext(1, 2)
+            .verifyComplete();
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.R2dbcException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class RetryPolicyTest {
+
+    @Test
+    void build() {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+            .maxAttempts(5)
+            .build();
+
+        assertThat(retryPolicy.getMaxAttempts()).isEqualTo(5);
+        assertThat(retryPolicy.isRetryable(new R2dbcException("test-reason", "40001") {
+
+        })).isTrue();
+    }
+
+    @Test
+    void buildInitialBackoffGreaterThanMaxBackoff() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RetryPolicy.builder().initialBackoff(Duration.ofSeconds(2)).maxBackoff(Duration.ofSeconds(1)).build())
+            .withMessage("initialBackoff must not be greater than maxBackoff");
+    }
+
+    @Test
+    void getBackoff() {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+            .initialBackoff(Duration.ofMillis(10))
+            .maxBackoff(Duration.ofMillis(50))
+            .jitter(0)
+            .build();
+
+        assertThat(retryPolicy.getBackoff(1)).isEqualTo(Duration.ofMillis(10));
+        assertThat(retryPolicy.getBackoff(2)).isEqualTo(Duration.ofMillis(20));
+        assertThat(retryPolicy.getBackoff(3)).isEqualTo(Duration.ofMillis(40));
+        assertThat(retryPolicy.getBackoff(4)).isEqualTo(Duration.ofMillis(50));
+        assertThat(retryPolicy.getBackoff(100)).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void getBackoffJitter() {
+        RetryPolicy retryPolicy = RetryPolicy.builder()
+            .initialBackoff(Duration.ofMillis(100))
+            .jitter(0.5)
+            .build();
+
+        assertThat(retryPolicy.getBackoff(1)).isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+    }
+
+    @Test
+    void initialBackoffNegative() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RetryPolicy.builder().initialBackoff(Duration.ofMillis(-1)))
+            .withMessage("initialBackoff must not be negative");
+    }
+
+    @Test
+    void isTransient() {
+        assertThat(RetryPolicy.isTransient(new R2dbcException("test-reason", "40P01") {
+
+        })).isTrue();
+        assertThat(RetryPolicy.isTransient(new IllegalStateException(new R2dbcException("test-reason", "40001") {
+
+        }))).isTrue();
+        assertThat(RetryPolicy.isTransient(new R2dbcException("test-reason", "23505") {
+
+        })).isFalse();
+        assertThat(RetryPolicy.isTransient(new IllegalStateException())).isFalse();
+    }
+
+    @Test
+    void jitterOutOfRange() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RetryPolicy.builder().jitter(1.5))
+            .withMessage("jitter must be between 0 and 1");
+    }
+
+    @Test
+    void maxAttemptsZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RetryPolicy.builder().maxAttempts(0))
+            .withMessage("maxAttempts must be positive");
+    }
+
+    @Test
+    void retryableNull() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RetryPolicy.builder().retryable(null))
+            .withMessage("retryable must not be null");
+    }
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.test.MockColumnMetadata;
+import io.r2dbc.spi.test.MockRow;
+import io.r2dbc.spi.test.MockRowMetadata;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class RowMapperTest {
+
+    @Test
+    void apply() {
+        MockRowMetadata rowMetadata = MockRowMetadata.builder()
+            .columnMetadata(columnMetadata("first_name"))
+            .columnMetadata(columnMetadata("ignored"))
+            .columnMetadata(columnMetadata("AGE"))
+            .build();
+
+        MockRow row = MockRow.builder()
+            .identified(0, String.class, "test-name")
+            .identified(2, Integer.class, 100)
+            .build();
+
+        Person person = RowMapper.of(Person.class).apply(row, rowMetadata);
+
+        assertThat(person.getFirstName()).isEqualTo("test-name");
+        assertThat(person.getAge()).isEqualTo(100);
+    }
+
+    @Test
+    void applyNullPrimitive() {
+        MockRowMetadata rowMetadata = MockRowMetadata.builder()
+            .columnMetadata(columnMetadata("age"))
+            .build();
+
+        Row row = new Row() {
+
+            @Override
+            public <T> T get(Object identifier, Class<T> type) {
+                return null;
+            }
+
+        };
+
+        assertThat(RowMapper.of(Person.class).apply(row, rowMetadata).getAge()).isZero();
+    }
+
+    @Test
+    void applyPlanCached() {
+        RowMapper<Person> rowMapper = RowMapper.of(Person.class);
+        int planCount = rowMapper.getPlanCount();
+
+        rowMapper.apply(MockRow.builder().identified(0, String.class, "test-name-1").build(), MockRowMetadata.builder().columnMetadata(columnMetadata("cached_name")).build());
+        rowMapper.apply(MockRow.builder().identified(0, String.class, "test-name-2").build(), MockRowMetadata.builder().columnMetadata(columnMetadata("cached_name")).build());
+
+        assertThat(rowMapper.getPlanCount()).isEqualTo(planCount + 1);
+    }
+
+    @Test
+    void of() {
+        assertThat(RowMapper.of(Person.class)).isSameAs(RowMapper.of(Person.class));
+    }
+
+    @Test
+    void ofAmbiguousSetters() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RowMapper.of(AmbiguousSetters.class))
+            .withMessage("%s has ambiguous setters for column value", AmbiguousSetters.class.getName());
+    }
+
+    @Test
+    void ofBridgeSetter() {
+        MockRowMetadata rowMetadata = MockRowMetadata.builder()
+            .columnMetadata(columnMetadata("value"))
+            .build();
+
+        MockRow row = MockRow.builder()
+            .identified(0, String.class, "test-value")
+            .build();
+
+        assertThat(RowMapper.of(StringValue.class).apply(row, rowMetadata).getValue()).isEqualTo("test-value");
+    }
+
+    @Test
+    void ofNoConstructor() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RowMapper.of(NoConstructor.class))
+            .withMessage("%s must have a public no-argument constructor", NoConstructor.class.getName());
+    }
+
+    @Test
+    void ofNoType() {
+        assertThatIllegalArgumentException().isThrownBy(() -> RowMapper.of(null))
+            .withMessage("type must not be null");
+    }
+
+    private static MockColumnMetadata columnMetadata(String name) {
+        return MockColumnMetadata.builder()
+            .name(name)
+            .nativeTypeMetadata(100)
+            .build();
+    }
+
+    public static final class AmbiguousSetters {
+
+        public void setValue(Integer value) {
+        }
+
+        public void setValue(String value) {
+        }
+
+    }
+
+    public static class GenericValue<T> {
+
+        private T value;
+
+        public T getValue() {
+            return this.value;
+        }
+
+        public void setValue(T value) {
+            this.value = value;
+        }
+
+    }
+
+    public static final class NoConstructor {
+
+        public NoConstructor(String value) {
+        }
+
+    }
+
+    public static final class Person {
+
+        private int age;
+
+        private String cachedName;
+
+        private String firstName;
+
+        public int getAge() {
+            return this.age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public String getCachedName() {
+            return this.cachedName;
+        }
+
+        public void setCachedName(String cachedName) {
+            this.cachedName = cachedName;
+        }
+
+        public String getFirstName() {
+            return this.firstName;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+
+    }
+
+    public static final class StringValue extends GenericValue<String> {
+
+        @Override
+        public void setValue(String value) {
+            super.setValue(value);
+        }
+
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class StatementCacheTest {
+
+    @Test
+    void constructorNoMetrics() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new StatementCache(1, null))
+            .withMessage("metrics must not be null");
+    }
+
+    @Test
+    void constructorSizeZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new StatementCache(0, new StatementCacheMetrics()))
+            .withMessage("size must be positive");
+    }
+
+    @Test
+    void get() {
+        StatementCacheMetrics metrics = new StatementCacheMetrics();
+        StatementCache statementCache = new StatementCache(1, metrics);
+
+        ParsedStatement statement = statementCache.get("test-query", StatementCacheTest::parse);
+
+        assertThat(statementCache.get("test-query", StatementCacheTest::parse)).isSameAs(statement);
+        assertThat(metrics.getHits()).isEqualTo(1);
+        assertThat(metrics.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void getEvictsLeastRecentlyUsed() {
+        StatementCacheMetrics metrics = new StatementCacheMetrics();
+        StatementCache statementCache = new StatementCache(2, metrics);
+
+        ParsedStatement statement = statementCache.get("test-query-1", StatementCacheTest::parse);
+        statementCache.get("test-query-2", StatementCacheTest::parse);
+        statementCache.get("test-query-3", StatementCacheTest::parse);
+
+        assertThat(statementCache.size()).isEqualTo(2);
+        assertThat(metrics.getEvictions()).isEqualTo(1);
+        assertThat(statementCache.get("test-query-1", StatementCacheTest::parse)).isNotSameAs(statement);
+    }
+
+    private static ParsedStatement parse(String sql) {
+        return new ParsedStatement(sql, null, null, null, Collections.emptySet());
+    }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import io.r2dbc.spi.test.MockBatch;
+import io.r2dbc.spi.test.MockResult;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+final class StreamingBatchTest {
+
+    @Test
+    void constructorNoBatchFactory() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new StreamingBatch(Flux.empty(), null, 1, 1, 1))
+            .withMessage("batchFactory must not be null");
+    }
+
+    @Test
+    void constructorNoStatements() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new StreamingBatch(null, () -> new Batch(MockBatch.empty()), 1, 1, 1))
+            .withMessage("statements must not be null");
+    }
+
+    @Test
+    void mapResult() {
+        List<MockBatch> batches = new ArrayList<>();
+
+        Supplier<Batch> batchFactory = () -> {
+            MockBatch batch = MockBatch.builder()
+                .result(MockResult.empty())
+                .build();
+
+            batches.add(batch);
+            return new Batch(batch);
+        };
+
+        new StreamingBatch(Flux.just("test-query-1", "test-query-2", "test-query-3", "test-query-4-long", "test-query-5"), batchFactory, 10, 20, 2)
+            .mapResult(result -> Mono.just(batches.size()))
+            .as(StepVerifier::create)
+            .expectNextCount(3)
+            .verifyComplete();
+
+        assertThat(batches).hasSize(3);
+        assertThat(batches.get(0).getSqls()).containsExactly("test-query-1", "test-query-2");
+        assertThat(batches.get(1).getSqls()).containsExactly("test-query-3", "test-query-4-long");
+        assertThat(batches.get(2).getSqls()).containsExactly("test-query-5");
+    }
+
+    @Test
+    void mapResultInStatementOrder() {
+        MockResult first = MockResult.empty();
+        MockResult second = MockResult.empty();
+
+        Supplier<Batch> batchFactory = () -> new Batch(MockBatch.builder()
+            .result(first)
+            .result(second)
+            .build());
+
+        new StreamingBatch(Flux.just("test-query-1", "test-query-2"), batchFactory, 10, 100, 1)
+            .mapResult(result -> result == first ? Mono.delay(Duration.ofMillis(100)).thenReturn("first") : Mono.just("second"))
+            .as(StepVerifier::create)
+            .expectNext("first", "second")
+            .verifyComplete();
+    }
+
+    @Test
+    void mapResultNoF() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new StreamingBatch(Flux.empty(), () -> new Batch(MockBatch.empty()), 1, 1, 1).mapResult(null))
+            .withMessage("f must not be null");
+    }
+
+}
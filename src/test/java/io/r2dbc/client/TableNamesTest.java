@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.r2dbc.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+final class TableNamesTest {
+
+    @Test
+    void read() {
+        assertThat(TableNames.read("SELECT * FROM test WHERE id = $1")).containsExactly("test");
+        assertThat(TableNames.read("SELECT a.id FROM public.\"Test\" a JOIN other b ON a.id = b.id")).containsExactly("test", "other");
+        assertThat(TableNames.read("select * from test t, other o where t.id = o.id")).containsExactly("test", "other");
+        assertThat(TableNames.read("SELECT * FROM (SELECT id FROM test) t LEFT JOIN other USING (id)")).containsExactly("test", "other");
+    }
+
+    @Test
+    void readIgnoresLiterals() {
+        assertThat(TableNames.read("SELECT 'FROM secret' FROM test -- FROM comment\n/* JOIN other */")).containsExactly("test");
+    }
+
+    @Test
+    void readUnknown() {
+        assertThat(TableNames.read("SELECT 1")).containsExactly(TableNames.ALL);
+    }
+
+    @Test
+    void written() {
+        assertThat(TableNames.written("INSERT INTO test (id) VALUES ($1)")).containsExactly("test");
+        assertThat(TableNames.written("UPDATE ONLY public.test SET value = $1")).containsExactly("test");
+        assertThat(TableNames.written("DELETE FROM test WHERE id = $1")).containsExactly("test");
+        assertThat(TableNames.written("MERGE INTO test USING other ON test.id = other.id")).containsExactly("test");
+        assertThat(TableNames.written("TRUNCATE TABLE test, other")).containsExactly("test", "other");
+        assertThat(TableNames.written("DROP TABLE IF EXISTS test")).containsExactly("test");
+    }
+
+    @Test
+    void writtenUnknown() {
+        assertThat(TableNames.written("WITH t AS (DELETE FROM test RETURNING *) SELECT * FROM t")).containsExactly(TableNames.ALL);
+        assertThat(TableNames.written("CALL refresh()")).containsExactly(TableNames.ALL);
+        assertThat(TableNames.written("ALTER INDEX test_idx RENAME TO other_idx")).containsExactly(TableNames.ALL);
+        assertThat(TableNames.written("")).containsExactly(TableNames.ALL);
+    }
+
+}
@@ -19,9 +19,14 @@ package io.r2dbc.client;
 import io.r2dbc.spi.test.MockResult;
 import io.r2dbc.spi.test.MockStatement;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
@@ -64,6 +69,22 @@ final class UpdateTest {
             .withMessage("value must not be null");
     }
 
+    @Test
+    void bindName() {
+        MockStatement statement = MockStatement.empty();
+
+        new Update(statement, "UPDATE test SET value = $1 WHERE id = $2", () -> {
+        }, sql -> statement, null, null, null, NamedParameters.parse("UPDATE test SET value = :value WHERE id = :id", BindMarkers.DOLLAR))
+            .bind("id", 100)
+            .bind("value", 200);
+
+        Map<Object, Object> bindings = new HashMap<>();
+        bindings.put(0, 200);
+        bindings.put(1, 100);
+
+        assertThat(statement.getBindings()).contains(bindings);
+    }
+
     @Test
     void bindNoIdentifier() {
         assertThatIllegalArgumentException().isThrownBy(() -> new Update(MockStatement.empty()).bind(null, new Object()))
@@ -121,4 +142,164 @@ final class UpdateTest {
             .verifyComplete();
     }
 
+    @Test
+    void executeExecutionListener() {
+        MockResult result = MockResult.builder()
+            .rowsUpdated(100)
+            .build();
+
+        MockStatement statement = MockStatement.builder()
+            .result(result)
+            .build();
+
+        List<ExecutionInfo> executions = new ArrayList<>();
+
+        new Update(statement, "test-update", () -> {
+        }, sql -> statement, new ExecutionListener() {
+
+            @Override
+            public void afterExecution(ExecutionInfo executionInfo) {
+                executions.add(executionInfo);
+            }
+
+            @Override
+            public void beforeExecution(ExecutionInfo executionInfo) {
+                executions.add(executionInfo);
+            }
+
+        }, null, null, null)
+            .add()
+            .execute()
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .verifyComplete();
+
+        assertThat(executions).hasSize(2);
+        assertThat(executions.get(0)).isSameAs(executions.get(1));
+        assertThat(executions.get(0).getBindings()).isEqualTo(1);
+        assertThat(executions.get(0).getRows()).isEqualTo(1);
+        assertThat(executions.get(0).getSql()).isEqualTo("test-update");
+    }
+
+    @Test
+    void executeRewrite() {
+        Map<String, MockStatement> statements = new HashMap<>();
+        statements.put("INSERT INTO test VALUES ($1, $2), ($3, $4)", MockStatement.builder()
+            .result(MockResult.builder()
+                .rowsUpdated(2)
+                .build())
+            .build());
+        statements.put("INSERT INTO test VALUES ($1, $2)", MockStatement.builder()
+            .result(MockResult.builder()
+                .rowsUpdated(1)
+                .build())
+            .build());
+
+        MockStatement statement = MockStatement.empty();
+
+        new Update(statement, "INSERT INTO test VALUES ($1, $2)", () -> {
+        }, statements::get, null, null, InsertRewrite.parse("INSERT INTO test VALUES ($1, $2)", 4), null)
+            .bind(0, 100).bind("$2", 200).add()
+            .bind(0, 300).bind(1, 400).add()
+            .bind(0, 500).bindNull("$2", Integer.class)
+            .execute()
+            .as(StepVerifier::create)
+            .expectNext(1, 1, 1)
+            .verifyComplete();
+
+        assertThat(statement.isAddCalled()).isFalse();
+        assertThat(statements.get("INSERT INTO test VALUES ($1, $2), ($3, $4)").getBindings().get(0))
+            .containsEntry(0, 100).containsEntry(1, 200).containsEntry(2, 300).containsEntry(3, 400);
+        assertThat(statements.get("INSERT INTO test VALUES ($1, $2)").getBindings().get(0))
+            .containsEntry(0, 500).containsEntry(1, Integer.class);
+    }
+
+    @Test
+    void executeRewriteFewerRowsUpdated() {
+        MockStatement rewritten = MockStatement.builder()
+            .result(MockResult.builder()
+                .rowsUpdated(1)
+                .build())
+            .build();
+
+        new Update(MockStatement.empty(), "INSERT INTO test VALUES ($1)", () -> {
+        }, sql -> rewritten, null, null, InsertRewrite.parse("INSERT INTO test VALUES ($1)", 10), null)
+            .bind(0, 100).add()
+            .bind(0, 200).add()
+            .bind(0, 300)
+            .execute()
+            .as(StepVerifier::create)
+            .expectNext(1, 0, 0)
+            .verifyComplete();
+    }
+
+    @Test
+    void executeRewriteNamedIdentifier() {
+        MockStatement statement = MockStatement.builder()
+            .result(MockResult.builder()
+                .rowsUpdated(1)
+                .build())
+            .build();
+
+        new Update(statement, "INSERT INTO test VALUES ($1)", () -> {
+        }, sql -> {
+            throw new AssertionError("Statement should not be rewritten");
+        }, null, null, InsertRewrite.parse("INSERT INTO test VALUES ($1)", 10), null)
+            .bind(0, 100).add()
+            .bind("test-identifier", 200).add()
+            .execute()
+            .as(StepVerifier::create)
+            .expectNext(1)
+            .verifyComplete();
+
+        assertThat(statement.isAddCalled()).isTrue();
+        assertThat(statement.getBindings()).contains(Collections.singletonMap(0, 100), Collections.singletonMap("test-identifier", 200));
+    }
+
+    @Test
+    void executeMany() {
+        MockResult result = MockResult.builder()
+            .rowsUpdated(100)
+            .build();
+
+        MockStatement statement = MockStatement.builder()
+            .result(result)
+            .build();
+
+        new Update(statement)
+            .executeMany(Flux.just(new Object[]{1}, new Object[]{2}, new Object[]{3}), 2, 1)
+            .as(StepVerifier::create)
+            .expectNext(100)
+            .expectNext(100)
+            .verifyComplete();
+
+        assertThat(statement.getBindings()).contains(Collections.singletonMap(0, 1), Collections.singletonMap(0, 2), Collections.singletonMap(0, 3));
+    }
+
+    @Test
+    void executeManyMaxInFlightZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Update(MockStatement.empty()).executeMany(Flux.empty(), 1, 0))
+            .withMessage("maxInFlight must be positive");
+    }
+
+    @Test
+    void executeManyNoParameters() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Update(MockStatement.empty()).executeMany(null, 1, 1))
+            .withMessage("parameters must not be null");
+    }
+
+    @Test
+    void executeManyNoValue() {
+        new Update(MockStatement.empty())
+            .executeMany(Flux.just(new Object[]{null}), 1, 1)
+            .as(StepVerifier::create)
+            .verifyErrorMessage("value must not be null");
+    }
+
+    @Test
+    void executeManyWindowSizeZero() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new Update(MockStatement.empty()).executeMany(Flux.empty(), 0, 1))
+            .withMessage("windowSize must be positive");
+    }
+
 }